@@ -0,0 +1,91 @@
+package com.amarsalimprojects.real_estate_app.components;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.amarsalimprojects.real_estate_app.config.CacheConfig;
+import com.amarsalimprojects.real_estate_app.dto.responses.UnitResponse;
+import com.amarsalimprojects.real_estate_app.events.ProjectChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.events.UnitsImportedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitsStageChangedEvent;
+
+/**
+ * Evicts exactly the cache entries a committed change can make stale. Every write path
+ * (UnitService, controller PATCH/PUT, PurchaseService, reservation expiry) goes through
+ * the entity listeners, so this is the single place cache consistency is handled.
+ */
+@Component
+public class CacheInvalidator {
+
+    private final Cache units;
+    private final Cache projects;
+    private final Cache listings;
+
+    public CacheInvalidator(CacheManager cacheManager) {
+        this.units = cacheManager.getCache(CacheConfig.UNITS);
+        this.projects = cacheManager.getCache(CacheConfig.PROJECTS);
+        this.listings = cacheManager.getCache(CacheConfig.UNIT_LISTINGS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitChanged(UnitChangedEvent event) {
+        units.evict(event.getUnitId());
+        listings.evict("all");
+        Stream.of(event.getBefore(), event.getAfter())
+                .filter(Objects::nonNull)
+                .forEach(this::evictListingsContaining);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitsStageChanged(UnitsStageChangedEvent event) {
+        event.getChanges().forEach(change -> units.evict(change.getUnitId()));
+        listings.evict("all");
+        event.getChanges().stream()
+                .map(UnitChangedEvent::getAfter)
+                .filter(Objects::nonNull)
+                .forEach(this::evictListingsContaining);
+    }
+
+    // New units are in no cache yet; only the listings and projects that now include them are stale
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitsImported(UnitsImportedEvent event) {
+        listings.evict("all");
+        event.getChanges().stream()
+                .map(UnitChangedEvent::getAfter)
+                .forEach(this::evictListingsContaining);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        Long projectId = event.getProjectId();
+        projects.evict(projectId);
+        // Project name is denormalized into every UnitResponse of the project
+        if (units.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeUnits) {
+            nativeUnits.asMap().values().removeIf(value
+                    -> value instanceof UnitResponse response && projectId.equals(response.getProjectId()));
+        } else {
+            units.clear();
+        }
+        listings.clear();
+    }
+
+    private void evictListingsContaining(UnitSnapshot unit) {
+        if (unit.getStatus() != null) {
+            listings.evict("status:" + unit.getStatus());
+        }
+        if (unit.isFeatured()) {
+            listings.evict("featured");
+        }
+        if (unit.getProjectId() != null) {
+            listings.evict("project:" + unit.getProjectId());
+            projects.evict(unit.getProjectId());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.amarsalimprojects.real_estate_app.components;
+
+import java.time.ZoneId;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.amarsalimprojects.real_estate_app.repository.ChangeMarker;
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * ETag / Last-Modified for the unit and project catalog. The validator is COUNT plus
+ * MAX(updated_at) over the rows a response can contain, answered from an index, so an
+ * unchanged resource costs one small query and a 304 instead of loading and serializing
+ * entities. Scope comes from the matched route: a single unit, a project's units, a single
+ * project (which embeds its units) or, for any other route, the whole table(s).
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final UnitRepository unitRepository;
+    private final ProjectRepository projectRepository;
+
+    public ConditionalGetInterceptor(UnitRepository unitRepository, ProjectRepository projectRepository) {
+        this.unitRepository = unitRepository;
+        this.projectRepository = projectRepository;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod)
+                || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        @SuppressWarnings("unchecked")
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pattern == null) {
+            return true;
+        }
+
+        ChangeMarker[] markers;
+        try {
+            markers = markersFor(pattern, variables);
+        } catch (NumberFormatException e) {
+            // Let the controller reject the malformed id
+            return true;
+        }
+        if (markers == null) {
+            return true;
+        }
+
+        long count = 0;
+        long lastModified = -1;
+        for (ChangeMarker marker : markers) {
+            count += marker.getCount() != null ? marker.getCount() : 0;
+            if (marker.getLastModified() != null) {
+                lastModified = Math.max(lastModified,
+                        marker.getLastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        }
+        String etag = "W/\"" + Long.toHexString(count) + "-" + Long.toHexString(lastModified) + "\"";
+
+        // Clients may keep the body but must revalidate before reusing it
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        return !new ServletWebRequest(request, response).checkNotModified(etag, lastModified);
+    }
+
+    private ChangeMarker[] markersFor(String pattern, Map<String, String> variables) {
+        switch (pattern) {
+            case "/api/units/{id}" -> {
+                return new ChangeMarker[]{unitRepository.findChangeMarkerById(Long.valueOf(variables.get("id")))};
+            }
+            case "/api/units/project/{projectId}" -> {
+                return new ChangeMarker[]{
+                    unitRepository.findChangeMarkerByProjectId(Long.valueOf(variables.get("projectId")))};
+            }
+            case "/api/projects/{id}" -> {
+                Long projectId = Long.valueOf(variables.get("id"));
+                return new ChangeMarker[]{
+                    projectRepository.findChangeMarkerById(projectId),
+                    unitRepository.findChangeMarkerByProjectId(projectId)};
+            }
+            default -> {
+                if (pattern.startsWith("/api/units")) {
+                    return new ChangeMarker[]{unitRepository.findChangeMarker()};
+                }
+                if (pattern.startsWith("/api/projects")) {
+                    // Project payloads embed their units
+                    return new ChangeMarker[]{projectRepository.findChangeMarker(), unitRepository.findChangeMarker()};
+                }
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.amarsalimprojects.real_estate_app.components;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+import com.amarsalimprojects.real_estate_app.events.ProjectChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.events.UnitsImportedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitsStageChangedEvent;
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+/**
+ * Project construction progress as the average unit milestone (ConstructionLogic.md), capped
+ * at 90 until the admin signs off. Keeps a running milestone sum and unit count per project,
+ * so a stage change is an O(1) adjustment followed by a single-row update of the project;
+ * units without a stage count as 0. Projects without units keep their hand-set progress.
+ */
+@Component
+public class ConstructionProgressEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConstructionProgressEngine.class);
+
+    // The last 10% is for the admin sign-off (Project.getDisplayableProgress)
+    private static final float MAX_UNSIGNED_PROGRESS = 90f;
+
+    private final UnitRepository unitRepository;
+    private final ProjectRepository projectRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<Long, Totals> totals = new HashMap<>();
+
+    // One monitor per project so its progress writes happen one at a time, each with the latest value
+    private final Map<Long, Object> writeLocks = new ConcurrentHashMap<>();
+
+    public ConstructionProgressEngine(UnitRepository unitRepository, ProjectRepository projectRepository,
+            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.unitRepository = unitRepository;
+        this.projectRepository = projectRepository;
+        this.eventPublisher = eventPublisher;
+        // write() runs from after-commit listeners, where REQUIRED would join the finished transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    private static final class Totals {
+
+        long milestoneSum;
+        long units;
+
+        float progress() {
+            float average = (float) milestoneSum / units;
+            return Math.min(Math.round(average * 100f) / 100f, MAX_UNSIGNED_PROGRESS);
+        }
+    }
+
+    // Rebuilds the sums, then brings every project with units in line with them
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<UnitSnapshot> units = unitRepository.findAllSnapshots();
+        Set<Long> projects;
+        lock.writeLock().lock();
+        try {
+            totals.clear();
+            units.forEach(unit -> adjust(unit, 1));
+            projects = new HashSet<>(totals.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        int updated = 0;
+        for (Long projectId : projects) {
+            if (write(projectId)) {
+                updated++;
+            }
+        }
+        logger.info("[CONSTRUCTION PROGRESS] Tracking {} projects, corrected {}", projects.size(), updated);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitChanged(UnitChangedEvent event) {
+        if (!event.changed(UnitSnapshot::getCurrentStage) && !event.changed(UnitSnapshot::getProjectId)) {
+            return;
+        }
+        Set<Long> projects = new HashSet<>(2);
+        lock.writeLock().lock();
+        try {
+            if (event.getBefore() != null) {
+                adjust(event.getBefore(), -1);
+                projects.add(event.getBefore().getProjectId());
+            }
+            if (event.getAfter() != null) {
+                adjust(event.getAfter(), 1);
+                projects.add(event.getAfter().getProjectId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        projects.forEach(this::write);
+    }
+
+    // All units of a bulk transition share a project, so this is still a single project write
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitsStageChanged(UnitsStageChangedEvent event) {
+        applyAll(event.getChanges());
+    }
+
+    // One write per project the import batch touched
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitsImported(UnitsImportedEvent event) {
+        applyAll(event.getChanges());
+    }
+
+    private void applyAll(List<UnitChangedEvent> changes) {
+        Set<Long> projects = new HashSet<>(2);
+        lock.writeLock().lock();
+        try {
+            for (UnitChangedEvent change : changes) {
+                adjust(change.getBefore(), -1);
+                adjust(change.getAfter(), 1);
+                projects.add(change.getAfter().getProjectId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        projects.forEach(this::write);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        if (!event.isDeleted()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            totals.remove(event.getProjectId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        writeLocks.remove(event.getProjectId());
+    }
+
+    /**
+     * Progress derived from the project's units, or null if it has none.
+     */
+    public Float progressOf(Long projectId) {
+        lock.readLock().lock();
+        try {
+            Totals projectTotals = totals.get(projectId);
+            return projectTotals != null ? projectTotals.progress() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void adjust(UnitSnapshot unit, int sign) {
+        if (unit == null || unit.getProjectId() == null) {
+            return;
+        }
+        ConstructionStage stage = unit.getCurrentStage();
+        Totals projectTotals = totals.computeIfAbsent(unit.getProjectId(), id -> new Totals());
+        projectTotals.milestoneSum += sign * (stage != null ? stage.getMilestone() : 0);
+        projectTotals.units += sign;
+        if (projectTotals.units <= 0) {
+            totals.remove(unit.getProjectId());
+        }
+    }
+
+    // One UPDATE, skipped by the WHERE clause when unchanged; listeners see it as a project change.
+    // Progress is read under the project's monitor, so of two racing writers the later one to get
+    // it writes a value at least as new as the other's, and that write lands last.
+    private boolean write(Long projectId) {
+        if (projectId == null) {
+            return false;
+        }
+        synchronized (writeLocks.computeIfAbsent(projectId, id -> new Object())) {
+            Float progress = progressOf(projectId);
+            if (progress == null) {
+                return false;
+            }
+            Boolean updated = transactionTemplate.execute(status -> {
+                if (projectRepository.updateConstructionProgress(projectId, progress, LocalDateTime.now()) == 0) {
+                    return false;
+                }
+                eventPublisher.publishEvent(new ProjectChangedEvent(projectId, false));
+                return true;
+            });
+            return Boolean.TRUE.equals(updated);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.amarsalimprojects.real_estate_app.components;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.amarsalimprojects.real_estate_app.dto.responses.PriceDistributionResponse;
+import com.amarsalimprojects.real_estate_app.enums.UnitType;
+import com.amarsalimprojects.real_estate_app.events.UnitChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.events.UnitsImportedEvent;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+/**
+ * Unit price distribution per project and unit type. Each distribution is a counted multiset
+ * of prices; units in a project share a handful of price points, so it stays small and the
+ * percentiles are exact rather than sketched. The summary is recomputed when a price enters
+ * or leaves a distribution, so reads are a map lookup.
+ */
+@Component
+public class PriceDistributionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceDistributionIndex.class);
+
+    private final UnitRepository unitRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock. projectId -> unitType -> distribution; the null unitType key (HashMap
+    // allows it) is the project's all-types distribution.
+    private final Map<Long, Map<UnitType, Distribution>> distributions = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // Guarded by lock. Non-null while a rebuild is loading, so changes that commit after its
+    // query are not lost when the loaded rows replace the index.
+    private List<UnitChangedEvent> pendingDuringRebuild;
+
+    public PriceDistributionIndex(UnitRepository unitRepository) {
+        this.unitRepository = unitRepository;
+    }
+
+    // What a unit last contributed, so a change removes exactly that
+    private record Entry(Long projectId, UnitType unitType, BigDecimal price) {
+
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<UnitSnapshot> units;
+        try {
+            units = unitRepository.findAllSnapshots();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            distributions.clear();
+            entries.clear();
+            units.forEach(this::add);
+            // Replaying is idempotent: apply() always replaces the unit's entry by id
+            pendingDuringRebuild.forEach(this::apply);
+            pendingDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("[PRICE INDEX] Indexed {} priced units", entries.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitChanged(UnitChangedEvent event) {
+        if (!event.isCreated() && !event.isDeleted()
+                && !event.changed(UnitSnapshot::getPrice)
+                && !event.changed(UnitSnapshot::getUnitType)
+                && !event.changed(UnitSnapshot::getProjectId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event);
+            }
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitsImported(UnitsImportedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.addAll(event.getChanges());
+            }
+            event.getChanges().forEach(this::apply);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The all-types row followed by one row per unit type; empty if the project has no priced units.
+     */
+    public List<PriceDistributionResponse> forProject(Long projectId) {
+        lock.readLock().lock();
+        try {
+            Map<UnitType, Distribution> byType = distributions.getOrDefault(projectId, Map.of());
+            List<PriceDistributionResponse> rows = new ArrayList<>(byType.size());
+            byType.values().forEach(distribution -> rows.add(distribution.summary));
+            rows.sort(Comparator.comparing(PriceDistributionResponse::getUnitType,
+                    Comparator.nullsFirst(Comparator.naturalOrder())));
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public PriceDistributionResponse forProject(Long projectId, UnitType unitType) {
+        lock.readLock().lock();
+        try {
+            // Not getOrDefault(.., Map.of()): immutable maps reject the null all-types key
+            Map<UnitType, Distribution> byType = distributions.get(projectId);
+            Distribution distribution = byType != null ? byType.get(unitType) : null;
+            return distribution != null ? distribution.summary : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(UnitChangedEvent change) {
+        remove(change.getUnitId());
+        if (change.getAfter() != null) {
+            add(change.getAfter());
+        }
+    }
+
+    private void add(UnitSnapshot unit) {
+        if (unit.getPrice() == null || unit.getProjectId() == null) {
+            return;
+        }
+        Entry entry = new Entry(unit.getProjectId(), unit.getUnitType(), unit.getPrice());
+        entries.put(unit.getId(), entry);
+        update(entry.projectId(), null, entry.price(), 1);
+        if (entry.unitType() != null) {
+            update(entry.projectId(), entry.unitType(), entry.price(), 1);
+        }
+    }
+
+    private void remove(Long unitId) {
+        Entry entry = entries.remove(unitId);
+        if (entry == null) {
+            return;
+        }
+        update(entry.projectId(), null, entry.price(), -1);
+        if (entry.unitType() != null) {
+            update(entry.projectId(), entry.unitType(), entry.price(), -1);
+        }
+    }
+
+    private void update(Long projectId, UnitType unitType, BigDecimal price, int delta) {
+        Map<UnitType, Distribution> byType = distributions.computeIfAbsent(projectId, id -> new HashMap<>());
+        Distribution distribution = byType.computeIfAbsent(unitType, type -> new Distribution());
+        distribution.adjust(price, delta);
+        if (distribution.count > 0) {
+            distribution.summarize(projectId, unitType);
+            return;
+        }
+        byType.remove(unitType);
+        if (byType.isEmpty()) {
+            distributions.remove(projectId);
+        }
+    }
+
+    private static final class Distribution {
+
+        // Price (stripped of trailing zeros, so 100 and 100.00 are one point) -> unit count
+        private final TreeMap<BigDecimal, Integer> prices = new TreeMap<>();
+        private long count;
+        private BigDecimal sum = BigDecimal.ZERO;
+        private PriceDistributionResponse summary;
+
+        void adjust(BigDecimal price, int delta) {
+            prices.merge(price.stripTrailingZeros(), delta, (a, b) -> a + b == 0 ? null : a + b);
+            count += delta;
+            sum = delta > 0 ? sum.add(price) : sum.subtract(price);
+        }
+
+        void summarize(Long projectId, UnitType unitType) {
+            summary = PriceDistributionResponse.builder()
+                    .projectId(projectId)
+                    .unitType(unitType)
+                    .count(count)
+                    .average(sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP))
+                    .median(quantile(0.5))
+                    .p90(quantile(0.9))
+                    .min(prices.firstKey().setScale(2, RoundingMode.HALF_UP))
+                    .max(prices.lastKey().setScale(2, RoundingMode.HALF_UP))
+                    .build();
+        }
+
+        // Linear interpolation between the closest ranks
+        private BigDecimal quantile(double q) {
+            double rank = q * (count - 1);
+            long lowerRank = (long) Math.floor(rank);
+            long upperRank = (long) Math.ceil(rank);
+            BigDecimal lower = null;
+            BigDecimal upper = null;
+            long seen = 0;
+            for (Map.Entry<BigDecimal, Integer> point : prices.entrySet()) {
+                seen += point.getValue();
+                if (lower == null && seen > lowerRank) {
+                    lower = point.getKey();
+                }
+                if (seen > upperRank) {
+                    upper = point.getKey();
+                    break;
+                }
+            }
+            Objects.requireNonNull(lower);
+            Objects.requireNonNull(upper);
+            if (lowerRank == upperRank || lower.compareTo(upper) == 0) {
+                return lower.setScale(2, RoundingMode.HALF_UP);
+            }
+            BigDecimal fraction = BigDecimal.valueOf(rank - lowerRank);
+            return lower.add(upper.subtract(lower).multiply(fraction)).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.amarsalimprojects.real_estate_app.components;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.amarsalimprojects.real_estate_app.events.ProjectChangedEvent;
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+
+/**
+ * Inverted index from amenity to projects. Amenity strings are normalized (trimmed, inner
+ * whitespace collapsed, lower-cased) and interned into a dictionary of small ids, each with
+ * a BitSet of project ids, so "Swimming  Pool" and "swimming pool" are the same amenity and
+ * AND/OR queries over several amenities are word-wise bitmap operations. Project ids come from
+ * an IDENTITY column and are dense, like the unit ids in UnitInventoryIndex.
+ */
+@Component
+public class ProjectAmenityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectAmenityIndex.class);
+
+    private final ProjectRepository projectRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock. Ids are never reused; an amenity no project has any more keeps an empty bitmap.
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> labels = new ArrayList<>();
+    private final List<BitSet> projectsByAmenity = new ArrayList<>();
+    private final Map<Long, int[]> amenitiesByProject = new HashMap<>();
+
+    public ProjectAmenityIndex(ProjectRepository projectRepository) {
+        this.projectRepository = projectRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, List<String>> amenities = new HashMap<>();
+        for (Object[] row : projectRepository.findAllAmenities()) {
+            amenities.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        lock.writeLock().lock();
+        try {
+            dictionary.clear();
+            labels.clear();
+            projectsByAmenity.clear();
+            amenitiesByProject.clear();
+            amenities.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("[AMENITY INDEX] Indexed {} amenities over {} projects", labels.size(), amenities.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        Long projectId = event.getProjectId();
+        List<String> amenities = event.isDeleted() ? List.of() : projectRepository.findAmenitiesById(projectId);
+
+        lock.writeLock().lock();
+        try {
+            remove(projectId);
+            put(projectId, amenities);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the projects that have every one of the amenities (matchAll) or at least one of
+     * them, in ascending order. Amenities the index has never seen match nothing.
+     */
+    public List<Long> search(Collection<String> amenities, boolean matchAll) {
+        List<String> normalized = amenities.stream()
+                .map(ProjectAmenityIndex::normalize)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet result = null;
+            for (String amenity : normalized) {
+                Integer id = dictionary.get(amenity);
+                if (id == null) {
+                    if (matchAll) {
+                        return List.of();
+                    }
+                    continue;
+                }
+                BitSet projects = projectsByAmenity.get(id);
+                if (result == null) {
+                    result = (BitSet) projects.clone();
+                } else if (matchAll) {
+                    result.and(projects);
+                } else {
+                    result.or(projects);
+                }
+            }
+            if (result == null) {
+                return List.of();
+            }
+            List<Long> ids = new ArrayList<>(result.cardinality());
+            result.stream().forEach(bit -> ids.add((long) bit));
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Project count per amenity, keyed by the first spelling seen, for building filters.
+     */
+    public Map<String, Integer> counts() {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> counts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (int id = 0; id < labels.size(); id++) {
+                int count = projectsByAmenity.get(id).cardinality();
+                if (count > 0) {
+                    counts.put(labels.get(id), count);
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Null for blank input
+    static String normalize(String amenity) {
+        if (amenity == null) {
+            return null;
+        }
+        String normalized = amenity.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private void put(Long projectId, List<String> amenities) {
+        int bit = toBit(projectId);
+        int[] ids = amenities.stream()
+                .map(this::intern)
+                .filter(id -> id >= 0)
+                .distinct()
+                .mapToInt(Integer::intValue)
+                .toArray();
+        if (ids.length == 0) {
+            return;
+        }
+        for (int id : ids) {
+            projectsByAmenity.get(id).set(bit);
+        }
+        amenitiesByProject.put(projectId, ids);
+    }
+
+    private void remove(Long projectId) {
+        int[] ids = amenitiesByProject.remove(projectId);
+        if (ids == null) {
+            return;
+        }
+        int bit = toBit(projectId);
+        for (int id : ids) {
+            projectsByAmenity.get(id).clear(bit);
+        }
+    }
+
+    // -1 for blank amenities
+    private int intern(String amenity) {
+        String normalized = normalize(amenity);
+        if (normalized == null) {
+            return -1;
+        }
+        return dictionary.computeIfAbsent(normalized, key -> {
+            labels.add(amenity.strip().replaceAll("\\s+", " "));
+            projectsByAmenity.add(new BitSet());
+            return labels.size() - 1;
+        });
+    }
+
+    private static int toBit(Long id) {
+        if (id == null || id < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Project id " + id + " is outside the bitmap index range");
+        }
+        return id.intValue();
+    }
+}
@@ -0,0 +1,224 @@
+package com.amarsalimprojects.real_estate_app.components;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.amarsalimprojects.real_estate_app.events.ProjectChangedEvent;
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+
+/**
+ * Fixed-size lat/lng grid over project coordinates. A radius or bounding-box query only
+ * visits the cells it overlaps; exact Haversine distance is computed for those candidates.
+ * A query that crosses the antimeridian is split into one longitude range on each side.
+ */
+@Component
+public class ProjectGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectGeoIndex.class);
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LAT = 111.32;
+
+    private final ProjectRepository projectRepository;
+    private final double cellSizeDegrees;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<Long, Set<Long>> cells = new HashMap<>();
+    private final Map<Long, double[]> points = new HashMap<>();
+
+    public ProjectGeoIndex(ProjectRepository projectRepository,
+            @Value("${app.geo.cell-size-degrees:0.05}") double cellSizeDegrees) {
+        this.projectRepository = projectRepository;
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    public record Match(Long projectId, double distanceKm) {
+
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<ProjectRepository.Location> locations = projectRepository.findAllLocations();
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            points.clear();
+            locations.forEach(location -> put(location.getId(), location.getLatitude(), location.getLongitude()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("[GEO INDEX] Indexed {} project locations", locations.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        ProjectRepository.Location location = event.isDeleted()
+                ? null
+                : projectRepository.findLocationById(event.getProjectId()).orElse(null);
+
+        lock.writeLock().lock();
+        try {
+            remove(event.getProjectId());
+            if (location != null && location.getLatitude() != null && location.getLongitude() != null) {
+                put(location.getId(), location.getLatitude(), location.getLongitude());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Projects within radiusKm of the given point, nearest first.
+     */
+    public List<Match> findNear(double lat, double lng, double radiusKm, int limit) {
+        double latDelta = radiusKm / KM_PER_DEGREE_LAT;
+        double cosLat = Math.max(Math.cos(Math.toRadians(lat)), 0.01);
+        double lngDelta = Math.min(radiusKm / (KM_PER_DEGREE_LAT * cosLat), 180);
+
+        double minLng = lng - lngDelta;
+        double maxLng = lng + lngDelta;
+        if (lngDelta >= 180) {
+            minLng = -180;
+            maxLng = 180;
+        } else if (minLng < -180) {
+            minLng += 360;
+        } else if (maxLng > 180) {
+            maxLng -= 360;
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Match> matches = new ArrayList<>();
+            for (Long projectId : candidates(lat - latDelta, lat + latDelta, minLng, maxLng)) {
+                double[] point = points.get(projectId);
+                double distance = haversineKm(lat, lng, point[0], point[1]);
+                if (distance <= radiusKm) {
+                    matches.add(new Match(projectId, distance));
+                }
+            }
+            return matches.stream()
+                    .sorted(Comparator.comparingDouble(Match::distanceKm))
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Projects inside the box, ordered by distance from its centre. A box with minLng greater
+     * than maxLng crosses the antimeridian: it runs east from minLng to 180 and on from -180
+     * to maxLng.
+     */
+    public List<Match> findWithin(double minLat, double maxLat, double minLng, double maxLng, int limit) {
+        boolean wraps = minLng > maxLng;
+        double centreLat = (minLat + maxLat) / 2;
+        double centreLng = (minLng + maxLng + (wraps ? 360 : 0)) / 2;
+        if (centreLng > 180) {
+            centreLng -= 360;
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Match> matches = new ArrayList<>();
+            for (Long projectId : candidates(minLat, maxLat, minLng, maxLng)) {
+                double[] point = points.get(projectId);
+                boolean inLng = wraps
+                        ? point[1] >= minLng || point[1] <= maxLng
+                        : point[1] >= minLng && point[1] <= maxLng;
+                if (point[0] >= minLat && point[0] <= maxLat && inLng) {
+                    matches.add(new Match(projectId, haversineKm(centreLat, centreLng, point[0], point[1])));
+                }
+            }
+            return matches.stream()
+                    .sorted(Comparator.comparingDouble(Match::distanceKm))
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // minLng > maxLng means the range wraps across the antimeridian
+    private Set<Long> candidates(double minLat, double maxLat, double minLng, double maxLng) {
+        long minRow = cellIndex(minLat);
+        long maxRow = cellIndex(maxLat);
+        long[][] colRanges = minLng > maxLng
+                ? new long[][]{{cellIndex(minLng), cellIndex(180)}, {cellIndex(-180), cellIndex(maxLng)}}
+                : new long[][]{{cellIndex(minLng), cellIndex(maxLng)}};
+
+        // A huge box touches more cells than there are projects; scanning the points is cheaper
+        long cellCount = 0;
+        for (long[] cols : colRanges) {
+            cellCount += (maxRow - minRow + 1) * (cols[1] - cols[0] + 1);
+        }
+        if (cellCount > points.size()) {
+            return points.keySet();
+        }
+
+        Set<Long> result = new HashSet<>();
+        for (long[] cols : colRanges) {
+            for (long row = minRow; row <= maxRow; row++) {
+                for (long col = cols[0]; col <= cols[1]; col++) {
+                    Set<Long> cell = cells.get(cellKey(row, col));
+                    if (cell != null) {
+                        result.addAll(cell);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void put(Long projectId, double lat, double lng) {
+        points.put(projectId, new double[]{lat, lng});
+        cells.computeIfAbsent(cellKey(cellIndex(lat), cellIndex(lng)), key -> new HashSet<>()).add(projectId);
+    }
+
+    private void remove(Long projectId) {
+        double[] point = points.remove(projectId);
+        if (point == null) {
+            return;
+        }
+        long key = cellKey(cellIndex(point[0]), cellIndex(point[1]));
+        Set<Long> cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(projectId);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private long cellIndex(double degrees) {
+        return (long) Math.floor(degrees / cellSizeDegrees);
+    }
+
+    private static long cellKey(long row, long col) {
+        return (row << 32) | (col & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,268 @@
+package com.amarsalimprojects.real_estate_app.components;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.amarsalimprojects.real_estate_app.dto.responses.SearchHitResponse;
+import com.amarsalimprojects.real_estate_app.events.ProjectChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitsImportedEvent;
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+/**
+ * Inverted index over project and unit text with prefix expansion and BM25 ranking.
+ * Project name/description/address/county/amenities and unit number/description/features
+ * are indexed; documents are re-read and replaced after each committed change.
+ */
+@Component
+public class TextSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TextSearchIndex.class);
+
+    public static final String PROJECT = "PROJECT";
+    public static final String UNIT = "UNIT";
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Prefix-expanded terms score below an exact hit on the same token
+    private static final double PREFIX_WEIGHT = 0.7;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "at", "by", "for", "in", "near", "of", "on", "or", "the", "to", "with");
+
+    private final ProjectRepository projectRepository;
+    private final UnitRepository unitRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final NavigableMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    private final Map<String, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    public TextSearchIndex(ProjectRepository projectRepository, UnitRepository unitRepository) {
+        this.projectRepository = projectRepository;
+        this.unitRepository = unitRepository;
+    }
+
+    private record Document(String type, Long id, String title, Map<String, Integer> termFrequencies, int length) {
+
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, List<String>> amenities = groupSecondColumn(projectRepository.findAllAmenities());
+        Map<Long, List<String>> features = groupSecondColumn(unitRepository.findAllFeatures());
+        List<Object[]> projects = projectRepository.findAllSearchText();
+        List<Object[]> units = unitRepository.findAllSearchText();
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+            projects.forEach(row -> indexProject(row, amenities.getOrDefault((Long) row[0], List.of())));
+            units.forEach(row -> indexUnit(row, features.getOrDefault((Long) row[0], List.of())));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("[TEXT INDEX] Indexed {} projects and {} units", projects.size(), units.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        List<Object[]> rows = event.isDeleted() ? List.of() : projectRepository.findSearchTextById(event.getProjectId());
+        List<String> amenities = rows.isEmpty() ? List.of() : projectRepository.findAmenitiesById(event.getProjectId());
+
+        lock.writeLock().lock();
+        try {
+            remove(key(PROJECT, event.getProjectId()));
+            rows.forEach(row -> indexProject(row, amenities));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitChanged(UnitChangedEvent event) {
+        Long unitId = event.getUnitId();
+        List<Object[]> rows = event.isDeleted() ? List.of() : unitRepository.findSearchTextById(unitId);
+        List<String> features = rows.isEmpty() ? List.of() : unitRepository.findFeaturesById(unitId);
+
+        lock.writeLock().lock();
+        try {
+            remove(key(UNIT, unitId));
+            rows.forEach(row -> indexUnit(row, features));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Two queries for the whole import batch instead of two per unit
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitsImported(UnitsImportedEvent event) {
+        List<Long> unitIds = event.getChanges().stream().map(UnitChangedEvent::getUnitId).toList();
+        if (unitIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = unitRepository.findSearchTextByIdIn(unitIds);
+        Map<Long, List<String>> features = groupSecondColumn(unitRepository.findFeaturesByUnitIdIn(unitIds));
+
+        lock.writeLock().lock();
+        try {
+            unitIds.forEach(unitId -> remove(key(UNIT, unitId)));
+            rows.forEach(row -> indexUnit(row, features.getOrDefault((Long) row[0], List.of())));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks documents against the query; type may be PROJECT, UNIT or null for both.
+     */
+    public List<SearchHitResponse> search(String query, String type, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documentCount;
+            Map<String, Double> scores = new HashMap<>();
+
+            for (String token : tokens) {
+                // Best weight per document for this token, so "pool" + "pools" do not double count
+                Map<String, Double> tokenScores = new HashMap<>();
+                int expansions = 0;
+                for (Map.Entry<String, Map<String, Integer>> entry
+                        : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+                    if (expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    double weight = entry.getKey().equals(token) ? 1.0 : PREFIX_WEIGHT;
+                    double idf = idf(documentCount, entry.getValue().size());
+                    entry.getValue().forEach((docKey, frequency) -> {
+                        Document document = documents.get(docKey);
+                        if (type != null && !type.equals(document.type())) {
+                            return;
+                        }
+                        double norm = K1 * (1 - B + B * document.length() / averageLength);
+                        double score = weight * idf * (frequency * (K1 + 1)) / (frequency + norm);
+                        tokenScores.merge(docKey, score, Math::max);
+                    });
+                }
+                tokenScores.forEach((docKey, score) -> scores.merge(docKey, score, Double::sum));
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()))
+                    .limit(limit)
+                    .map(entry -> {
+                        Document document = documents.get(entry.getKey());
+                        return new SearchHitResponse(document.type(), document.id(), document.title(),
+                                Math.round(entry.getValue() * 1000) / 1000.0);
+                    })
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static double idf(int documentCount, int documentFrequency) {
+        return Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private void indexProject(Object[] row, Collection<String> amenities) {
+        String name = (String) row[1];
+        List<String> tokens = new ArrayList<>();
+        // Name tokens count twice so a name match outranks a passing mention in a description
+        tokens.addAll(tokenize(name));
+        tokens.addAll(tokenize(name));
+        tokens.addAll(tokenize((String) row[2]));
+        tokens.addAll(tokenize((String) row[3]));
+        tokens.addAll(tokenize((String) row[4]));
+        amenities.forEach(amenity -> tokens.addAll(tokenize(amenity)));
+        add(PROJECT, (Long) row[0], name, tokens);
+    }
+
+    private void indexUnit(Object[] row, Collection<String> features) {
+        List<String> tokens = new ArrayList<>(tokenize((String) row[1]));
+        tokens.addAll(tokenize((String) row[2]));
+        features.forEach(feature -> tokens.addAll(tokenize(feature)));
+        add(UNIT, (Long) row[0], (String) row[1], tokens);
+    }
+
+    private void add(String type, Long id, String title, List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        String docKey = key(type, id);
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokens.forEach(token -> frequencies.merge(token, 1, Integer::sum));
+        frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(docKey, frequency));
+        documents.put(docKey, new Document(type, id, Objects.toString(title, ""), frequencies, tokens.size()));
+        totalLength += tokens.size();
+    }
+
+    private void remove(String docKey) {
+        Document document = documents.remove(docKey);
+        if (document == null) {
+            return;
+        }
+        totalLength -= document.length();
+        document.termFrequencies().keySet().forEach(term -> {
+            Map<String, Integer> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(docKey);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        });
+    }
+
+    private static String key(String type, Long id) {
+        return type + ":" + id;
+    }
+
+    private static Map<Long, List<String>> groupSecondColumn(List<Object[]> rows) {
+        Map<Long, List<String>> grouped = new HashMap<>();
+        rows.forEach(row -> grouped.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]));
+        return grouped;
+    }
+}
@@ -0,0 +1,329 @@
+package com.amarsalimprojects.real_estate_app.components;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.amarsalimprojects.real_estate_app.dto.requests.UnitSearchCriteria;
+import com.amarsalimprojects.real_estate_app.dto.responses.UnitFacetsResponse;
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+import com.amarsalimprojects.real_estate_app.enums.UnitType;
+import com.amarsalimprojects.real_estate_app.events.UnitChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.events.UnitsImportedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitsStageChangedEvent;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+/**
+ * In-process inventory index holding one bitmap per facet value, indexed by unit id.
+ * Unit ids come from an IDENTITY column and are dense, so a plain BitSet stays compact
+ * (roughly 25 KB per facet value at 200k units) and intersections are word-wise ANDs.
+ */
+@Component
+public class UnitInventoryIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnitInventoryIndex.class);
+
+    private final UnitRepository unitRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Facets facets = new Facets();
+    private List<UnitChangedEvent> pendingDuringRebuild;
+
+    private volatile boolean ready;
+
+    public UnitInventoryIndex(UnitRepository unitRepository) {
+        this.unitRepository = unitRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    // Safety net for rows changed outside JPA (manual SQL, other tools)
+    @Scheduled(fixedDelayString = "${app.inventory-index.rebuild-interval-ms:3600000}",
+            initialDelayString = "${app.inventory-index.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Facets fresh = new Facets();
+        try {
+            for (UnitSnapshot snapshot : unitRepository.findAllSnapshots()) {
+                fresh.add(snapshot);
+            }
+        } catch (RuntimeException e) {
+            logger.error("[INVENTORY INDEX] Rebuild failed, search falls back to SQL", e);
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+                ready = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Replaying is idempotent: apply() always replaces the row by id
+            pendingDuringRebuild.forEach(fresh::apply);
+            pendingDuringRebuild = null;
+            facets = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("[INVENTORY INDEX] Indexed {} units", fresh.rows.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitChanged(UnitChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event);
+            }
+            facets.apply(event);
+        } catch (IllegalStateException e) {
+            logger.error("[INVENTORY INDEX] {}, disabling index", e.getMessage());
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A bulk stage transition, applied under one write lock
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitsStageChanged(UnitsStageChangedEvent event) {
+        applyAll(event.getChanges());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitsImported(UnitsImportedEvent event) {
+        applyAll(event.getChanges());
+    }
+
+    private void applyAll(List<UnitChangedEvent> changes) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.addAll(changes);
+            }
+            changes.forEach(facets::apply);
+        } catch (IllegalStateException e) {
+            logger.error("[INVENTORY INDEX] {}, disabling index", e.getMessage());
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to limit matching unit ids greater than afterId, in ascending order.
+     */
+    public List<Long> search(UnitSearchCriteria criteria, Long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = facets.match(criteria);
+            List<Long> ids = new ArrayList<>(Math.min(limit, matches.cardinality()));
+            int start = afterId == null ? 0 : (int) Math.max(0, Math.min(afterId + 1, Integer.MAX_VALUE));
+            for (int bit = matches.nextSetBit(start); bit >= 0 && ids.size() < limit; bit = matches.nextSetBit(bit + 1)) {
+                ids.add((long) bit);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Last committed status of a unit, or null when the index is not ready or has no such unit.
+     */
+    public UnitStatus statusOf(Long unitId) {
+        if (!ready || unitId == null || unitId < 0 || unitId > Integer.MAX_VALUE) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            UnitSnapshot unit = facets.rows.get(unitId.intValue());
+            return unit != null ? unit.getStatus() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public UnitFacetsResponse facets(UnitSearchCriteria criteria, BigDecimal priceBucketSize) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = facets.match(criteria);
+            UnitFacetsResponse response = new UnitFacetsResponse(priceBucketSize);
+            for (int bit = matches.nextSetBit(0); bit >= 0; bit = matches.nextSetBit(bit + 1)) {
+                UnitSnapshot unit = facets.rows.get(bit);
+                response.add(unit.getUnitType(), unit.getStatus(), unit.getBedrooms(), unit.getPrice(), 1);
+            }
+            return response;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int toBit(Long id) {
+        if (id == null || id < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Unit id " + id + " is outside the bitmap index range");
+        }
+        return id.intValue();
+    }
+
+    private static final class Facets {
+
+        private final BitSet all = new BitSet();
+        private final BitSet featured = new BitSet();
+        private final Map<UnitStatus, BitSet> byStatus = new EnumMap<>(UnitStatus.class);
+        private final Map<UnitType, BitSet> byType = new EnumMap<>(UnitType.class);
+        private final Map<ConstructionStage, BitSet> byStage = new EnumMap<>(ConstructionStage.class);
+        private final Map<Integer, BitSet> byBedrooms = new HashMap<>();
+        private final Map<Integer, BitSet> byBathrooms = new HashMap<>();
+        private final Map<Integer, BitSet> byFloor = new HashMap<>();
+        private final Map<Long, BitSet> byProject = new HashMap<>();
+        private final Map<Integer, UnitSnapshot> rows = new HashMap<>();
+
+        void apply(UnitChangedEvent event) {
+            UnitSnapshot previous = rows.get(toBit(event.getUnitId()));
+            if (previous != null) {
+                remove(previous);
+            }
+            if (event.getAfter() != null) {
+                add(event.getAfter());
+            }
+        }
+
+        void add(UnitSnapshot unit) {
+            int bit = toBit(unit.getId());
+            rows.put(bit, unit);
+            all.set(bit);
+            if (unit.isFeatured()) {
+                featured.set(bit);
+            }
+            set(byStatus, unit.getStatus(), bit);
+            set(byType, unit.getUnitType(), bit);
+            set(byStage, unit.getCurrentStage(), bit);
+            set(byBedrooms, unit.getBedrooms(), bit);
+            set(byBathrooms, unit.getBathrooms(), bit);
+            set(byFloor, unit.getFloor(), bit);
+            set(byProject, unit.getProjectId(), bit);
+        }
+
+        void remove(UnitSnapshot unit) {
+            int bit = toBit(unit.getId());
+            rows.remove(bit);
+            all.clear(bit);
+            featured.clear(bit);
+            clear(byStatus, unit.getStatus(), bit);
+            clear(byType, unit.getUnitType(), bit);
+            clear(byStage, unit.getCurrentStage(), bit);
+            clear(byBedrooms, unit.getBedrooms(), bit);
+            clear(byBathrooms, unit.getBathrooms(), bit);
+            clear(byFloor, unit.getFloor(), bit);
+            clear(byProject, unit.getProjectId(), bit);
+        }
+
+        BitSet match(UnitSearchCriteria criteria) {
+            BitSet result = (BitSet) all.clone();
+            intersect(result, byType, criteria.getType());
+            intersect(result, byStatus, criteria.getStatus());
+            intersect(result, byStage, criteria.getStage());
+            intersect(result, byProject, criteria.getProjectId());
+            intersect(result, byBathrooms, criteria.getBathrooms());
+            intersect(result, byFloor, criteria.getFloor());
+            if (criteria.getFeatured() != null) {
+                if (criteria.getFeatured()) {
+                    result.and(featured);
+                } else {
+                    result.andNot(featured);
+                }
+            }
+            if (criteria.getMinBedrooms() != null || criteria.getMaxBedrooms() != null) {
+                BitSet inRange = new BitSet();
+                byBedrooms.forEach((bedrooms, bits) -> {
+                    if ((criteria.getMinBedrooms() == null || bedrooms >= criteria.getMinBedrooms())
+                            && (criteria.getMaxBedrooms() == null || bedrooms <= criteria.getMaxBedrooms())) {
+                        inRange.or(bits);
+                    }
+                });
+                result.and(inRange);
+            }
+            if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
+                // Price is continuous, so it is checked per candidate after the bitmap narrowing
+                for (int bit = result.nextSetBit(0); bit >= 0; bit = result.nextSetBit(bit + 1)) {
+                    if (!priceInRange(rows.get(bit).getPrice(), criteria.getMinPrice(), criteria.getMaxPrice())) {
+                        result.clear(bit);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static boolean priceInRange(BigDecimal price, BigDecimal min, BigDecimal max) {
+            if (price == null) {
+                return false;
+            }
+            return (min == null || price.compareTo(min) >= 0) && (max == null || price.compareTo(max) <= 0);
+        }
+
+        private static <K> void intersect(BitSet result, Map<K, BitSet> facet, K value) {
+            if (value == null) {
+                return;
+            }
+            BitSet bits = facet.get(value);
+            if (bits == null) {
+                result.clear();
+            } else {
+                result.and(bits);
+            }
+        }
+
+        private static <K> void set(Map<K, BitSet> facet, K value, int bit) {
+            if (value != null) {
+                facet.computeIfAbsent(value, k -> new BitSet()).set(bit);
+            }
+        }
+
+        private static <K> void clear(Map<K, BitSet> facet, K value, int bit) {
+            if (value == null) {
+                return;
+            }
+            BitSet bits = facet.get(value);
+            if (bits != null) {
+                bits.clear(bit);
+                if (bits.isEmpty()) {
+                    facet.remove(value);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.amarsalimprojects.real_estate_app.components;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.amarsalimprojects.real_estate_app.dto.responses.UnitStatusDelta;
+import com.amarsalimprojects.real_estate_app.events.UnitChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.events.UnitsImportedEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fans committed unit status transitions out to SSE subscribers. Publishing only offers
+ * to each subscriber's bounded queue; a virtual thread per busy subscriber does the
+ * blocking writes, so one slow client never delays the others. When a client falls a full
+ * queue behind, its backlog is dropped and it gets a "resync" event telling it to refetch.
+ * The last REPLAY_CAPACITY deltas are kept so a reconnect with Last-Event-ID resumes
+ * without loss.
+ */
+@Component
+public class UnitStatusBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnitStatusBroadcaster.class);
+
+    private static final int REPLAY_CAPACITY = 1024;
+    private static final Object HEARTBEAT = new Object();
+
+    private final long timeoutMs;
+    private final int queueCapacity;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Guarded by itself; publishing and subscribing also lock it to keep per-client order
+    private final Deque<UnitStatusDelta> recent = new ArrayDeque<>();
+
+    public UnitStatusBroadcaster(
+            @Value("${app.sse.timeout-ms:1800000}") long timeoutMs,
+            @Value("${app.sse.queue-capacity:256}") int queueCapacity) {
+        this.timeoutMs = timeoutMs;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Opens a stream, optionally limited to one project. lastEventId is the SSE
+     * Last-Event-ID sent by a reconnecting client, or null.
+     */
+    public SseEmitter subscribe(Long projectId, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMs), projectId);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(e -> subscriber.close());
+
+        synchronized (recent) {
+            if (lastEventId != null) {
+                UnitStatusDelta oldest = recent.peekFirst();
+                boolean gap = lastEventId > sequence.get()
+                        || (oldest != null && lastEventId < oldest.getSequence() - 1);
+                if (gap) {
+                    subscriber.overflowed = true;
+                } else {
+                    recent.stream()
+                            .filter(delta -> delta.getSequence() > lastEventId)
+                            .forEach(subscriber::offer);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.schedule();
+        return subscriber.emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitChanged(UnitChangedEvent event) {
+        if (!event.changed(UnitSnapshot::getStatus)) {
+            return;
+        }
+        UnitSnapshot current = event.getAfter() != null ? event.getAfter() : event.getBefore();
+
+        synchronized (recent) {
+            UnitStatusDelta delta = UnitStatusDelta.builder()
+                    .sequence(sequence.incrementAndGet())
+                    .unitId(current.getId())
+                    .projectId(current.getProjectId())
+                    .from(event.getBefore() != null ? event.getBefore().getStatus() : null)
+                    .to(event.getAfter() != null ? event.getAfter().getStatus() : null)
+                    .at(LocalDateTime.now())
+                    .build();
+            recent.addLast(delta);
+            if (recent.size() > REPLAY_CAPACITY) {
+                recent.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.offer(delta)) {
+                    subscriber.schedule();
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitsImported(UnitsImportedEvent event) {
+        event.getChanges().forEach(this::onUnitChanged);
+    }
+
+    // Keeps idle connections open through proxies and flushes out dead clients
+    @Scheduled(fixedRateString = "${app.sse.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.queue.offer(HEARTBEAT);
+            subscriber.schedule();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long projectId;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean overflowed;
+
+        Subscriber(SseEmitter emitter, Long projectId) {
+            this.emitter = emitter;
+            this.projectId = projectId;
+        }
+
+        // Returns true if something was queued for this subscriber
+        boolean offer(UnitStatusDelta delta) {
+            if (projectId != null && !projectId.equals(delta.getProjectId())) {
+                return false;
+            }
+            if (!queue.offer(delta)) {
+                queue.clear();
+                overflowed = true;
+            }
+            return true;
+        }
+
+        void schedule() {
+            if ((queue.isEmpty() && !overflowed) || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    if (overflowed) {
+                        overflowed = false;
+                        emitter.send(SseEmitter.event().name("resync").data("{}", MediaType.APPLICATION_JSON));
+                    }
+                    Object item = queue.poll();
+                    if (item == null) {
+                        break;
+                    }
+                    if (item == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("keepalive"));
+                    } else {
+                        UnitStatusDelta delta = (UnitStatusDelta) item;
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(delta.getSequence()))
+                                .name("unit-status")
+                                .data(delta, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("[SSE] Dropping subscriber: {}", e.getMessage());
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // An offer may have landed between the last poll and clearing the flag
+            schedule();
+        }
+
+        void close() {
+            subscribers.remove(this);
+            queue.clear();
+            emitter.complete();
+        }
+    }
+}
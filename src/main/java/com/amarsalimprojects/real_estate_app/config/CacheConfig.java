@@ -0,0 +1,39 @@
+package com.amarsalimprojects.real_estate_app.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Bounded in-process caches for hot read paths. Entries are evicted by size and TTL, and
+ * explicitly by CacheInvalidator when a unit or project change commits.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String UNITS = "units";
+    public static final String PROJECTS = "projects";
+    public static final String UNIT_LISTINGS = "unitListings";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.units-spec:maximumSize=20000,expireAfterWrite=10m,recordStats}") String unitsSpec,
+            @Value("${app.cache.projects-spec:maximumSize=1000,expireAfterWrite=10m,recordStats}") String projectsSpec,
+            @Value("${app.cache.listings-spec:maximumSize=500,expireAfterWrite=2m,recordStats}") String listingsSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Only the caches registered here exist; a typo in a cache name fails fast
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(UNITS, Caffeine.from(unitsSpec).build());
+        cacheManager.registerCustomCache(PROJECTS, Caffeine.from(projectsSpec).build());
+        cacheManager.registerCustomCache(UNIT_LISTINGS, Caffeine.from(listingsSpec).build());
+        return cacheManager;
+    }
+}
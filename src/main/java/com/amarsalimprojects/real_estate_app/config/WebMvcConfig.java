@@ -1,15 +1,35 @@
 package com.amarsalimprojects.real_estate_app.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 
 import org.springframework.web.servlet.config.annotation.*;
 
+import com.amarsalimprojects.real_estate_app.components.ConditionalGetInterceptor;
+
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private ConditionalGetInterceptor conditionalGetInterceptor;
+
+    // Stored names are content addresses sharded under ab/cd/, which a flat file: location cannot
+    // find; /api/images resolves them through ImageStore and serves the older flat names as well
+    @Override
+    public void addViewControllers(ViewControllerRegistry registry) {
+        registry.addRedirectViewController("/uploads/{filename:.+}", "/api/images/{filename}")
+                .setKeepQueryParams(true)
+                .setStatusCode(HttpStatus.MOVED_PERMANENTLY);
+    }
+
     @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(conditionalGetInterceptor)
+                .addPathPatterns("/api/units/**", "/api/projects/**")
+                // Streams have no stable representation to validate; the dashboard also moves with
+                // invoices and payments, which the unit/project markers do not cover
+                .excludePathPatterns("/api/units/export", "/api/units/stream",
+                        "/api/projects/dashboard", "/api/projects/*/units-summary");
     }
 }
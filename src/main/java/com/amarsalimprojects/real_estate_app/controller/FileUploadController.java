@@ -1,78 +1,224 @@
 package com.amarsalimprojects.real_estate_app.controller;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.amarsalimprojects.real_estate_app.dto.requests.UploadSessionRequest;
+import com.amarsalimprojects.real_estate_app.dto.responses.ImageGcStatus;
+import com.amarsalimprojects.real_estate_app.dto.responses.UploadSessionResponse;
+import com.amarsalimprojects.real_estate_app.service.ChunkedUploadService;
+import com.amarsalimprojects.real_estate_app.service.ImageDerivativeService;
+import com.amarsalimprojects.real_estate_app.service.ImageStore;
+import com.amarsalimprojects.real_estate_app.service.OrphanImageCollector;
+
+import jakarta.servlet.http.HttpServletRequest;
+
 @RestController
 @RequestMapping("/api/uploads")
 public class FileUploadController {
 
-    private final String UPLOAD_DIR;
-
-    public FileUploadController(@Value("${app.upload.dir}") String uploadDirStr) {
-        this.UPLOAD_DIR = uploadDirStr;
+    private final ImageStore imageStore;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ChunkedUploadService chunkedUploadService;
+    private final OrphanImageCollector orphanImageCollector;
+    private final long maxFileBytes;
+
+    public FileUploadController(ImageStore imageStore,
+            ImageDerivativeService imageDerivativeService,
+            ChunkedUploadService chunkedUploadService,
+            OrphanImageCollector orphanImageCollector,
+            @Value("${app.upload.max-file-bytes:209715200}") long maxFileBytes) {
+        this.imageStore = imageStore;
+        this.imageDerivativeService = imageDerivativeService;
+        this.chunkedUploadService = chunkedUploadService;
+        this.orphanImageCollector = orphanImageCollector;
+        this.maxFileBytes = maxFileBytes;
     }
 
+    // Files are stored in parallel, one virtual thread each; a file that fails is reported under
+    // "errors" without failing the others. If none is stored the status is 400 when every failure
+    // was a rejected file (extension, size) and 500 when any was a storage failure.
     @PostMapping
     public ResponseEntity<Map<String, Object>> uploadFiles(@RequestParam("files") List<MultipartFile> files) {
-        List<String> filenames = new ArrayList<>();
-
         if (files == null || files.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "No files uploaded"));
         }
 
-        for (MultipartFile file : files) {
+        List<Future<String>> results = new ArrayList<>(files.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (MultipartFile file : files) {
+                results.add(executor.submit(() -> storeFile(file)));
+            }
+        }
+
+        List<String> filenames = new ArrayList<>();
+        List<Map<String, String>> errors = new ArrayList<>();
+        boolean storageFailed = false;
+        for (int i = 0; i < files.size(); i++) {
             try {
-                if (file.isEmpty()) {
-                    continue;
+                String filename = results.get(i).get();
+                if (filename != null) {
+                    filenames.add(filename);
                 }
-
-                String originalFilename = file.getOriginalFilename();
-                if (originalFilename == null || originalFilename.trim().isEmpty()) {
-                    continue;
+            } catch (ExecutionException e) {
+                String original = String.valueOf(files.get(i).getOriginalFilename());
+                String message;
+                if (e.getCause() instanceof IllegalArgumentException) {
+                    message = e.getCause().getMessage();
+                } else {
+                    storageFailed = true;
+                    message = "Failed to upload: " + e.getCause().getMessage();
                 }
+                errors.add(Map.of("file", original, "error", String.valueOf(message)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Upload interrupted"));
+            }
+        }
 
-                String extension = "";
-                int dotIndex = originalFilename.lastIndexOf('.');
-                if (dotIndex != -1) {
-                    extension = originalFilename.substring(dotIndex);
-                }
+        if (errors.isEmpty()) {
+            return ResponseEntity.ok(Map.of("filenames", filenames));
+        }
+        HttpStatus status = !filenames.isEmpty() ? HttpStatus.OK
+                : storageFailed ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(Map.of("filenames", filenames, "errors", errors));
+    }
 
-                if (extension.isBlank()) {
-                    continue;
-                }
+    // Null for parts that are skipped (empty, no name or no extension)
+    private String storeFile(MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            return null;
+        }
+
+        String originalFilename = file.getOriginalFilename();
+        if (originalFilename == null || originalFilename.trim().isEmpty()) {
+            return null;
+        }
+
+        String extension = "";
+        int dotIndex = originalFilename.lastIndexOf('.');
+        if (dotIndex != -1) {
+            extension = originalFilename.substring(dotIndex + 1);
+        }
+
+        if (extension.isBlank()) {
+            return null;
+        }
+        if (file.getSize() > maxFileBytes) {
+            throw new IllegalArgumentException("File exceeds " + maxFileBytes + " bytes");
+        }
+
+        // Named by content hash; re-uploading the same photo returns the existing name
+        ImageStore.StoredFile stored;
+        try (InputStream content = file.getInputStream()) {
+            stored = imageStore.store(content, extension);
+        }
+        if (!stored.deduplicated()) {
+            imageDerivativeService.schedule(stored.filename());
+        }
+        return stored.filename();
+    }
 
-                String uniqueFilename = UUID.randomUUID() + extension;
-                Path uploadPath = Paths.get(UPLOAD_DIR);
-                Files.createDirectories(uploadPath);
+    // Resumable upload: start a session, PUT chunks in any order (and again after a failure),
+    // GET the session to see which chunks arrived, then complete.
+    @PostMapping("/sessions")
+    public ResponseEntity<?> startUpload(@RequestBody UploadSessionRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(chunkedUploadService.start(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to start upload: " + e.getMessage()));
+        }
+    }
 
-                Path filePath = uploadPath.resolve(uniqueFilename);
-                Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    @GetMapping("/sessions/{uploadId}")
+    public ResponseEntity<UploadSessionResponse> getUpload(@PathVariable String uploadId) {
+        UploadSessionResponse session = chunkedUploadService.status(uploadId);
+        return session != null ? ResponseEntity.ok(session) : ResponseEntity.notFound().build();
+    }
 
-                filenames.add(uniqueFilename);
+    // Raw chunk bytes as the request body
+    @PutMapping("/sessions/{uploadId}/chunks/{index}")
+    public ResponseEntity<?> uploadChunk(@PathVariable String uploadId, @PathVariable int index,
+            HttpServletRequest request) {
+        try {
+            UploadSessionResponse session = chunkedUploadService.writeChunk(uploadId, index, request.getInputStream());
+            return session != null ? ResponseEntity.ok(session) : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to write chunk: " + e.getMessage()));
+        }
+    }
 
-            } catch (IOException e) {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(Map.of("error", "Failed to upload: " + e.getMessage()));
+    @PostMapping("/sessions/{uploadId}/complete")
+    public ResponseEntity<Map<String, Object>> completeUpload(@PathVariable String uploadId) {
+        try {
+            ImageStore.StoredFile stored = chunkedUploadService.complete(uploadId);
+            if (stored == null) {
+                return ResponseEntity.notFound().build();
             }
+            return ResponseEntity.ok(Map.of("filename", stored.filename(), "deduplicated", stored.deduplicated()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to complete upload: " + e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/sessions/{uploadId}")
+    public ResponseEntity<Void> abortUpload(@PathVariable String uploadId) {
+        try {
+            return chunkedUploadService.abort(uploadId)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
+    }
 
-        return ResponseEntity.ok(Map.of("filenames", filenames));
+    // Progress of the running or last orphan image collection
+    @GetMapping("/gc")
+    public ResponseEntity<ImageGcStatus> getGcStatus() {
+        return ResponseEntity.ok(orphanImageCollector.status());
+    }
+
+    // Starts a collection in the background; poll GET /gc for progress
+    @PostMapping("/gc")
+    public ResponseEntity<ImageGcStatus> startGc() {
+        if (orphanImageCollector.isRunning()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(orphanImageCollector.status());
+        }
+        Thread.ofVirtual().name("image-gc").start(orphanImageCollector::run);
+        return ResponseEntity.accepted().body(orphanImageCollector.status());
     }
 }
@@ -1,74 +1,61 @@
 package com.amarsalimprojects.real_estate_app.controller;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.CacheControl;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.amarsalimprojects.real_estate_app.service.ImageDeliveryService;
+import com.amarsalimprojects.real_estate_app.service.ImageDerivativeService;
+import com.amarsalimprojects.real_estate_app.service.ImageStore;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 @RestController
 @RequestMapping("/api/images")
 @CrossOrigin(origins = "*")
 public class ImageController {
 
-    private final Path uploadDir;
+    private final ImageStore imageStore;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ImageDeliveryService imageDeliveryService;
 
-    public ImageController(@Value("${app.upload.dir}") String uploadDirStr) {
+    public ImageController(@Value("${app.upload.dir}") String uploadDirStr,
+            ImageStore imageStore,
+            ImageDerivativeService imageDerivativeService,
+            ImageDeliveryService imageDeliveryService) {
         System.out.println("Upload Dir Path: " + uploadDirStr); // DEBUG
-        this.uploadDir = Paths.get(uploadDirStr);
+        this.imageStore = imageStore;
+        this.imageDerivativeService = imageDerivativeService;
+        this.imageDeliveryService = imageDeliveryService;
     }
 
+    // ?w= serves the smallest pre-scaled copy at least that wide, or the original until one exists.
+    // Supports Range, If-Range and If-None-Match.
     @GetMapping("/{filename:.+}")
-    public ResponseEntity<Resource> getImage(@PathVariable String filename) {
-        try {
-            Path filePath = uploadDir.resolve(filename).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (!resource.exists() || !resource.isReadable()) {
-                return ResponseEntity.notFound().build();
-            }
-
-            // Try to detect content type
-            String contentType = Files.probeContentType(filePath);
-
-            // Fallback if contentType is null or incorrect
-            if (contentType == null || contentType.equals("text/plain")) {
-                String lowerName = filename.toLowerCase();
-                if (lowerName.endsWith(".jpg") || lowerName.endsWith(".jpeg")) {
-                    contentType = MediaType.IMAGE_JPEG_VALUE;
-                } else if (lowerName.endsWith(".png")) {
-                    contentType = MediaType.IMAGE_PNG_VALUE;
-                } else if (lowerName.endsWith(".webp")) {
-                    contentType = "image/webp";
-                } else if (lowerName.endsWith(".gif")) {
-                    contentType = MediaType.IMAGE_GIF_VALUE;
-                } else {
-                    contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
-                }
+    public void getImage(@PathVariable String filename,
+            @RequestParam(value = "w", required = false) Integer width,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // Content-addressed names map to their shard directory, older names to the flat upload dir
+        Path filePath = imageStore.resolve(filename);
+        if (filePath == null) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        if (width != null && width > 0) {
+            Path derivative = imageDerivativeService.findDerivative(filename, width);
+            if (derivative != null) {
+                filePath = derivative;
             }
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .cacheControl(CacheControl.maxAge(30, TimeUnit.DAYS))
-                    .body(resource);
-
-        } catch (MalformedURLException e) {
-            return ResponseEntity.badRequest().body(null);
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().body(null);
         }
+        imageDeliveryService.serve(filePath, request, response);
     }
 }
@@ -7,7 +7,9 @@ import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,10 +22,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.amarsalimprojects.real_estate_app.enums.InvoiceStatus;
 import com.amarsalimprojects.real_estate_app.model.Invoice;
 import com.amarsalimprojects.real_estate_app.repository.InvoiceRepository;
+import com.amarsalimprojects.real_estate_app.service.ExportService;
 
 @RestController
 @RequestMapping("/api/invoices")
@@ -33,6 +37,9 @@ public class InvoiceController {
     @Autowired
     private InvoiceRepository invoiceRepository;
 
+    @Autowired
+    private ExportService exportService;
+
     @GetMapping("/migrate")
     public ResponseEntity<String> migrateInvoiceNumbers() {
         List<Invoice> invoices = invoiceRepository.findAll();
@@ -94,6 +101,16 @@ public class InvoiceController {
         }
     }
 
+    // READ - Stream every invoice as NDJSON
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportInvoices() {
+        StreamingResponseBody body = exportService::exportInvoices;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"invoices.ndjson\"")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     // READ - Get invoice by ID
     @GetMapping("/{id}")
     public ResponseEntity<Invoice> getInvoiceById(@PathVariable("id") Long id) {
@@ -11,7 +11,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -24,6 +26,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.amarsalimprojects.real_estate_app.dto.PaymentStatisticsDTO;
 import com.amarsalimprojects.real_estate_app.dto.PaymentSummaryDTO;
@@ -40,6 +43,7 @@ import com.amarsalimprojects.real_estate_app.model.Payment;
 import com.amarsalimprojects.real_estate_app.repository.InvoiceRepository;
 import com.amarsalimprojects.real_estate_app.repository.MpesaPaymentRepository;
 import com.amarsalimprojects.real_estate_app.repository.PaymentRepository;
+import com.amarsalimprojects.real_estate_app.service.ExportService;
 import com.amarsalimprojects.real_estate_app.service.InvoiceService;
 import com.amarsalimprojects.real_estate_app.service.MpesaStkService;
 import com.amarsalimprojects.real_estate_app.service.PaymentService;
@@ -76,6 +80,9 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private ExportService exportService;
+
     @PostMapping
     public ResponseEntity<Payment> createPayment(@RequestBody Payment payment) {
         try {
@@ -105,6 +112,16 @@ public class PaymentController {
         }
     }
 
+    // READ - Stream every payment as NDJSON
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPayments() {
+        StreamingResponseBody body = exportService::exportPayments;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"payments.ndjson\"")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     // READ - Get payment by ID
     @GetMapping("/{id}")
     public ResponseEntity<Payment> getPaymentById(@PathVariable("id") Long id) {
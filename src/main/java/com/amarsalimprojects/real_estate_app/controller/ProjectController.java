@@ -1,14 +1,18 @@
 package com.amarsalimprojects.real_estate_app.controller;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -23,9 +27,21 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.amarsalimprojects.real_estate_app.components.PriceDistributionIndex;
+import com.amarsalimprojects.real_estate_app.components.ProjectAmenityIndex;
+import com.amarsalimprojects.real_estate_app.components.ProjectGeoIndex;
+import com.amarsalimprojects.real_estate_app.dto.responses.KeysetPage;
+import com.amarsalimprojects.real_estate_app.dto.responses.PriceDistributionResponse;
+import com.amarsalimprojects.real_estate_app.dto.responses.ProjectDashboardResponse;
+import com.amarsalimprojects.real_estate_app.dto.responses.ProjectNearbyResponse;
+import com.amarsalimprojects.real_estate_app.dto.responses.ProjectResponse;
+import com.amarsalimprojects.real_estate_app.dto.responses.ProjectUnitsSummary;
 import com.amarsalimprojects.real_estate_app.enums.ProjectStatus;
+import com.amarsalimprojects.real_estate_app.enums.UnitType;
 import com.amarsalimprojects.real_estate_app.model.Project;
 import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+import com.amarsalimprojects.real_estate_app.service.ProjectDashboardService;
+import com.amarsalimprojects.real_estate_app.service.ProjectQueryService;
 
 @RestController
 @RequestMapping("/api/projects")
@@ -35,6 +51,21 @@ public class ProjectController {
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private ProjectGeoIndex projectGeoIndex;
+
+    @Autowired
+    private ProjectQueryService projectQueryService;
+
+    @Autowired
+    private PriceDistributionIndex priceDistributionIndex;
+
+    @Autowired
+    private ProjectDashboardService projectDashboardService;
+
+    @Autowired
+    private ProjectAmenityIndex projectAmenityIndex;
+
     // CREATE - Add a new project
     @PostMapping
     public ResponseEntity<Project> createProject(@RequestBody Project project) {
@@ -70,9 +101,9 @@ public class ProjectController {
 
     // READ - Get project by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Project> getProjectById(@PathVariable("id") Long id) {
+    public ResponseEntity<ProjectResponse> getProjectById(@PathVariable("id") Long id) {
         try {
-            Optional<Project> project = projectRepository.findById(id);
+            Optional<ProjectResponse> project = projectQueryService.findProject(id);
             if (project.isPresent()) {
                 return new ResponseEntity<>(project.get(), HttpStatus.OK);
             } else {
@@ -156,6 +187,84 @@ public class ProjectController {
         }
     }
 
+    // READ - Projects within km of a point, nearest first
+    @GetMapping("/near")
+    public ResponseEntity<List<ProjectNearbyResponse>> getProjectsNear(
+            @RequestParam("lat") double lat,
+            @RequestParam("lng") double lng,
+            @RequestParam(value = "km", defaultValue = "5") double km,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180 || km <= 0 || km > 500 || limit < 1 || limit > 100) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            List<ProjectNearbyResponse> projects = toNearbyResponses(projectGeoIndex.findNear(lat, lng, km, limit));
+            if (projects.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
+            return new ResponseEntity<>(projects, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // READ - Projects inside a bounding box, ordered from its centre; minLng > maxLng crosses 180
+    @GetMapping("/within")
+    public ResponseEntity<List<ProjectNearbyResponse>> getProjectsWithin(
+            @RequestParam("minLat") double minLat,
+            @RequestParam("maxLat") double maxLat,
+            @RequestParam("minLng") double minLng,
+            @RequestParam("maxLng") double maxLng,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        if (minLat > maxLat || minLat < -90 || maxLat > 90 || minLng < -180 || maxLng > 180
+                || limit < 1 || limit > 200) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            List<ProjectNearbyResponse> projects = toNearbyResponses(
+                    projectGeoIndex.findWithin(minLat, maxLat, minLng, maxLng, limit));
+            if (projects.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
+            return new ResponseEntity<>(projects, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Loads only the matched projects, keeping the index's distance order
+    private List<ProjectNearbyResponse> toNearbyResponses(List<ProjectGeoIndex.Match> matches) {
+        Map<Long, Project> projects = projectRepository.findAllById(
+                matches.stream().map(ProjectGeoIndex.Match::projectId).toList()).stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+        return matches.stream()
+                .filter(match -> projects.containsKey(match.projectId()))
+                .map(match -> ProjectNearbyResponse.of(projects.get(match.projectId()), match.distanceKm()))
+                .toList();
+    }
+
+    // READ - Unit price average/median/p90/min/max for a project, all types first then per type
+    @GetMapping("/{id}/price-distribution")
+    public ResponseEntity<List<PriceDistributionResponse>> getPriceDistribution(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "type", required = false) UnitType type) {
+        try {
+            List<PriceDistributionResponse> distribution;
+            if (type != null) {
+                PriceDistributionResponse row = priceDistributionIndex.forProject(id, type);
+                distribution = row != null ? List.of(row) : List.of();
+            } else {
+                distribution = priceDistributionIndex.forProject(id);
+            }
+            if (distribution.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
+            return new ResponseEntity<>(distribution, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // UPDATE - Update project by ID
     @PutMapping("/{id}")
     public ResponseEntity<Project> updateProject(@PathVariable("id") Long id, @RequestBody Project project) {
@@ -179,8 +288,7 @@ public class ProjectController {
                 projectToUpdate.setAdminSignedOff(project.isAdminSignedOff());
                 projectToUpdate.setMinPrice(project.getMinPrice());
                 projectToUpdate.setMaxPrice(project.getMaxPrice());
-                projectToUpdate.setImages(project.getImages());
-                projectToUpdate.setAmenities(project.getAmenities());
+                replaceCollections(projectToUpdate, project.getImages(), project.getAmenities());
 
                 Project updatedProject = projectRepository.save(projectToUpdate);
                 return new ResponseEntity<>(updatedProject, HttpStatus.OK);
@@ -246,12 +354,9 @@ public class ProjectController {
                 if (project.getMaxPrice() != null) {
                     projectToUpdate.setMaxPrice(project.getMaxPrice());
                 }
-                if (project.getImages() != null) {
-                    projectToUpdate.setImages(project.getImages());
-                }
-                if (project.getAmenities() != null) {
-                    projectToUpdate.setAmenities(project.getAmenities());
-                }
+                replaceCollections(projectToUpdate,
+                        project.getImages() != null ? project.getImages() : projectToUpdate.getImages(),
+                        project.getAmenities() != null ? project.getAmenities() : projectToUpdate.getAmenities());
 
                 Project updatedProject = projectRepository.save(projectToUpdate);
                 return new ResponseEntity<>(updatedProject, HttpStatus.OK);
@@ -263,6 +368,29 @@ public class ProjectController {
         }
     }
 
+    // Element collections do not dirty their owner, so an edit that only touches images or
+    // amenities would skip @PreUpdate and ProjectEntityListener: no ProjectChangedEvent for the
+    // indexes and cache, and no new updatedAt for the ETag. Touching updatedAt makes it a real update.
+    private static void replaceCollections(Project target, List<String> images, Set<String> amenities) {
+        boolean imagesChanged = !Objects.equals(copyOf(target.getImages()), copyOf(images));
+        boolean amenitiesChanged = !Objects.equals(
+                target.getAmenities() != null ? new HashSet<>(target.getAmenities()) : null,
+                amenities != null ? new HashSet<>(amenities) : null);
+        if (imagesChanged) {
+            target.setImages(images);
+        }
+        if (amenitiesChanged) {
+            target.setAmenities(amenities);
+        }
+        if (imagesChanged || amenitiesChanged) {
+            target.setUpdatedAt(LocalDateTime.now());
+        }
+    }
+
+    private static List<String> copyOf(List<String> list) {
+        return list != null ? new ArrayList<>(list) : null;
+    }
+
     // UPDATE - Update project status
     @PatchMapping("/{id}/status")
     public ResponseEntity<Project> updateProjectStatus(@PathVariable("id") Long id, @RequestParam("status") ProjectStatus status) {
@@ -282,7 +410,8 @@ public class ProjectController {
         }
     }
 
-    // UPDATE - Update construction progress
+    // UPDATE - Update construction progress. For projects with units this is recomputed from unit
+    // stages by ConstructionProgressEngine on the next stage change.
     @PatchMapping("/{id}/construction-progress")
     public ResponseEntity<Project> updateConstructionProgress(@PathVariable("id") Long id, @RequestParam("progress") float progress) {
         try {
@@ -335,19 +464,65 @@ public class ProjectController {
         }
     }
 
-    /* 
-    // GET - Get projects with units summary
+    // READ - Unit counts by status, sold/invoiced/collected value and progress for one project
     @GetMapping("/{id}/units-summary")
-    public ResponseEntity<ProjectUnitsDTO> getProjectUnitsummary(@PathVariable Long id) {
-        // Return project with units count, available, sold, etc.
+    public ResponseEntity<ProjectUnitsSummary> getProjectUnitsSummary(@PathVariable("id") Long id) {
+        try {
+            ProjectUnitsSummary summary = projectDashboardService.getUnitsSummary(id);
+            if (summary == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(summary, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
     }
 
-// GET - Get project dashboard data
+    // READ - Portfolio totals with one row per project, from the materialized project_stats table
     @GetMapping("/dashboard")
-    public ResponseEntity<ProjectDashboardDTO> getProjectDashboard() {
-        // Return summary statistics for dashboard
+    public ResponseEntity<ProjectDashboardResponse> getProjectDashboard() {
+        try {
+            return new ResponseEntity<>(projectDashboardService.getDashboard(), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // READ - Get projects by amenity, matched case- and whitespace-insensitively
+    @GetMapping("/amenity/{amenity}")
+    public ResponseEntity<List<Project>> getProjectsByAmenity(@PathVariable("amenity") String amenity) {
+        return getProjectsByAmenities(List.of(amenity), "all");
+    }
+
+    // READ - Get projects with all (match=all) or any (match=any) of the amenities
+    @GetMapping("/amenities/search")
+    public ResponseEntity<List<Project>> getProjectsByAmenities(
+            @RequestParam("amenities") List<String> amenities,
+            @RequestParam(value = "match", defaultValue = "all") String match) {
+        try {
+            if (!match.equalsIgnoreCase("all") && !match.equalsIgnoreCase("any")) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+            List<Long> ids = projectAmenityIndex.search(amenities, match.equalsIgnoreCase("all"));
+            if (ids.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
+            Map<Long, Project> byId = projectRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Project::getId, Function.identity()));
+            List<Project> projects = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+            return new ResponseEntity<>(projects, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
     }
 
+    // READ - Project count per amenity
+    @GetMapping("/amenities")
+    public ResponseEntity<Map<String, Integer>> getAmenityCounts() {
+        return ResponseEntity.ok(projectAmenityIndex.counts());
+    }
+
+    /* 
 // PATCH - Admin sign-off for project completion
     @PatchMapping("/{id}/admin-signoff")
     public ResponseEntity<Project> adminSignOff(@PathVariable Long id) {
@@ -360,32 +535,23 @@ public class ProjectController {
         List<Project> projects = projectRepository.findOverdueProjects(LocalDateTime.now());
         return ResponseEntity.ok(projects);
     }
-
-// GET - Get projects by amenity
-    @GetMapping("/amenity/{amenity}")
-    public ResponseEntity<List<Project>> getProjectsByAmenity(@PathVariable String amenity) {
-        List<Project> allProjects = projectRepository.findAll();
-        List<Project> filteredProjects = allProjects.stream()
-                .filter(p -> p.getAmenities() != null && p.getAmenities().contains(amenity))
-                .toList();
-        return ResponseEntity.ok(filteredProjects);
-    }
      */
+    // READ - Keyset-paginated projects. sortBy is one of id, name, createdAt, updatedAt, minPrice,
+    // targetCompletionDate; pass nextCursor back as ?after= with the same sort to continue.
     @GetMapping("/paginated")
-    public ResponseEntity<Page<Project>> getProjectsPaginated(
-            @RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<KeysetPage<Project>> getProjectsPaginated(
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
-
-        Sort sort = sortDir.equalsIgnoreCase("desc")
-                ? Sort.by(sortBy).descending()
-                : Sort.by(sortBy).ascending();
-
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Project> projects = projectRepository.findAll(pageable);
-
-        return ResponseEntity.ok(projects);
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(projectQueryService.findPage(sortBy, sortDir, after, size, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
     }
 
 }
@@ -0,0 +1,48 @@
+package com.amarsalimprojects.real_estate_app.controller;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.amarsalimprojects.real_estate_app.components.TextSearchIndex;
+import com.amarsalimprojects.real_estate_app.dto.responses.SearchHitResponse;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    @Autowired
+    private TextSearchIndex textSearchIndex;
+
+    // READ - Free-text search across projects and units, best match first
+    @GetMapping
+    public ResponseEntity<List<SearchHitResponse>> search(
+            @RequestParam("q") String query,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        String normalizedType = type == null ? null : type.toUpperCase(Locale.ROOT);
+        if (query.isBlank() || query.length() > 200 || limit < 1 || limit > 100
+                || (normalizedType != null && !TextSearchIndex.PROJECT.equals(normalizedType)
+                && !TextSearchIndex.UNIT.equals(normalizedType))) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            List<SearchHitResponse> hits = textSearchIndex.search(query, normalizedType, limit);
+            if (hits.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
+            return new ResponseEntity<>(hits, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
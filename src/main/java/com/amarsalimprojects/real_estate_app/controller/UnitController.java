@@ -1,35 +1,58 @@
 package com.amarsalimprojects.real_estate_app.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.amarsalimprojects.real_estate_app.components.UnitStatusBroadcaster;
+import com.amarsalimprojects.real_estate_app.dto.requests.BulkStageUpdateRequest;
 import com.amarsalimprojects.real_estate_app.dto.requests.UnitRequest;
+import com.amarsalimprojects.real_estate_app.dto.requests.UnitSearchCriteria;
+import com.amarsalimprojects.real_estate_app.dto.requests.UnitStatistics;
 import com.amarsalimprojects.real_estate_app.dto.requests.UpdateStatusRequest;
+import com.amarsalimprojects.real_estate_app.dto.responses.BulkStageUpdateResponse;
+import com.amarsalimprojects.real_estate_app.dto.responses.KeysetPage;
+import com.amarsalimprojects.real_estate_app.dto.responses.UnitFacetsResponse;
 import com.amarsalimprojects.real_estate_app.dto.responses.UnitResponse;
 import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
 import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
 import com.amarsalimprojects.real_estate_app.enums.UnitType;
 import com.amarsalimprojects.real_estate_app.mapper.UnitMapper;
 import com.amarsalimprojects.real_estate_app.model.Unit;
+import com.amarsalimprojects.real_estate_app.model.UnitStageHistory;
 import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+import com.amarsalimprojects.real_estate_app.repository.UnitStageHistoryRepository;
+import com.amarsalimprojects.real_estate_app.service.ConstructionStageService;
+import com.amarsalimprojects.real_estate_app.service.ExportService;
+import com.amarsalimprojects.real_estate_app.service.UnitImportService;
 import com.amarsalimprojects.real_estate_app.service.UnitService;
+import com.amarsalimprojects.real_estate_app.service.UnitStatisticsService;
 
 import jakarta.validation.Valid;
 
@@ -47,6 +70,24 @@ public class UnitController {
     @Autowired
     private UnitMapper unitMapper;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private UnitStatusBroadcaster unitStatusBroadcaster;
+
+    @Autowired
+    private UnitImportService unitImportService;
+
+    @Autowired
+    private UnitStatisticsService unitStatisticsService;
+
+    @Autowired
+    private ConstructionStageService constructionStageService;
+
+    @Autowired
+    private UnitStageHistoryRepository unitStageHistoryRepository;
+
     // CREATE - Add a new unit
     @PostMapping
     public ResponseEntity<UnitResponse> createUnit(@Valid @RequestBody UnitRequest request) {
@@ -64,27 +105,7 @@ public class UnitController {
             }
 
             // Set defaults
-            if (request.getStatus() == null) {
-                request.setStatus(UnitStatus.AVAILABLE);
-            }
-            if (request.getConstructionStage() == null) {
-                request.setConstructionStage(ConstructionStage.PLANNING);
-            }
-            if (request.getUnitType() == null) {
-                request.setUnitType(UnitType.APARTMENT);
-            }
-            if (request.getPrice() == null) {
-                request.setPrice(BigDecimal.ZERO);
-            }
-            if (request.getBedrooms() == null) {
-                request.setBedrooms(0);
-            }
-            if (request.getBathrooms() == null) {
-                request.setBathrooms(0);
-            }
-            if (request.getSqft() == null) {
-                request.setSqft(0);
-            }
+            unitMapper.applyCreateDefaults(request);
             if (request.getUnitNumber() == null || request.getUnitNumber().isEmpty()) {
                 request.setUnitNumber("UN" + System.currentTimeMillis());
             }
@@ -105,16 +126,43 @@ public class UnitController {
         }
     }
 
+    // CREATE - Bulk import from a JSON array or a CSV file (header row of UnitRequest property
+    // names, features/images '|' separated). Rows without projectId use the query parameter.
+    // Per-row errors, per-batch progress and a final summary stream back as NDJSON.
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importUnits(
+            @RequestParam(value = "projectId", required = false) Long projectId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        // Only the header (CSV) or opening bracket and first row (JSON) are read here; the rest
+        // is parsed batch by batch while the response streams
+        UnitImportService.RowReader rows;
+        try {
+            rows = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON)
+                    ? unitImportService.openJson(body)
+                    : unitImportService.openCsv(body);
+            if (!rows.hasNext()) {
+                return ResponseEntity.badRequest().build();
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody response = out -> unitImportService.importUnits(rows, projectId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(response);
+    }
+
     // READ - Get all units as Response DTOs
     @GetMapping("/all")
     public ResponseEntity<List<UnitResponse>> getAllUnits() {
         try {
-            List<Unit> units = unitRepository.findAll();
-            if (units.isEmpty()) {
+            List<UnitResponse> unitResponses = unitService.getAllUnitResponses();
+            if (unitResponses.isEmpty()) {
                 return ResponseEntity.noContent().build();
             }
-
-            List<UnitResponse> unitResponses = unitMapper.toResponseList(units);
             return ResponseEntity.ok(unitResponses);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -135,13 +183,35 @@ public class UnitController {
         }
     }
 
+    // READ - Stream every unit as NDJSON, one UnitResponse per line
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUnits() {
+        StreamingResponseBody body = exportService::exportUnits;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"units.ndjson\"")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // STREAM - Unit status transitions as Server-Sent Events, optionally for one project.
+    // Reconnecting clients send Last-Event-ID and receive what they missed, or a "resync" event.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamUnitStatus(
+            @RequestParam(value = "projectId", required = false) Long projectId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Long resumeAfter = null;
+        if (lastEventId != null && lastEventId.matches("\\d{1,18}")) {
+            resumeAfter = Long.valueOf(lastEventId);
+        }
+        return unitStatusBroadcaster.subscribe(projectId, resumeAfter);
+    }
+
     // READ - Get unit by ID
     @GetMapping("/{id}")
     public ResponseEntity<UnitResponse> getUnitById(@PathVariable("id") Long id) {
         try {
-            Optional<Unit> unit = unitRepository.findById(id);
-            if (unit.isPresent()) {
-                UnitResponse response = unitMapper.toResponse(unit.get());
+            UnitResponse response = unitService.getUnitResponse(id);
+            if (response != null) {
                 return ResponseEntity.ok(response);
             } else {
                 return ResponseEntity.notFound().build();
@@ -171,11 +241,10 @@ public class UnitController {
     @GetMapping("/project/{projectId}")
     public ResponseEntity<List<UnitResponse>> getUnitsByProjectId(@PathVariable("projectId") Long projectId) {
         try {
-            List<Unit> units = unitRepository.findByProjectId(projectId);
-            if (units.isEmpty()) {
+            List<UnitResponse> responses = unitService.getUnitResponsesByProject(projectId);
+            if (responses.isEmpty()) {
                 return ResponseEntity.noContent().build();
             }
-            List<UnitResponse> responses = unitMapper.toResponseList(units);
             return ResponseEntity.ok(responses);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -281,11 +350,10 @@ public class UnitController {
     @GetMapping("/featured")
     public ResponseEntity<List<UnitResponse>> getFeaturedUnits() {
         try {
-            List<Unit> units = unitRepository.findByFeaturedTrue(); // Fixed method name
-            if (units.isEmpty()) {
+            List<UnitResponse> responses = unitService.getFeaturedUnitResponses();
+            if (responses.isEmpty()) {
                 return ResponseEntity.noContent().build();
             }
-            List<UnitResponse> responses = unitMapper.toResponseList(units);
             return ResponseEntity.ok(responses);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -367,9 +435,7 @@ public class UnitController {
         try {
             Optional<Unit> existingUnit = unitRepository.findById(id);
             if (existingUnit.isPresent()) {
-                Unit unit = existingUnit.get();
-                unit.setCurrentStage(stage);
-                Unit updatedUnit = unitRepository.save(unit);
+                Unit updatedUnit = constructionStageService.changeStage(existingUnit.get(), stage);
                 UnitResponse response = unitMapper.toResponse(updatedUnit);
                 return ResponseEntity.ok(response);
             } else {
@@ -380,6 +446,30 @@ public class UnitController {
         }
     }
 
+    // UPDATE - Move a project, floor range or unit types to a construction stage in one go
+    @PatchMapping("/construction-stage/bulk")
+    public ResponseEntity<?> bulkUpdateConstructionStage(@RequestBody BulkStageUpdateRequest request) {
+        try {
+            BulkStageUpdateResponse response = constructionStageService.bulkUpdate(request);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // READ - Construction stage history of a unit, newest first
+    @GetMapping("/{id}/stage-history")
+    public ResponseEntity<List<UnitStageHistory>> getStageHistory(@PathVariable("id") Long id) {
+        if (!unitRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(unitStageHistoryRepository.findByUnitIdOrderByChangedAtDescIdDesc(id));
+    }
+
     // UPDATE - Assign buyer to unit
     @PatchMapping("/{id}/assign-buyer/{buyerId}")
     public ResponseEntity<UnitResponse> assignBuyerToUnit(@PathVariable("id") Long id, @PathVariable("buyerId") Long buyerId) {
@@ -515,36 +605,62 @@ public class UnitController {
         }
     }
 
+    // Counts and available-price figures for the dashboard, overall or for one project
+    @GetMapping("/statistics")
+    public ResponseEntity<UnitStatistics> getUnitStatistics(
+            @RequestParam(value = "projectId", required = false) Long projectId) {
+        try {
+            UnitStatistics statistics = projectId != null
+                    ? unitStatisticsService.getStatistics(projectId)
+                    : unitStatisticsService.getStatistics();
+            return ResponseEntity.ok(statistics);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/available")
     public ResponseEntity<List<UnitResponse>> getAvailableUnits() {
         try {
-            List<Unit> units = unitRepository.findByStatus(UnitStatus.AVAILABLE);
-            if (units.isEmpty()) {
+            List<UnitResponse> responses = unitService.getUnitResponsesByStatus(UnitStatus.AVAILABLE);
+            if (responses.isEmpty()) {
                 return ResponseEntity.noContent().build();
             }
-            List<UnitResponse> responses = unitMapper.toResponseList(units);
             return ResponseEntity.ok(responses);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    // Filters bind from query params: type, minBedrooms, maxBedrooms, minPrice, maxPrice,
+    // status, projectId, bathrooms, floor, featured, stage
     @GetMapping("/search")
-    public ResponseEntity<List<UnitResponse>> searchUnits(
-            @RequestParam(required = false) UnitType type,
-            @RequestParam(required = false) Integer minBedrooms,
-            @RequestParam(required = false) Integer maxBedrooms,
-            @RequestParam(required = false) BigDecimal minPrice,
-            @RequestParam(required = false) BigDecimal maxPrice,
-            @RequestParam(required = false) UnitStatus status,
-            @RequestParam(required = false) Long projectId) {
+    public ResponseEntity<KeysetPage<UnitResponse>> searchUnits(
+            @ModelAttribute UnitSearchCriteria criteria,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
         try {
-            List<Unit> units = unitService.searchUnits(type, minBedrooms, maxBedrooms, minPrice, maxPrice, status, projectId);
-            if (units.isEmpty()) {
+            KeysetPage<Unit> page = unitService.searchUnits(criteria, after, limit);
+            if (page.getItems().isEmpty()) {
                 return ResponseEntity.noContent().build();
             }
-            List<UnitResponse> responses = unitMapper.toResponseList(units);
-            return ResponseEntity.ok(responses);
+            return ResponseEntity.ok(page.map(unitMapper::toResponse));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Counts per type, status, bedrooms and price bucket for the same filters as /search
+    @GetMapping("/search/facets")
+    public ResponseEntity<UnitFacetsResponse> getSearchFacets(
+            @ModelAttribute UnitSearchCriteria criteria,
+            @RequestParam(defaultValue = "1000000") BigDecimal priceBucketSize) {
+        try {
+            return ResponseEntity.ok(unitService.getSearchFacets(criteria, priceBucketSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
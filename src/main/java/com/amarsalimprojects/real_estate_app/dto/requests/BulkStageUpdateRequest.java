@@ -0,0 +1,28 @@
+package com.amarsalimprojects.real_estate_app.dto.requests;
+
+import java.util.List;
+
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+import com.amarsalimprojects.real_estate_app.enums.UnitType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Moves every unit of a project to stage, optionally narrowed to a floor range (inclusive,
+// either end open) and unit types. Units already at or past the stage are skipped unless
+// allowRegression is set.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStageUpdateRequest {
+
+    private Long projectId;
+    private ConstructionStage stage;
+    private Integer floorFrom;
+    private Integer floorTo;
+    private List<UnitType> unitTypes;
+    private boolean allowRegression;
+}
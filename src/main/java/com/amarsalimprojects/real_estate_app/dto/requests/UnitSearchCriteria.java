@@ -0,0 +1,32 @@
+package com.amarsalimprojects.real_estate_app.dto.requests;
+
+import java.math.BigDecimal;
+
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+import com.amarsalimprojects.real_estate_app.enums.UnitType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Filters accepted by /api/units/search. Null fields are ignored.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnitSearchCriteria {
+
+    private UnitType type;
+    private Integer minBedrooms;
+    private Integer maxBedrooms;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private UnitStatus status;
+    private Long projectId;
+    private Integer bathrooms;
+    private Integer floor;
+    private Boolean featured;
+    private ConstructionStage stage;
+}
@@ -0,0 +1,18 @@
+package com.amarsalimprojects.real_estate_app.dto.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Starts a resumable upload; chunkSize is optional and clamped to 256 KB..16 MB (default 4 MB).
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionRequest {
+
+    private String filename;
+    private Long size;
+    private Integer chunkSize;
+}
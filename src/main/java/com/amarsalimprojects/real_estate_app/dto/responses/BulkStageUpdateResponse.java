@@ -0,0 +1,26 @@
+package com.amarsalimprojects.real_estate_app.dto.responses;
+
+import java.util.List;
+
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of a bulk stage transition; batchId finds its rows in the stage history.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStageUpdateResponse {
+
+    private String batchId;
+    private ConstructionStage stage;
+    private int matched;
+    private int updated;
+    private int alreadyAtStage;
+    // Units past the target stage, left alone because allowRegression was not set
+    private List<Long> skippedUnitIds;
+}
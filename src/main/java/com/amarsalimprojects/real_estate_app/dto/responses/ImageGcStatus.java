@@ -0,0 +1,36 @@
+package com.amarsalimprojects.real_estate_app.dto.responses;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Progress of the current (state "running") or last orphan image collection. Counters are live
+// while a run is in progress; collected counts files quarantined or deleted, depending on mode.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImageGcStatus {
+
+    private String state;
+    private String mode;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long referencedNames;
+    private long filesScanned;
+    private long bytesScanned;
+    private long orphansFound;
+    private long filesCollected;
+    private long bytesReclaimed;
+    private long derivativesRemoved;
+    private long tempFilesRemoved;
+    private long quarantinePurged;
+    private long errors;
+    private String lastError;
+}
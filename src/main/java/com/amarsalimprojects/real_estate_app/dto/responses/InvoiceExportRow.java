@@ -0,0 +1,30 @@
+package com.amarsalimprojects.real_estate_app.dto.responses;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.amarsalimprojects.real_estate_app.enums.InvoiceStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Flat invoice row for NDJSON export; built by a JPQL constructor expression so no entity is managed.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceExportRow {
+
+    private Long id;
+    private String invoiceNumber;
+    private InvoiceStatus status;
+    private BigDecimal totalAmount;
+    private LocalDate issuedDate;
+    private LocalDate dueDate;
+    private Long unitId;
+    private Long buyerId;
+    private Long paymentPlanId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.amarsalimprojects.real_estate_app.dto.responses;
+
+import java.util.List;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One page of a cursor-paginated listing. Pass nextCursor back as ?after= to continue.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class KeysetPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private Long total;
+
+    public <R> KeysetPage<R> map(Function<? super T, ? extends R> mapper) {
+        return KeysetPage.<R>builder()
+                .items(items.stream().<R>map(mapper).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .total(total)
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.amarsalimprojects.real_estate_app.dto.responses;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.amarsalimprojects.real_estate_app.enums.PaymentMethod;
+import com.amarsalimprojects.real_estate_app.enums.PaymentStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Flat payment row for NDJSON export; built by a JPQL constructor expression so no entity is managed.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentExportRow {
+
+    private Long id;
+    private BigDecimal amount;
+    private PaymentStatus status;
+    private PaymentMethod method;
+    private LocalDate paymentDate;
+    private String referenceNumber;
+    private Long buyerId;
+    private Long invoiceId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,27 @@
+package com.amarsalimprojects.real_estate_app.dto.responses;
+
+import java.math.BigDecimal;
+
+import com.amarsalimprojects.real_estate_app.enums.UnitType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Price figures for one project, per unit type; unitType is null for the all-types row.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceDistributionResponse {
+
+    private Long projectId;
+    private UnitType unitType;
+    private long count;
+    private BigDecimal average;
+    private BigDecimal median;
+    private BigDecimal p90;
+    private BigDecimal min;
+    private BigDecimal max;
+}
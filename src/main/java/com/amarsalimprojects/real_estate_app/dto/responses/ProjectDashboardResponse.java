@@ -0,0 +1,32 @@
+package com.amarsalimprojects.real_estate_app.dto.responses;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import com.amarsalimprojects.real_estate_app.enums.ProjectStatus;
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Portfolio totals plus the per-project rows they were summed from.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectDashboardResponse {
+
+    private long totalProjects;
+    private Map<ProjectStatus, Long> projectsByStatus;
+    private float averageProgress;
+    private long totalUnits;
+    private Map<UnitStatus, Long> unitsByStatus;
+    private BigDecimal soldValue;
+    private BigDecimal invoicedValue;
+    private BigDecimal revenueCollected;
+    private BigDecimal outstanding;
+    private List<ProjectUnitsSummary> projects;
+}
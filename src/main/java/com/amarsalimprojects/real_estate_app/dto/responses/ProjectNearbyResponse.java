@@ -0,0 +1,43 @@
+package com.amarsalimprojects.real_estate_app.dto.responses;
+
+import java.math.BigDecimal;
+
+import com.amarsalimprojects.real_estate_app.enums.ProjectStatus;
+import com.amarsalimprojects.real_estate_app.model.Project;
+
+import lombok.Builder;
+import lombok.Data;
+
+// Lightweight project card for map/nearby results; avoids serializing the units collection.
+@Builder
+@Data
+public class ProjectNearbyResponse {
+
+    private Long id;
+    private String name;
+    private String address;
+    private String county;
+    private String subCounty;
+    private Double latitude;
+    private Double longitude;
+    private ProjectStatus status;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private double distanceKm;
+
+    public static ProjectNearbyResponse of(Project project, double distanceKm) {
+        return ProjectNearbyResponse.builder()
+                .id(project.getId())
+                .name(project.getName())
+                .address(project.getAddress())
+                .county(project.getCounty())
+                .subCounty(project.getSubCounty())
+                .latitude(project.getLatitude())
+                .longitude(project.getLongitude())
+                .status(project.getStatus())
+                .minPrice(project.getMinPrice())
+                .maxPrice(project.getMaxPrice())
+                .distanceKm(Math.round(distanceKm * 1000) / 1000.0)
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.amarsalimprojects.real_estate_app.dto.responses;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import com.amarsalimprojects.real_estate_app.enums.ProjectStatus;
+import com.amarsalimprojects.real_estate_app.model.Project;
+
+import lombok.Builder;
+import lombok.Value;
+
+// Project detail with its units, detached from the persistence context so one cached
+// instance can be shared by concurrent requests. Collections are unmodifiable copies.
+@Value
+@Builder
+public class ProjectResponse {
+
+    Long id;
+    String name;
+    String description;
+    String address;
+    String county;
+    String subCounty;
+    Double latitude;
+    Double longitude;
+    ProjectStatus status;
+    String developerName;
+    float constructionProgress;
+    LocalDateTime startDate;
+    LocalDateTime targetCompletionDate;
+    LocalDateTime completionDate;
+    boolean adminSignedOff;
+    BigDecimal minPrice;
+    BigDecimal maxPrice;
+    BigDecimal downPaymentPercentage;
+    List<String> images;
+    Set<String> amenities;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+    List<UnitResponse> units;
+
+    public static ProjectResponse of(Project project, List<UnitResponse> units) {
+        return ProjectResponse.builder()
+                .id(project.getId())
+                .name(project.getName())
+                .description(project.getDescription())
+                .address(project.getAddress())
+                .county(project.getCounty())
+                .subCounty(project.getSubCounty())
+                .latitude(project.getLatitude())
+                .longitude(project.getLongitude())
+                .status(project.getStatus())
+                .developerName(project.getDeveloperName())
+                .constructionProgress(project.getConstructionProgress())
+                .startDate(project.getStartDate())
+                .targetCompletionDate(project.getTargetCompletionDate())
+                .completionDate(project.getCompletionDate())
+                .adminSignedOff(project.isAdminSignedOff())
+                .minPrice(project.getMinPrice())
+                .maxPrice(project.getMaxPrice())
+                .downPaymentPercentage(project.getDownPaymentPercentage())
+                .images(project.getImages() != null ? List.copyOf(project.getImages()) : List.of())
+                .amenities(project.getAmenities() != null ? Set.copyOf(project.getAmenities()) : Set.of())
+                .createdAt(project.getCreatedAt())
+                .updatedAt(project.getUpdatedAt())
+                .units(List.copyOf(units))
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.amarsalimprojects.real_estate_app.dto.responses;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import com.amarsalimprojects.real_estate_app.enums.ProjectStatus;
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Unit counts and money figures for one project; outstanding is invoiced minus collected.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectUnitsSummary {
+
+    private Long projectId;
+    private String projectName;
+    private ProjectStatus projectStatus;
+    private float constructionProgress;
+    private long totalUnits;
+    private Map<UnitStatus, Long> unitsByStatus;
+    private BigDecimal soldValue;
+    private BigDecimal invoicedValue;
+    private BigDecimal revenueCollected;
+    private BigDecimal outstanding;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,17 @@
+package com.amarsalimprojects.real_estate_app.dto.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One ranked free-text hit; type is PROJECT or UNIT and title is the project name or unit number.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitResponse {
+
+    private String type;
+    private Long id;
+    private String title;
+    private double score;
+}
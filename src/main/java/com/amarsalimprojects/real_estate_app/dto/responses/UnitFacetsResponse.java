@@ -0,0 +1,63 @@
+package com.amarsalimprojects.real_estate_app.dto.responses;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+import com.amarsalimprojects.real_estate_app.enums.UnitType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Histograms over the units matching a search filter, computed in a single pass.
+@Data
+@NoArgsConstructor
+public class UnitFacetsResponse {
+
+    private long total;
+    private BigDecimal priceBucketSize;
+    private Map<UnitType, Long> byType = new EnumMap<>(UnitType.class);
+    private Map<UnitStatus, Long> byStatus = new EnumMap<>(UnitStatus.class);
+    private Map<Integer, Long> byBedrooms = new TreeMap<>();
+    private Map<Long, PriceBucket> priceBuckets = new TreeMap<>();
+
+    public UnitFacetsResponse(BigDecimal priceBucketSize) {
+        this.priceBucketSize = priceBucketSize;
+    }
+
+    public void add(UnitType type, UnitStatus status, Integer bedrooms, BigDecimal price, long count) {
+        total += count;
+        if (type != null) {
+            byType.merge(type, count, Long::sum);
+        }
+        if (status != null) {
+            byStatus.merge(status, count, Long::sum);
+        }
+        if (bedrooms != null) {
+            byBedrooms.merge(bedrooms, count, Long::sum);
+        }
+        if (price != null) {
+            addToPriceBucket(price.divideToIntegralValue(priceBucketSize).longValue(), count);
+        }
+    }
+
+    public void addToPriceBucket(long bucket, long count) {
+        priceBuckets.computeIfAbsent(bucket, b -> new PriceBucket(
+                priceBucketSize.multiply(BigDecimal.valueOf(b)),
+                priceBucketSize.multiply(BigDecimal.valueOf(b + 1)),
+                0)).count += count;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PriceBucket {
+
+        private BigDecimal from;
+        private BigDecimal to;
+        private long count;
+    }
+}
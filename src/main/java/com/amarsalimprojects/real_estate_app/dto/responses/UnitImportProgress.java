@@ -0,0 +1,28 @@
+package com.amarsalimprojects.real_estate_app.dto.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One NDJSON line of bulk import output: an "error" for a rejected row (1-based, header
+// excluded for CSV), a "progress" line after each batch, and a final "summary". The input is
+// read as it streams in, so total is only known, and only set, on the summary.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UnitImportProgress {
+
+    private String type;
+    private Integer row;
+    private String unitNumber;
+    private String message;
+    private Integer processed;
+    private Integer total;
+    private Integer inserted;
+    private Integer failed;
+}
@@ -0,0 +1,31 @@
+package com.amarsalimprojects.real_estate_app.dto.responses;
+
+import java.time.LocalDateTime;
+
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One unit status transition pushed over SSE; from is absent for new units, to for deleted ones.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UnitStatusDelta {
+
+    // Sent as the SSE event id so reconnecting clients can resume
+    @JsonIgnore
+    private long sequence;
+
+    private Long unitId;
+    private Long projectId;
+    private UnitStatus from;
+    private UnitStatus to;
+    private LocalDateTime at;
+}
@@ -0,0 +1,24 @@
+package com.amarsalimprojects.real_estate_app.dto.responses;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// State of a resumable upload. Chunk i covers bytes [i * chunkSize, min(size, (i + 1) * chunkSize)).
+// A client resuming after a dropped connection sends only the chunks missing from receivedChunks.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionResponse {
+
+    private String uploadId;
+    private String filename;
+    private long size;
+    private int chunkSize;
+    private int chunkCount;
+    private List<Integer> receivedChunks;
+}
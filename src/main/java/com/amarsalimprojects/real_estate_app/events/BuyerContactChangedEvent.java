@@ -0,0 +1,11 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import lombok.Value;
+
+// Published when a buyer field that unit responses embed (the email) changes, so the buyer's
+// units can be given a new updatedAt and evicted like any other unit change.
+@Value
+public class BuyerContactChangedEvent {
+
+    Long buyerId;
+}
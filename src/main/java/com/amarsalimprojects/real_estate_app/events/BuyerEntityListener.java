@@ -0,0 +1,36 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import java.util.Objects;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.amarsalimprojects.real_estate_app.model.BuyerProfile;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+
+// Instantiated by Hibernate through Spring's bean container, like UnitEntityListener.
+// Only the email is tracked: it is the one buyer field copied into UnitResponse.
+public class BuyerEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BuyerEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void onLoad(BuyerProfile buyer) {
+        buyer.setLoadedEmail(buyer.getEmail());
+    }
+
+    @PostUpdate
+    public void onUpdate(BuyerProfile buyer) {
+        if (!Objects.equals(buyer.getLoadedEmail(), buyer.getEmail())) {
+            buyer.setLoadedEmail(buyer.getEmail());
+            eventPublisher.publishEvent(new BuyerContactChangedEvent(buyer.getId()));
+        }
+    }
+}
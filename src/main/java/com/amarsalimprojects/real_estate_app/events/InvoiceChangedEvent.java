@@ -0,0 +1,33 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import java.math.BigDecimal;
+
+import com.amarsalimprojects.real_estate_app.enums.InvoiceStatus;
+import com.amarsalimprojects.real_estate_app.model.Invoice;
+
+import lombok.Value;
+
+// Published whenever an Invoice row is inserted, updated or deleted.
+// before is null for inserts, after is null for deletes.
+@Value
+public class InvoiceChangedEvent {
+
+    State before;
+    State after;
+
+    // The invoice columns aggregates depend on
+    @Value
+    public static class State {
+
+        Long invoiceId;
+        Long unitId;
+        BigDecimal totalAmount;
+        InvoiceStatus status;
+
+        public static State of(Invoice invoice) {
+            // getId() on a lazy proxy does not initialize it
+            Long unitId = invoice.getUnit() != null ? invoice.getUnit().getId() : null;
+            return new State(invoice.getId(), unitId, invoice.getTotalAmount(), invoice.getStatus());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.amarsalimprojects.real_estate_app.model.Invoice;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+// Instantiated by Hibernate through Spring's bean container, like UnitEntityListener
+public class InvoiceEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public InvoiceEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostLoad
+    public void onLoad(Invoice invoice) {
+        invoice.setLoadedState(InvoiceChangedEvent.State.of(invoice));
+    }
+
+    @PostPersist
+    public void onPersist(Invoice invoice) {
+        InvoiceChangedEvent.State after = InvoiceChangedEvent.State.of(invoice);
+        invoice.setLoadedState(after);
+        eventPublisher.publishEvent(new InvoiceChangedEvent(null, after));
+    }
+
+    @PostUpdate
+    public void onUpdate(Invoice invoice) {
+        InvoiceChangedEvent.State after = InvoiceChangedEvent.State.of(invoice);
+        InvoiceChangedEvent.State before = invoice.getLoadedState();
+        invoice.setLoadedState(after);
+        eventPublisher.publishEvent(new InvoiceChangedEvent(before, after));
+    }
+
+    @PostRemove
+    public void onRemove(Invoice invoice) {
+        InvoiceChangedEvent.State before = invoice.getLoadedState() != null
+                ? invoice.getLoadedState()
+                : InvoiceChangedEvent.State.of(invoice);
+        eventPublisher.publishEvent(new InvoiceChangedEvent(before, null));
+    }
+}
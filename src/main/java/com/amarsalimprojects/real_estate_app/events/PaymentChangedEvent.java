@@ -0,0 +1,31 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import java.math.BigDecimal;
+
+import com.amarsalimprojects.real_estate_app.enums.PaymentStatus;
+import com.amarsalimprojects.real_estate_app.model.Payment;
+
+import lombok.Value;
+
+// Published whenever a Payment row is inserted, updated or deleted.
+// before is null for inserts, after is null for deletes.
+@Value
+public class PaymentChangedEvent {
+
+    State before;
+    State after;
+
+    // The payment columns aggregates depend on
+    @Value
+    public static class State {
+
+        Long paymentId;
+        Long invoiceId;
+        BigDecimal amount;
+        PaymentStatus status;
+
+        public static State of(Payment payment) {
+            return new State(payment.getId(), payment.getInvoiceId(), payment.getAmount(), payment.getStatus());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.amarsalimprojects.real_estate_app.model.Payment;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+// Instantiated by Hibernate through Spring's bean container, like UnitEntityListener
+public class PaymentEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PaymentEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostLoad
+    public void onLoad(Payment payment) {
+        payment.setLoadedState(PaymentChangedEvent.State.of(payment));
+    }
+
+    @PostPersist
+    public void onPersist(Payment payment) {
+        PaymentChangedEvent.State after = PaymentChangedEvent.State.of(payment);
+        payment.setLoadedState(after);
+        eventPublisher.publishEvent(new PaymentChangedEvent(null, after));
+    }
+
+    @PostUpdate
+    public void onUpdate(Payment payment) {
+        PaymentChangedEvent.State after = PaymentChangedEvent.State.of(payment);
+        PaymentChangedEvent.State before = payment.getLoadedState();
+        payment.setLoadedState(after);
+        eventPublisher.publishEvent(new PaymentChangedEvent(before, after));
+    }
+
+    @PostRemove
+    public void onRemove(Payment payment) {
+        PaymentChangedEvent.State before = payment.getLoadedState() != null
+                ? payment.getLoadedState()
+                : PaymentChangedEvent.State.of(payment);
+        eventPublisher.publishEvent(new PaymentChangedEvent(before, null));
+    }
+}
@@ -0,0 +1,12 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import lombok.Value;
+
+// Published whenever a Project row is inserted, updated or deleted. Listeners that need
+// more than the id reload it after commit, since lazy collections are not safe to read mid-flush.
+@Value
+public class ProjectChangedEvent {
+
+    Long projectId;
+    boolean deleted;
+}
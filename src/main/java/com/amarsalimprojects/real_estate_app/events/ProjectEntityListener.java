@@ -0,0 +1,30 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.amarsalimprojects.real_estate_app.model.Project;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+// Instantiated by Hibernate through Spring's bean container, like UnitEntityListener
+public class ProjectEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProjectEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Project project) {
+        eventPublisher.publishEvent(new ProjectChangedEvent(project.getId(), false));
+    }
+
+    @PostRemove
+    public void onRemove(Project project) {
+        eventPublisher.publishEvent(new ProjectChangedEvent(project.getId(), true));
+    }
+}
@@ -0,0 +1,82 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+/**
+ * Publishes unit changes for writes that bypass UnitEntityListener. Bulk JPQL UPDATEs and
+ * JDBC inserts never reach the entity callbacks, so without this the indexes, caches and
+ * dashboards listening for UnitChangedEvent would not see them. Call it inside the writing
+ * transaction, after the write: after-images are re-read from the database, and the events
+ * are delivered once the transaction commits, exactly like the listener's.
+ *
+ * The before-image is derived from the after-image by the caller, who knows which columns
+ * the statement set and what they held; returning null skips a row the statement turned out
+ * not to change.
+ */
+@Component
+public class UnitChangePublisher {
+
+    private final UnitRepository unitRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UnitChangePublisher(UnitRepository unitRepository, ApplicationEventPublisher eventPublisher) {
+        this.unitRepository = unitRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * One UnitChangedEvent per changed unit.
+     *
+     * @return the number of events published
+     */
+    public int publishUpdated(Collection<Long> unitIds, UnaryOperator<UnitSnapshot> before) {
+        List<UnitChangedEvent> changes = changes(unitIds, before);
+        changes.forEach(eventPublisher::publishEvent);
+        return changes.size();
+    }
+
+    /**
+     * A single UnitsStageChangedEvent standing in for the per-unit events of a bulk transition.
+     *
+     * @return the number of changes in it
+     */
+    public int publishStageChanged(String batchId, ConstructionStage stage, Collection<Long> unitIds,
+            UnaryOperator<UnitSnapshot> before) {
+        List<UnitChangedEvent> changes = changes(unitIds, before);
+        eventPublisher.publishEvent(new UnitsStageChangedEvent(batchId, stage, changes));
+        return changes.size();
+    }
+
+    /**
+     * A single UnitsImportedEvent for rows the caller inserted. Nothing is re-read: the caller
+     * wrote every column a snapshot holds.
+     */
+    public void publishImported(List<UnitSnapshot> created) {
+        List<UnitChangedEvent> changes = new ArrayList<>(created.size());
+        created.forEach(after -> changes.add(new UnitChangedEvent(null, after)));
+        eventPublisher.publishEvent(new UnitsImportedEvent(changes));
+    }
+
+    private List<UnitChangedEvent> changes(Collection<Long> unitIds, UnaryOperator<UnitSnapshot> before) {
+        if (unitIds.isEmpty()) {
+            return List.of();
+        }
+        List<UnitChangedEvent> changes = new ArrayList<>(unitIds.size());
+        for (UnitSnapshot after : unitRepository.findSnapshotsByIdIn(unitIds)) {
+            UnitSnapshot previous = before.apply(after);
+            if (previous != null) {
+                changes.add(new UnitChangedEvent(previous, after));
+            }
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,34 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+import lombok.Value;
+
+// Published whenever a Unit row is inserted, updated or deleted.
+// before is null for inserts, after is null for deletes.
+@Value
+public class UnitChangedEvent {
+
+    UnitSnapshot before;
+    UnitSnapshot after;
+
+    public Long getUnitId() {
+        return after != null ? after.getId() : before.getId();
+    }
+
+    public boolean isCreated() {
+        return before == null;
+    }
+
+    public boolean isDeleted() {
+        return after == null;
+    }
+
+    public <T> boolean changed(Function<UnitSnapshot, T> field) {
+        if (before == null || after == null) {
+            return true;
+        }
+        return !Objects.equals(field.apply(before), field.apply(after));
+    }
+}
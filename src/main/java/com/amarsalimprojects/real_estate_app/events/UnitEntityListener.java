@@ -0,0 +1,47 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.amarsalimprojects.real_estate_app.model.Unit;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+// Instantiated by Hibernate through Spring's bean container, so constructor injection works.
+// Keeps the state each Unit was loaded with so listeners receive before/after pairs.
+public class UnitEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UnitEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostLoad
+    public void onLoad(Unit unit) {
+        unit.setLoadedState(UnitSnapshot.of(unit));
+    }
+
+    @PostPersist
+    public void onPersist(Unit unit) {
+        UnitSnapshot after = UnitSnapshot.of(unit);
+        unit.setLoadedState(after);
+        eventPublisher.publishEvent(new UnitChangedEvent(null, after));
+    }
+
+    @PostUpdate
+    public void onUpdate(Unit unit) {
+        UnitSnapshot after = UnitSnapshot.of(unit);
+        UnitSnapshot before = unit.getLoadedState();
+        unit.setLoadedState(after);
+        eventPublisher.publishEvent(new UnitChangedEvent(before, after));
+    }
+
+    @PostRemove
+    public void onRemove(Unit unit) {
+        UnitSnapshot before = unit.getLoadedState() != null ? unit.getLoadedState() : UnitSnapshot.of(unit);
+        eventPublisher.publishEvent(new UnitChangedEvent(before, null));
+    }
+}
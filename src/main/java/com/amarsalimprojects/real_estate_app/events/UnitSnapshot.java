@@ -0,0 +1,50 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+import com.amarsalimprojects.real_estate_app.enums.UnitType;
+import com.amarsalimprojects.real_estate_app.model.Unit;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+// Immutable copy of the scalar Unit columns that in-memory indexes care about.
+// The constructor doubles as a JPQL projection target (see UnitRepository.findAllSnapshots).
+@Value
+@Builder(toBuilder = true)
+@AllArgsConstructor
+public class UnitSnapshot {
+
+    Long id;
+    Long projectId;
+    UnitStatus status;
+    UnitType unitType;
+    Integer bedrooms;
+    Integer bathrooms;
+    Integer floor;
+    boolean featured;
+    ConstructionStage currentStage;
+    BigDecimal price;
+    LocalDateTime reservedUntil;
+
+    public static UnitSnapshot of(Unit unit) {
+        return UnitSnapshot.builder()
+                .id(unit.getId())
+                // getId() on a lazy proxy does not initialize the project
+                .projectId(unit.getProject() != null ? unit.getProject().getId() : null)
+                .status(unit.getStatus())
+                .unitType(unit.getUnitType())
+                .bedrooms(unit.getBedrooms())
+                .bathrooms(unit.getBathrooms())
+                .floor(unit.getFloor())
+                .featured(unit.isFeatured())
+                .currentStage(unit.getCurrentStage())
+                .price(unit.getPrice())
+                .reservedUntil(unit.getReservedUntil())
+                .build();
+    }
+}
@@ -0,0 +1,14 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import java.util.List;
+
+import lombok.Value;
+
+// Published once per committed bulk import batch instead of one UnitChangedEvent per row.
+// Every change is a creation (before is null), so a listener can treat the batch as a run of
+// inserts and do its re-reads and writes once for the whole batch.
+@Value
+public class UnitsImportedEvent {
+
+    List<UnitChangedEvent> changes;
+}
@@ -0,0 +1,18 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import java.util.List;
+
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+
+import lombok.Value;
+
+// Published once per bulk stage transition instead of one UnitChangedEvent per unit. Only
+// currentStage (and the version) differs between before and after of each change, so listeners
+// that ignore the stage can ignore this event too.
+@Value
+public class UnitsStageChangedEvent {
+
+    String batchId;
+    ConstructionStage stage;
+    List<UnitChangedEvent> changes;
+}
@@ -3,13 +3,18 @@ package com.amarsalimprojects.real_estate_app.mapper;
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
 
 import com.amarsalimprojects.real_estate_app.dto.requests.UnitRequest;
 import com.amarsalimprojects.real_estate_app.dto.responses.UnitResponse;
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+import com.amarsalimprojects.real_estate_app.enums.UnitType;
 import com.amarsalimprojects.real_estate_app.model.Unit;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
 
 @Component
 public class UnitMapper {
@@ -46,6 +51,35 @@ public class UnitMapper {
                 .build();
     }
 
+    // List views: the row already carries project/buyer columns and the collections are preloaded
+    public UnitResponse toResponse(UnitRepository.ListRow row, Set<String> features, List<String> images) {
+        return UnitResponse.builder()
+                .id(row.getId())
+                .projectId(row.getProjectId())
+                .projectName(row.getProjectName())
+                .unitNumber(row.getUnitNumber())
+                .floor(row.getFloor())
+                .bedrooms(row.getBedrooms())
+                .bathrooms(row.getBathrooms())
+                .sqft(row.getSqft())
+                .description(row.getDescription())
+                .features(features)
+                .images(images)
+                .status(row.getStatus())
+                .unitType(row.getUnitType())
+                .price(row.getPrice())
+                .reservedDate(row.getReservedDate())
+                .reservedBy(row.getReservedBy())
+                .soldDate(row.getSoldDate() != null ? row.getSoldDate().toLocalDate() : null)
+                .currentStage(row.getCurrentStage())
+                .featured(Boolean.TRUE.equals(row.getFeatured()))
+                .buyerId(row.getBuyerId())
+                .buyerEmail(row.getBuyerEmail())
+                .createdAt(row.getCreatedAt())
+                .updatedAt(row.getUpdatedAt())
+                .build();
+    }
+
     public Unit toEntity(UnitRequest request) {
         if (request == null) {
             return null;
@@ -137,7 +171,32 @@ public class UnitMapper {
                 .collect(Collectors.toList());
     }
 
-    private void validateUnitRequest(UnitRequest request) {
+    // Defaults for a new unit when the request leaves a field out
+    public void applyCreateDefaults(UnitRequest request) {
+        if (request.getStatus() == null) {
+            request.setStatus(UnitStatus.AVAILABLE);
+        }
+        if (request.getConstructionStage() == null) {
+            request.setConstructionStage(ConstructionStage.PLANNING);
+        }
+        if (request.getUnitType() == null) {
+            request.setUnitType(UnitType.APARTMENT);
+        }
+        if (request.getPrice() == null) {
+            request.setPrice(BigDecimal.ZERO);
+        }
+        if (request.getBedrooms() == null) {
+            request.setBedrooms(0);
+        }
+        if (request.getBathrooms() == null) {
+            request.setBathrooms(0);
+        }
+        if (request.getSqft() == null) {
+            request.setSqft(0);
+        }
+    }
+
+    public void validateUnitRequest(UnitRequest request) {
         if (request.getBedrooms() != null && request.getBedrooms() < 0) {
             throw new IllegalArgumentException("Bedrooms cannot be negative");
         }
@@ -10,25 +10,42 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
 import com.amarsalimprojects.real_estate_app.enums.ProjectStatus;
+import com.amarsalimprojects.real_estate_app.events.ProjectEntityListener;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Table(indexes = {
+    // MAX(updated_at) for conditional GET validators
+    @Index(name = "idx_project_updated_at", columnList = "updated_at"),
+    // Keyset pagination sort keys (ProjectQueryService.findPage); InnoDB appends the primary key
+    // to every secondary index, so each of these is effectively (column, id)
+    @Index(name = "idx_project_name", columnList = "name"),
+    @Index(name = "idx_project_created_at", columnList = "created_at"),
+    @Index(name = "idx_project_min_price", columnList = "min_price"),
+    @Index(name = "idx_project_target_completion", columnList = "target_completion_date")
+})
+@EntityListeners(ProjectEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -64,7 +81,10 @@ public class Project {
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
     private BigDecimal downPaymentPercentage;
+    // Indexed by name so the image store can count references to a stored file
     @ElementCollection
+    @CollectionTable(name = "project_images", joinColumns = @JoinColumn(name = "project_id"),
+            indexes = @Index(name = "idx_project_images_name", columnList = "images"))
     private List<String> images;
 
     @ElementCollection
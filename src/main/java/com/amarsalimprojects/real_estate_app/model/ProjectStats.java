@@ -0,0 +1,85 @@
+package com.amarsalimprojects.real_estate_app.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.amarsalimprojects.real_estate_app.enums.ProjectStatus;
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Materialized per-project aggregates for the dashboard, one row per project. Maintained by
+ * ProjectDashboardService with additive upserts from unit, invoice and payment events, and
+ * recomputed from the source tables on startup and nightly.
+ */
+@Entity
+@Table(name = "project_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectStats {
+
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    private String projectName;
+
+    @Enumerated(EnumType.STRING)
+    private ProjectStatus projectStatus;
+
+    // Displayable progress: 100 once the admin signed off
+    private float constructionProgress;
+
+    private long totalUnits;
+    private long availableUnits;
+    private long reservedUnits;
+    private long soldUnits;
+    private long underConstructionUnits;
+    private long underRepairUnits;
+    private long underRenovationUnits;
+    private long unavailableUnits;
+    private long readyForHandoverUnits;
+    private long handedOverUnits;
+    private long onHoldUnits;
+
+    // Sum of SOLD unit prices
+    @Column(precision = 19, scale = 2)
+    private BigDecimal soldValue;
+
+    // Sum of invoice totals, excluding cancelled and refunded invoices
+    @Column(precision = 19, scale = 2)
+    private BigDecimal invoicedValue;
+
+    // Sum of COMPLETED payments
+    @Column(precision = 19, scale = 2)
+    private BigDecimal revenueCollected;
+
+    private LocalDateTime updatedAt;
+
+    public long getUnitCount(UnitStatus status) {
+        return switch (status) {
+            case AVAILABLE -> availableUnits;
+            case RESERVED -> reservedUnits;
+            case SOLD -> soldUnits;
+            case UNDER_CONSTRUCTION -> underConstructionUnits;
+            case UNDER_REPAIR -> underRepairUnits;
+            case UNDER_RENOVATION -> underRenovationUnits;
+            case UNAVAILABLE -> unavailableUnits;
+            case READY_FOR_HANDOVER -> readyForHandoverUnits;
+            case HANDED_OVER -> handedOverUnits;
+            case ON_HOLD -> onHoldUnits;
+        };
+    }
+}
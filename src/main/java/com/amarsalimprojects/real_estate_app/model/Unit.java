@@ -12,9 +12,13 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
 import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
 import com.amarsalimprojects.real_estate_app.enums.UnitType;
+import com.amarsalimprojects.real_estate_app.events.UnitEntityListener;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
@@ -26,19 +30,35 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
+@Table(indexes = {
+    // Search filters are equality on status/type/project plus ranges; InnoDB appends the id
+    // to every secondary index, so these also serve the keyset "id > :after ORDER BY id" scan.
+    @Index(name = "idx_unit_project_status", columnList = "project_id, status"),
+    @Index(name = "idx_unit_status_type", columnList = "status, unit_type"),
+    @Index(name = "idx_unit_type_bedrooms", columnList = "unit_type, bedrooms"),
+    @Index(name = "idx_unit_status_price", columnList = "status, price"),
+    // MAX(updated_at) for conditional GET validators
+    @Index(name = "idx_unit_updated_at", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, UnitEntityListener.class})
 public class Unit {
 
     @Id
@@ -58,7 +78,10 @@ public class Unit {
     @ElementCollection
     private Set<String> features;
 
+    // Indexed by name so the image store can count references to a stored file
     @ElementCollection
+    @CollectionTable(name = "unit_images", joinColumns = @JoinColumn(name = "unit_id"),
+            indexes = @Index(name = "idx_unit_images_name", columnList = "images"))
     private List<String> images;
 
     @Enumerated(EnumType.STRING)
@@ -84,6 +107,11 @@ public class Unit {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    // Optimistic lock for read-modify-write paths; the default fills existing rows on schema update
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    private Long version;
+
     // Relationships:
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
@@ -99,6 +127,13 @@ public class Unit {
     @JsonBackReference(value = "unit-invoice")
     private Invoice invoice;
 
+    // State as last read from / written to the DB, used to publish before/after change events
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private UnitSnapshot loadedState;
+
     // Optional: Setter to handle boolean naming
     public void setFeatured(boolean featured) {
         this.featured = featured;
@@ -0,0 +1,57 @@
+package com.amarsalimprojects.real_estate_app.model;
+
+import java.time.LocalDateTime;
+
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One row per construction stage change of a unit. Kept deliberately flat (no association to
+ * Unit) so bulk transitions can insert it with a JDBC batch; batchId groups the rows written by
+ * one bulk update and is null for single-unit changes.
+ */
+@Entity
+@Table(name = "unit_stage_history", indexes = {
+    @Index(name = "idx_unit_stage_history_unit", columnList = "unit_id, changed_at"),
+    @Index(name = "idx_unit_stage_history_batch", columnList = "batch_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UnitStageHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "unit_id", nullable = false)
+    private Long unitId;
+
+    // Null when the unit had no stage yet
+    @Enumerated(EnumType.STRING)
+    private ConstructionStage fromStage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ConstructionStage toStage;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Column(name = "batch_id", length = 36)
+    private String batchId;
+}
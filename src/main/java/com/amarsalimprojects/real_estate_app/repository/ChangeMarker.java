@@ -0,0 +1,12 @@
+package com.amarsalimprojects.real_estate_app.repository;
+
+import java.time.LocalDateTime;
+
+// Row count and newest updatedAt of a result set; changes whenever a row in it is
+// inserted, updated or deleted, so it serves as a cheap HTTP validator.
+public interface ChangeMarker {
+
+    Long getCount();
+
+    LocalDateTime getLastModified();
+}
@@ -4,15 +4,21 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.amarsalimprojects.real_estate_app.dto.responses.InvoiceExportRow;
 import com.amarsalimprojects.real_estate_app.enums.InvoiceStatus;
 import com.amarsalimprojects.real_estate_app.model.Invoice;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
 
@@ -49,4 +55,11 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
 
     Optional<Invoice> findByCheckoutRequestId(String id);
 
+    // Integer.MIN_VALUE makes Connector/J stream this result set row by row; nothing else may
+    // run on the connection until the stream is closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT new com.amarsalimprojects.real_estate_app.dto.responses.InvoiceExportRow("
+            + "i.id, i.invoiceNumber, i.status, i.totalAmount, i.issuedDate, i.dueDate, "
+            + "i.unit.id, i.buyer.id, i.paymentPlan.id, i.createdAt, i.updatedAt) FROM Invoice i ORDER BY i.id")
+    Stream<InvoiceExportRow> streamAllForExport();
 }
@@ -4,17 +4,23 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.amarsalimprojects.real_estate_app.dto.responses.PaymentExportRow;
 import com.amarsalimprojects.real_estate_app.enums.PaymentMethod;
 import com.amarsalimprojects.real_estate_app.enums.PaymentStatus;
 import com.amarsalimprojects.real_estate_app.model.MpesaPayment;
 import com.amarsalimprojects.real_estate_app.model.Payment;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
@@ -59,4 +65,12 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<MpesaPayment> findByCheckoutRequestId(@Param("checkoutRequestId") String checkoutRequestId);
 
     boolean existsByInvoice_IdAndStatus(Long invoiceId, PaymentStatus success);
+
+    // Integer.MIN_VALUE makes Connector/J stream this result set row by row; nothing else may
+    // run on the connection until the stream is closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT new com.amarsalimprojects.real_estate_app.dto.responses.PaymentExportRow("
+            + "p.id, p.amount, p.status, p.method, p.paymentDate, p.referenceNumber, "
+            + "p.buyer.id, p.invoice.id, p.createdAt, p.updatedAt) FROM Payment p ORDER BY p.id")
+    Stream<PaymentExportRow> streamAllForExport();
 }
@@ -2,10 +2,13 @@ package com.amarsalimprojects.real_estate_app.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,7 +17,7 @@ import com.amarsalimprojects.real_estate_app.enums.ProjectStatus;
 import com.amarsalimprojects.real_estate_app.model.Project;
 
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, Long> {
+public interface ProjectRepository extends JpaRepository<Project, Long>, JpaSpecificationExecutor<Project> {
 
     Optional<Project> findByName(String name);
 
@@ -48,4 +51,53 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
 
     @Query("SELECT DISTINCT p.developerName FROM Project p WHERE p.developerName IS NOT NULL")
     List<String> findAllDevelopers();
+
+    // Coordinates only, for the in-memory geo index
+    interface Location {
+
+        Long getId();
+
+        Double getLatitude();
+
+        Double getLongitude();
+    }
+
+    @Query("SELECT p.id AS id, p.latitude AS latitude, p.longitude AS longitude FROM Project p "
+            + "WHERE p.latitude IS NOT NULL AND p.longitude IS NOT NULL")
+    List<Location> findAllLocations();
+
+    @Query("SELECT p.id AS id, p.latitude AS latitude, p.longitude AS longitude FROM Project p WHERE p.id = :id")
+    Optional<Location> findLocationById(@Param("id") Long id);
+
+    // Text columns for the full-text index: [id, name, description, address, county]
+    @Query("SELECT p.id, p.name, p.description, p.address, p.county FROM Project p")
+    List<Object[]> findAllSearchText();
+
+    @Query("SELECT p.id, p.name, p.description, p.address, p.county FROM Project p WHERE p.id = :id")
+    List<Object[]> findSearchTextById(@Param("id") Long id);
+
+    // [projectId, amenity]
+    @Query("SELECT p.id, a FROM Project p JOIN p.amenities a")
+    List<Object[]> findAllAmenities();
+
+    @Query("SELECT a FROM Project p JOIN p.amenities a WHERE p.id = :id")
+    List<String> findAmenitiesById(@Param("id") Long id);
+
+    @Query("SELECT COUNT(p) AS count, MAX(p.updatedAt) AS lastModified FROM Project p")
+    ChangeMarker findChangeMarker();
+
+    @Query("SELECT COUNT(p) AS count, MAX(p.updatedAt) AS lastModified FROM Project p WHERE p.id = :id")
+    ChangeMarker findChangeMarkerById(@Param("id") Long id);
+
+    @Query("SELECT p.id FROM Project p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Bulk update for ConstructionProgressEngine; bypasses the entity listener, so the caller
+    // publishes the ProjectChangedEvent. No-op (returns 0) when the value is unchanged. The
+    // column is a FLOAT, so "unchanged" means within half of the engine's 0.01 rounding step.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Project p SET p.constructionProgress = :progress, p.updatedAt = :now "
+            + "WHERE p.id = :id AND ABS(p.constructionProgress - :progress) >= 0.005")
+    int updateConstructionProgress(@Param("id") Long id, @Param("progress") float progress,
+            @Param("now") LocalDateTime now);
 }
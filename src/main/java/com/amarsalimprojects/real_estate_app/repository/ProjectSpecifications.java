@@ -0,0 +1,45 @@
+package com.amarsalimprojects.real_estate_app.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.amarsalimprojects.real_estate_app.model.Project;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+// Composable filters for ProjectRepository.findBy(...). A null argument yields no predicate.
+public final class ProjectSpecifications {
+
+    private ProjectSpecifications() {
+    }
+
+    /**
+     * Rows after (value, id) in ORDER BY attribute, id, both ascending or both descending.
+     * Follows MySQL's native null ordering (first ascending, last descending), so a null
+     * value is a valid position rather than a hole in the scan.
+     */
+    public static <T extends Comparable<? super T>> Specification<Project> after(
+            String attribute, boolean descending, T value, Long afterId) {
+        return (root, query, cb) -> {
+            if (afterId == null) {
+                return null;
+            }
+            Path<T> column = root.get(attribute);
+            Path<Long> id = root.get("id");
+            if ("id".equals(attribute)) {
+                return descending ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId);
+            }
+            if (value == null) {
+                Predicate sameNullGroup = cb.and(cb.isNull(column),
+                        descending ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId));
+                // Nulls come first ascending, so every non-null row is still ahead
+                return descending ? sameNullGroup : cb.or(sameNullGroup, cb.isNotNull(column));
+            }
+            Predicate beyond = descending ? cb.lessThan(column, value) : cb.greaterThan(column, value);
+            Predicate sameValue = cb.and(cb.equal(column, value),
+                    descending ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId));
+            // Nulls come last descending, so they are all still ahead
+            return descending ? cb.or(beyond, sameValue, cb.isNull(column)) : cb.or(beyond, sameValue);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.amarsalimprojects.real_estate_app.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.amarsalimprojects.real_estate_app.model.ProjectStats;
+
+// Writes go through ProjectDashboardService's upserts; this is the read side
+@Repository
+public interface ProjectStatsRepository extends JpaRepository<ProjectStats, Long> {
+
+}
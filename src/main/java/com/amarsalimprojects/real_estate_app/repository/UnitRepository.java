@@ -2,10 +2,14 @@ package com.amarsalimprojects.real_estate_app.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,10 +17,12 @@ import org.springframework.stereotype.Repository;
 import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
 import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
 import com.amarsalimprojects.real_estate_app.enums.UnitType;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.model.BuyerProfile;
 import com.amarsalimprojects.real_estate_app.model.Unit;
 
 @Repository
-public interface UnitRepository extends JpaRepository<Unit, Long> {
+public interface UnitRepository extends JpaRepository<Unit, Long>, JpaSpecificationExecutor<Unit> {
 
     Optional<Unit> findByUnitNumber(String unitNumber);
 
@@ -75,4 +81,258 @@ public interface UnitRepository extends JpaRepository<Unit, Long> {
 
     List<Unit> findByStatusAndReservedUntilBefore(UnitStatus status, LocalDateTime time);
 
+    // Scalar-only projections used to build in-memory indexes without hydrating entities
+    @Query("SELECT new com.amarsalimprojects.real_estate_app.events.UnitSnapshot("
+            + "u.id, u.project.id, u.status, u.unitType, u.bedrooms, u.bathrooms, u.floor, "
+            + "u.featured, u.currentStage, u.price, u.reservedUntil) FROM Unit u")
+    List<UnitSnapshot> findAllSnapshots();
+
+    @Query("SELECT new com.amarsalimprojects.real_estate_app.events.UnitSnapshot("
+            + "u.id, u.project.id, u.status, u.unitType, u.bedrooms, u.bathrooms, u.floor, "
+            + "u.featured, u.currentStage, u.price, u.reservedUntil) FROM Unit u WHERE u.id IN :ids")
+    List<UnitSnapshot> findSnapshotsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.id FROM Unit u WHERE u.buyer.id = :buyerId")
+    List<Long> findIdsByBuyerId(@Param("buyerId") Long buyerId);
+
+    // Text columns for the full-text index: [id, unitNumber, description]
+    @Query("SELECT u.id, u.unitNumber, u.description FROM Unit u")
+    List<Object[]> findAllSearchText();
+
+    @Query("SELECT u.id, u.unitNumber, u.description FROM Unit u WHERE u.id = :id")
+    List<Object[]> findSearchTextById(@Param("id") Long id);
+
+    @Query("SELECT u.id, u.unitNumber, u.description FROM Unit u WHERE u.id IN :ids")
+    List<Object[]> findSearchTextByIdIn(@Param("ids") Collection<Long> ids);
+
+    // [unitId, feature]
+    @Query("SELECT u.id, f FROM Unit u JOIN u.features f")
+    List<Object[]> findAllFeatures();
+
+    @Query("SELECT f FROM Unit u JOIN u.features f WHERE u.id = :id")
+    List<String> findFeaturesById(@Param("id") Long id);
+
+    // Flat list-view row: unit columns plus project name and buyer email from one LEFT JOIN,
+    // so building a UnitResponse does not touch the lazy associations
+    interface ListRow {
+
+        Long getId();
+
+        Long getProjectId();
+
+        String getProjectName();
+
+        String getUnitNumber();
+
+        Integer getFloor();
+
+        ConstructionStage getCurrentStage();
+
+        UnitType getUnitType();
+
+        Integer getBedrooms();
+
+        Integer getBathrooms();
+
+        Boolean getFeatured();
+
+        Integer getSqft();
+
+        BigDecimal getPrice();
+
+        UnitStatus getStatus();
+
+        String getDescription();
+
+        Long getBuyerId();
+
+        String getBuyerEmail();
+
+        LocalDateTime getReservedDate();
+
+        Long getReservedBy();
+
+        LocalDateTime getSoldDate();
+
+        LocalDateTime getCreatedAt();
+
+        LocalDateTime getUpdatedAt();
+    }
+
+    String LIST_ROW_SELECT = "SELECT u.id AS id, p.id AS projectId, p.name AS projectName, "
+            + "u.unitNumber AS unitNumber, u.floor AS floor, u.currentStage AS currentStage, "
+            + "u.unitType AS unitType, u.bedrooms AS bedrooms, u.bathrooms AS bathrooms, "
+            + "u.featured AS featured, u.sqft AS sqft, u.price AS price, u.status AS status, "
+            + "u.description AS description, b.id AS buyerId, b.email AS buyerEmail, "
+            + "u.reservedDate AS reservedDate, u.reservedBy AS reservedBy, u.soldDate AS soldDate, "
+            + "u.createdAt AS createdAt, u.updatedAt AS updatedAt "
+            + "FROM Unit u LEFT JOIN u.project p LEFT JOIN u.buyer b";
+
+    @Query(LIST_ROW_SELECT + " ORDER BY u.id")
+    List<ListRow> findAllListRows();
+
+    @Query(LIST_ROW_SELECT + " WHERE u.status = :status ORDER BY u.id")
+    List<ListRow> findListRowsByStatus(@Param("status") UnitStatus status);
+
+    @Query(LIST_ROW_SELECT + " WHERE u.featured = true ORDER BY u.id")
+    List<ListRow> findFeaturedListRows();
+
+    @Query(LIST_ROW_SELECT + " WHERE u.project.id = :projectId ORDER BY u.id")
+    List<ListRow> findListRowsByProjectId(@Param("projectId") Long projectId);
+
+    @Query(LIST_ROW_SELECT + " WHERE u.id = :id")
+    List<ListRow> findListRowById(@Param("id") Long id);
+
+    // Export chunk: the next rows in id order after the last one written
+    @Query(LIST_ROW_SELECT + " WHERE u.id > :afterId ORDER BY u.id")
+    List<ListRow> findListRowsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // [unitId, value] pairs for a whole page of units in one statement each
+    @Query("SELECT u.id, f FROM Unit u JOIN u.features f WHERE u.id IN :ids")
+    List<Object[]> findFeaturesByUnitIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.id, i FROM Unit u JOIN u.images i WHERE u.id IN :ids")
+    List<Object[]> findImagesByUnitIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COUNT(u) AS count, MAX(u.updatedAt) AS lastModified FROM Unit u")
+    ChangeMarker findChangeMarker();
+
+    @Query("SELECT COUNT(u) AS count, MAX(u.updatedAt) AS lastModified FROM Unit u WHERE u.id = :id")
+    ChangeMarker findChangeMarkerById(@Param("id") Long id);
+
+    @Query("SELECT COUNT(u) AS count, MAX(u.updatedAt) AS lastModified FROM Unit u WHERE u.project.id = :projectId")
+    ChangeMarker findChangeMarkerByProjectId(@Param("projectId") Long projectId);
+
+    // Conditional status transitions for ReservationEngine. Each is a single atomic UPDATE whose
+    // WHERE clause is the precondition, so of two racing callers exactly one sees 1 row updated.
+    // They bypass JPA callbacks: updatedAt and version are bumped here and the engine publishes
+    // the change through UnitChangePublisher.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Unit u SET u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.RESERVED, "
+            + "u.buyer = :buyer, u.reservedBy = :buyerId, u.reservedDate = :now, u.reservedUntil = :until, "
+            + "u.updatedAt = :now, u.version = u.version + 1 "
+            + "WHERE u.id = :id AND u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.AVAILABLE")
+    int reserveIfAvailable(@Param("id") Long id, @Param("buyer") BuyerProfile buyer, @Param("buyerId") Long buyerId,
+            @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Unit u SET u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.AVAILABLE, "
+            + "u.buyer = NULL, u.reservedBy = NULL, u.reservedDate = NULL, u.reservedUntil = NULL, "
+            + "u.updatedAt = :now, u.version = u.version + 1 "
+            + "WHERE u.id = :id AND u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.RESERVED "
+            + "AND u.reservedBy = :buyerId")
+    int releaseIfReservedBy(@Param("id") Long id, @Param("buyerId") Long buyerId, @Param("now") LocalDateTime now);
+
+    // Paid deposit: keep (or take) the hold for this buyer with no expiry
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Unit u SET u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.RESERVED, "
+            + "u.buyer = :buyer, u.reservedBy = :buyerId, u.reservedDate = COALESCE(u.reservedDate, :now), "
+            + "u.reservedUntil = NULL, u.updatedAt = :now, u.version = u.version + 1 "
+            + "WHERE u.id = :id AND (u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.AVAILABLE "
+            + "OR (u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.RESERVED "
+            + "AND (u.reservedBy IS NULL OR u.reservedBy = :buyerId)))")
+    int holdIfAvailableOrHeldBy(@Param("id") Long id, @Param("buyer") BuyerProfile buyer, @Param("buyerId") Long buyerId,
+            @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Unit u SET u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.SOLD, "
+            + "u.buyer = :buyer, u.soldDate = :now, u.reservedUntil = NULL, u.updatedAt = :now, u.version = u.version + 1 "
+            + "WHERE u.id = :id AND (u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.AVAILABLE "
+            + "OR (u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.RESERVED "
+            + "AND (u.reservedBy IS NULL OR u.reservedBy = :buyerId)))")
+    int sellIfAvailableOrHeldBy(@Param("id") Long id, @Param("buyer") BuyerProfile buyer, @Param("buyerId") Long buyerId,
+            @Param("now") LocalDateTime now);
+
+    // Moves the ETag of units whose response embeds buyer fields that changed
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Unit u SET u.updatedAt = :now, u.version = u.version + 1 WHERE u.id IN :ids")
+    int touchByIdIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    interface ReservationDeadline {
+
+        Long getId();
+
+        LocalDateTime getReservedUntil();
+    }
+
+    // Expiring holds only; deposit-backed holds have no reservedUntil
+    @Query("SELECT u.id AS id, u.reservedUntil AS reservedUntil FROM Unit u "
+            + "WHERE u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.RESERVED AND u.reservedUntil IS NOT NULL")
+    List<ReservationDeadline> findReservationDeadlines();
+
+    @Query("SELECT u.id FROM Unit u WHERE u.id IN :ids "
+            + "AND u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.RESERVED AND u.reservedUntil <= :now")
+    List<Long> findExpiredReservationIdsIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Re-checks the deadline, so a hold extended or converted since it was scheduled is left alone
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Unit u SET u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.AVAILABLE, "
+            + "u.buyer = NULL, u.reservedBy = NULL, u.reservedDate = NULL, u.reservedUntil = NULL, "
+            + "u.updatedAt = :now, u.version = u.version + 1 "
+            + "WHERE u.id IN :ids AND u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.RESERVED "
+            + "AND u.reservedUntil <= :now")
+    int releaseExpiredIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Bulk stage transition; the caller has locked the rows and checked the stage ordering
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Unit u SET u.currentStage = :stage, u.updatedAt = :now, u.version = u.version + 1 "
+            + "WHERE u.id IN :ids AND (u.currentStage IS NULL OR u.currentStage <> :stage)")
+    int updateStageIn(@Param("ids") Collection<Long> ids, @Param("stage") ConstructionStage stage,
+            @Param("now") LocalDateTime now);
+
+    // Set-based duplicate check for bulk import
+    @Query("SELECT u.unitNumber FROM Unit u WHERE u.unitNumber IN :unitNumbers")
+    List<String> findExistingUnitNumbers(@Param("unitNumbers") Collection<String> unitNumbers);
+
+    interface StatisticsRow {
+
+        Long getProjectId();
+
+        Long getTotal();
+
+        Long getAvailable();
+
+        Long getReserved();
+
+        Long getSold();
+
+        Long getStudio();
+
+        Long getOneBedroom();
+
+        Long getTwoBedroom();
+
+        Long getThreeBedroom();
+
+        Long getFourPlusBedroom();
+
+        Long getPenthouse();
+
+        BigDecimal getAvailablePriceSum();
+
+        Long getAvailablePriced();
+
+        BigDecimal getMinAvailablePrice();
+
+        BigDecimal getMaxAvailablePrice();
+    }
+
+    // Every UnitStatistics figure for every project in one pass over the table. The price sum
+    // and count are returned instead of AVG so per-project rows can be combined exactly.
+    @Query("SELECT u.project.id AS projectId, COUNT(u) AS total, "
+            + "SUM(CASE WHEN u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.AVAILABLE THEN 1 ELSE 0 END) AS available, "
+            + "SUM(CASE WHEN u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.RESERVED THEN 1 ELSE 0 END) AS reserved, "
+            + "SUM(CASE WHEN u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.SOLD THEN 1 ELSE 0 END) AS sold, "
+            + "SUM(CASE WHEN u.unitType = com.amarsalimprojects.real_estate_app.enums.UnitType.STUDIO THEN 1 ELSE 0 END) AS studio, "
+            + "SUM(CASE WHEN u.unitType = com.amarsalimprojects.real_estate_app.enums.UnitType.ONE_BEDROOM THEN 1 ELSE 0 END) AS oneBedroom, "
+            + "SUM(CASE WHEN u.unitType = com.amarsalimprojects.real_estate_app.enums.UnitType.TWO_BEDROOM THEN 1 ELSE 0 END) AS twoBedroom, "
+            + "SUM(CASE WHEN u.unitType = com.amarsalimprojects.real_estate_app.enums.UnitType.THREE_BEDROOM THEN 1 ELSE 0 END) AS threeBedroom, "
+            + "SUM(CASE WHEN u.bedrooms >= 4 THEN 1 ELSE 0 END) AS fourPlusBedroom, "
+            + "SUM(CASE WHEN u.unitType = com.amarsalimprojects.real_estate_app.enums.UnitType.PENTHOUSE THEN 1 ELSE 0 END) AS penthouse, "
+            + "SUM(CASE WHEN u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.AVAILABLE THEN u.price END) AS availablePriceSum, "
+            + "SUM(CASE WHEN u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.AVAILABLE AND u.price IS NOT NULL THEN 1 ELSE 0 END) AS availablePriced, "
+            + "MIN(CASE WHEN u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.AVAILABLE THEN u.price END) AS minAvailablePrice, "
+            + "MAX(CASE WHEN u.status = com.amarsalimprojects.real_estate_app.enums.UnitStatus.AVAILABLE THEN u.price END) AS maxAvailablePrice "
+            + "FROM Unit u GROUP BY u.project.id")
+    List<StatisticsRow> findStatisticsByProject();
 }
@@ -0,0 +1,69 @@
+package com.amarsalimprojects.real_estate_app.repository;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.amarsalimprojects.real_estate_app.dto.requests.UnitSearchCriteria;
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+import com.amarsalimprojects.real_estate_app.enums.UnitType;
+import com.amarsalimprojects.real_estate_app.model.Unit;
+
+// Composable filters for UnitRepository.findBy(...). A null argument yields no predicate.
+public final class UnitSpecifications {
+
+    private UnitSpecifications() {
+    }
+
+    public static Specification<Unit> matching(UnitSearchCriteria criteria) {
+        return Specification.allOf(
+                hasType(criteria.getType()),
+                hasStatus(criteria.getStatus()),
+                inProject(criteria.getProjectId()),
+                bedroomsAtLeast(criteria.getMinBedrooms()),
+                bedroomsAtMost(criteria.getMaxBedrooms()),
+                priceAtLeast(criteria.getMinPrice()),
+                priceAtMost(criteria.getMaxPrice()),
+                attributeEquals("bathrooms", criteria.getBathrooms()),
+                attributeEquals("floor", criteria.getFloor()),
+                attributeEquals("featured", criteria.getFeatured()),
+                attributeEquals("currentStage", criteria.getStage()));
+    }
+
+    public static Specification<Unit> hasType(UnitType type) {
+        return (root, query, cb) -> type == null ? null : cb.equal(root.get("unitType"), type);
+    }
+
+    public static Specification<Unit> hasStatus(UnitStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    // Compares the FK column directly so the project row is never joined
+    public static Specification<Unit> inProject(Long projectId) {
+        return (root, query, cb) -> projectId == null ? null : cb.equal(root.get("project").get("id"), projectId);
+    }
+
+    public static Specification<Unit> bedroomsAtLeast(Integer minBedrooms) {
+        return (root, query, cb) -> minBedrooms == null ? null : cb.greaterThanOrEqualTo(root.get("bedrooms"), minBedrooms);
+    }
+
+    public static Specification<Unit> bedroomsAtMost(Integer maxBedrooms) {
+        return (root, query, cb) -> maxBedrooms == null ? null : cb.lessThanOrEqualTo(root.get("bedrooms"), maxBedrooms);
+    }
+
+    public static Specification<Unit> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, cb) -> minPrice == null ? null : cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Unit> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, cb) -> maxPrice == null ? null : cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Unit> attributeEquals(String attribute, Object value) {
+        return (root, query, cb) -> value == null ? null : cb.equal(root.get(attribute), value);
+    }
+
+    public static Specification<Unit> idGreaterThan(Long afterId) {
+        return (root, query, cb) -> afterId == null ? null : cb.greaterThan(root.get("id"), afterId);
+    }
+}
@@ -0,0 +1,14 @@
+package com.amarsalimprojects.real_estate_app.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.amarsalimprojects.real_estate_app.model.UnitStageHistory;
+
+@Repository
+public interface UnitStageHistoryRepository extends JpaRepository<UnitStageHistory, Long> {
+
+    List<UnitStageHistory> findByUnitIdOrderByChangedAtDescIdDesc(Long unitId);
+}
@@ -0,0 +1,279 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.amarsalimprojects.real_estate_app.dto.requests.UploadSessionRequest;
+import com.amarsalimprojects.real_estate_app.dto.responses.UploadSessionResponse;
+
+/**
+ * Resumable uploads: a session reserves a part file under .incoming, each chunk is written at
+ * its own offset with a positional FileChannel write (so chunks may arrive in any order, in
+ * parallel, or again after a dropped connection), and completion hashes the assembled file
+ * into the content-addressed ImageStore. Sessions live in memory and are dropped after
+ * app.upload.session-ttl-minutes without a chunk.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    private static final int MIN_CHUNK_SIZE = 256 * 1024;
+    private static final int MAX_CHUNK_SIZE = 16 * 1024 * 1024;
+    private static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+
+    private final ImageStore imageStore;
+    private final ImageDerivativeService imageDerivativeService;
+    private final long maxFileBytes;
+    private final Duration sessionTtl;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    public ChunkedUploadService(ImageStore imageStore, ImageDerivativeService imageDerivativeService,
+            @Value("${app.upload.max-file-bytes:209715200}") long maxFileBytes,
+            @Value("${app.upload.session-ttl-minutes:1440}") long sessionTtlMinutes) {
+        this.imageStore = imageStore;
+        this.imageDerivativeService = imageDerivativeService;
+        this.maxFileBytes = maxFileBytes;
+        this.sessionTtl = Duration.ofMinutes(sessionTtlMinutes);
+    }
+
+    private static final class Session {
+
+        final String uploadId;
+        final String filename;
+        final String extension;
+        final long size;
+        final int chunkSize;
+        final int chunkCount;
+        final Path partFile;
+        // Guarded by this
+        final BitSet received;
+        boolean completing;
+        volatile Instant lastActivity = Instant.now();
+
+        Session(String uploadId, String filename, String extension, long size, int chunkSize, Path partFile) {
+            this.uploadId = uploadId;
+            this.filename = filename;
+            this.extension = extension;
+            this.size = size;
+            this.chunkSize = chunkSize;
+            this.chunkCount = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+            this.partFile = partFile;
+            this.received = new BitSet(chunkCount);
+        }
+
+        long chunkLength(int index) {
+            return Math.min(chunkSize, size - (long) index * chunkSize);
+        }
+    }
+
+    public UploadSessionResponse start(UploadSessionRequest request) throws IOException {
+        String filename = request.getFilename();
+        if (filename == null || filename.isBlank()) {
+            throw new IllegalArgumentException("Filename is required");
+        }
+        int dotIndex = filename.lastIndexOf('.');
+        if (dotIndex == -1) {
+            throw new IllegalArgumentException("Filename must have an extension");
+        }
+        String extension = ImageStore.normalizeExtension(filename.substring(dotIndex + 1));
+        if (request.getSize() == null || request.getSize() <= 0 || request.getSize() > maxFileBytes) {
+            throw new IllegalArgumentException("Size must be between 1 and " + maxFileBytes + " bytes");
+        }
+        int chunkSize = request.getChunkSize() != null
+                ? Math.clamp(request.getChunkSize(), MIN_CHUNK_SIZE, MAX_CHUNK_SIZE)
+                : DEFAULT_CHUNK_SIZE;
+
+        Path incoming = imageStore.getUploadDir().resolve(ImageStore.INCOMING_DIR);
+        Files.createDirectories(incoming);
+        String uploadId = UUID.randomUUID().toString();
+        Path partFile = incoming.resolve(uploadId + ".part");
+        Files.createFile(partFile);
+
+        Session session = new Session(uploadId, filename, extension, request.getSize(), chunkSize, partFile);
+        sessions.put(uploadId, session);
+        return toResponse(session);
+    }
+
+    public boolean isOpen(String uploadId) {
+        return sessions.containsKey(uploadId);
+    }
+
+    // Null if the session does not exist or has expired
+    public UploadSessionResponse status(String uploadId) {
+        Session session = sessions.get(uploadId);
+        return session != null ? toResponse(session) : null;
+    }
+
+    /**
+     * Writes one chunk at offset index * chunkSize. Re-sending a chunk overwrites it with the
+     * same bytes, so clients can retry anything they did not see acknowledged.
+     *
+     * @return the session state, or null if the session does not exist
+     */
+    public UploadSessionResponse writeChunk(String uploadId, int index, InputStream body) throws IOException {
+        Session session = sessions.get(uploadId);
+        if (session == null) {
+            return null;
+        }
+        if (index < 0 || index >= session.chunkCount) {
+            throw new IllegalArgumentException("Chunk index must be between 0 and " + (session.chunkCount - 1));
+        }
+        synchronized (session) {
+            if (session.completing) {
+                throw new IllegalStateException("Upload is already being completed");
+            }
+            // A failed rewrite leaves the chunk's bytes undefined, so it counts as missing until done
+            session.received.clear(index);
+        }
+        session.lastActivity = Instant.now();
+
+        long expected = session.chunkLength(index);
+        long position = (long) index * session.chunkSize;
+        long written = 0;
+        byte[] buffer = new byte[IO_BUFFER_SIZE];
+        try (FileChannel channel = FileChannel.open(session.partFile, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                if (written + read > expected) {
+                    throw new IllegalArgumentException("Chunk " + index + " must be " + expected + " bytes");
+                }
+                ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                while (bytes.hasRemaining()) {
+                    written += channel.write(bytes, position + written);
+                }
+            }
+        }
+        if (written != expected) {
+            throw new IllegalArgumentException("Chunk " + index + " must be " + expected + " bytes, got " + written);
+        }
+
+        synchronized (session) {
+            session.received.set(index);
+        }
+        return toResponse(session);
+    }
+
+    /**
+     * Hashes the assembled file into the image store once every chunk has arrived.
+     *
+     * @return the stored file, or null if the session does not exist
+     */
+    public ImageStore.StoredFile complete(String uploadId) throws IOException {
+        Session session = sessions.get(uploadId);
+        if (session == null) {
+            return null;
+        }
+        synchronized (session) {
+            // Lost a race with abort() or the idle sweeper
+            if (sessions.get(uploadId) != session) {
+                return null;
+            }
+            if (session.received.cardinality() != session.chunkCount) {
+                throw new IllegalStateException("Missing " + (session.chunkCount - session.received.cardinality())
+                        + " of " + session.chunkCount + " chunks");
+            }
+            if (session.completing) {
+                throw new IllegalStateException("Upload is already being completed");
+            }
+            // From here on abort() and the sweeper leave the session alone
+            session.completing = true;
+        }
+
+        try {
+            MessageDigest digest = ImageStore.sha256();
+            ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_SIZE);
+            try (FileChannel channel = FileChannel.open(session.partFile, StandardOpenOption.READ)) {
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                }
+            }
+            ImageStore.StoredFile stored = imageStore.commit(session.partFile, digest, session.extension);
+            sessions.remove(uploadId);
+            if (!stored.deduplicated()) {
+                imageDerivativeService.schedule(stored.filename());
+            }
+            logger.info("[CHUNKED UPLOAD] {} ({} bytes) stored as {}", session.filename, session.size, stored.filename());
+            return stored;
+        } catch (IOException | RuntimeException e) {
+            synchronized (session) {
+                session.completing = false;
+            }
+            throw e;
+        }
+    }
+
+    // True if the session existed; a session that is being completed cannot be aborted
+    public boolean abort(String uploadId) throws IOException {
+        Session session = sessions.get(uploadId);
+        if (session == null) {
+            return false;
+        }
+        synchronized (session) {
+            if (session.completing) {
+                throw new IllegalStateException("Upload is being completed");
+            }
+            if (!sessions.remove(uploadId, session)) {
+                return false;
+            }
+        }
+        Files.deleteIfExists(session.partFile);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.upload.session-sweep-interval-ms:600000}")
+    public void expireIdleSessions() {
+        Instant cutoff = Instant.now().minus(sessionTtl);
+        for (Session session : sessions.values()) {
+            if (session.lastActivity.isBefore(cutoff)) {
+                try {
+                    if (abort(session.uploadId)) {
+                        logger.info("[CHUNKED UPLOAD] Expired idle upload {} ({})", session.uploadId, session.filename);
+                    }
+                } catch (IllegalStateException e) {
+                    // Being completed; hashing a large file can outlast the idle timeout
+                } catch (IOException e) {
+                    logger.warn("[CHUNKED UPLOAD] Could not delete {}: {}", session.partFile, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static UploadSessionResponse toResponse(Session session) {
+        List<Integer> received = new ArrayList<>();
+        synchronized (session) {
+            session.received.stream().forEach(received::add);
+        }
+        return UploadSessionResponse.builder()
+                .uploadId(session.uploadId)
+                .filename(session.filename)
+                .size(session.size)
+                .chunkSize(session.chunkSize)
+                .chunkCount(session.chunkCount)
+                .receivedChunks(received)
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.amarsalimprojects.real_estate_app.dto.requests.BulkStageUpdateRequest;
+import com.amarsalimprojects.real_estate_app.dto.responses.BulkStageUpdateResponse;
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+import com.amarsalimprojects.real_estate_app.events.UnitChangePublisher;
+import com.amarsalimprojects.real_estate_app.model.Unit;
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+/**
+ * Construction stage transitions. A bulk transition locks the selected rows, checks the stage
+ * ordering on them, moves the eligible ones with one UPDATE, writes their history with one
+ * JDBC batch and publishes a single UnitsStageChangedEvent, so a floor of units costs a
+ * handful of statements instead of a load and a save each.
+ */
+@Service
+public class ConstructionStageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConstructionStageService.class);
+
+    private static final String INSERT_HISTORY = "INSERT INTO unit_stage_history "
+            + "(unit_id, from_stage, to_stage, changed_at, batch_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final UnitRepository unitRepository;
+    private final ProjectRepository projectRepository;
+    private final UnitChangePublisher unitChanges;
+
+    public ConstructionStageService(NamedParameterJdbcTemplate jdbcTemplate,
+            UnitRepository unitRepository,
+            ProjectRepository projectRepository,
+            UnitChangePublisher unitChanges) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.unitRepository = unitRepository;
+        this.projectRepository = projectRepository;
+        this.unitChanges = unitChanges;
+    }
+
+    @Transactional
+    public BulkStageUpdateResponse bulkUpdate(BulkStageUpdateRequest request) {
+        if (request.getProjectId() == null || request.getStage() == null) {
+            throw new IllegalArgumentException("Project ID and stage are required");
+        }
+        if (request.getFloorFrom() != null && request.getFloorTo() != null
+                && request.getFloorFrom() > request.getFloorTo()) {
+            throw new IllegalArgumentException("floorFrom must not be greater than floorTo");
+        }
+        if (!projectRepository.existsById(request.getProjectId())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Project not found");
+        }
+
+        // FOR UPDATE keeps the stages read here valid until the UPDATE below commits
+        StringBuilder sql = new StringBuilder("SELECT id, current_stage FROM unit WHERE project_id = :projectId");
+        MapSqlParameterSource params = new MapSqlParameterSource("projectId", request.getProjectId());
+        if (request.getFloorFrom() != null) {
+            sql.append(" AND floor >= :floorFrom");
+            params.addValue("floorFrom", request.getFloorFrom());
+        }
+        if (request.getFloorTo() != null) {
+            sql.append(" AND floor <= :floorTo");
+            params.addValue("floorTo", request.getFloorTo());
+        }
+        if (request.getUnitTypes() != null && !request.getUnitTypes().isEmpty()) {
+            sql.append(" AND unit_type IN (:unitTypes)");
+            params.addValue("unitTypes", request.getUnitTypes().stream().map(Enum::name).distinct().toList());
+        }
+        sql.append(" FOR UPDATE");
+
+        ConstructionStage target = request.getStage();
+        Map<Long, ConstructionStage> previous = new HashMap<>();
+        List<Long> skipped = new ArrayList<>();
+        int[] alreadyAtStage = {0};
+        jdbcTemplate.query(sql.toString(), params, rs -> {
+            Long id = rs.getLong("id");
+            String column = rs.getString("current_stage");
+            ConstructionStage current = column != null ? ConstructionStage.valueOf(column) : null;
+            if (current == target) {
+                alreadyAtStage[0]++;
+            } else if (current != null && current.ordinal() > target.ordinal() && !request.isAllowRegression()) {
+                skipped.add(id);
+            } else {
+                previous.put(id, current);
+            }
+        });
+        int matched = previous.size() + skipped.size() + alreadyAtStage[0];
+
+        String batchId = UUID.randomUUID().toString();
+        int updated = 0;
+        if (!previous.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            updated = unitRepository.updateStageIn(previous.keySet(), target, now);
+
+            Timestamp changedAt = Timestamp.valueOf(now);
+            List<Object[]> history = new ArrayList<>(previous.size());
+            previous.forEach((unitId, from) -> history.add(new Object[]{
+                unitId, from != null ? from.name() : null, target.name(), changedAt, batchId}));
+            jdbcTemplate.getJdbcOperations().batchUpdate(INSERT_HISTORY, history);
+
+            unitChanges.publishStageChanged(batchId, target, previous.keySet(),
+                    after -> after.toBuilder().currentStage(previous.get(after.getId())).build());
+        }
+
+        logger.info("[CONSTRUCTION STAGE] Project {} batch {}: {} of {} units moved to {}, {} skipped",
+                request.getProjectId(), batchId, updated, matched, target, skipped.size());
+        return BulkStageUpdateResponse.builder()
+                .batchId(batchId)
+                .stage(target)
+                .matched(matched)
+                .updated(updated)
+                .alreadyAtStage(alreadyAtStage[0])
+                .skippedUnitIds(skipped)
+                .build();
+    }
+
+    /**
+     * Sets the stage of a single unit, in any direction, and records the change.
+     */
+    @Transactional
+    public Unit changeStage(Unit unit, ConstructionStage stage) {
+        ConstructionStage from = unit.getCurrentStage();
+        unit.setCurrentStage(stage);
+        Unit saved = unitRepository.save(unit);
+        if (from != stage) {
+            jdbcTemplate.getJdbcOperations().update(INSERT_HISTORY, saved.getId(),
+                    from != null ? from.name() : null, stage.name(), Timestamp.valueOf(LocalDateTime.now()), null);
+        }
+        return saved;
+    }
+}
@@ -0,0 +1,101 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.amarsalimprojects.real_estate_app.dto.responses.InvoiceExportRow;
+import com.amarsalimprojects.real_estate_app.dto.responses.PaymentExportRow;
+import com.amarsalimprojects.real_estate_app.repository.InvoiceRepository;
+import com.amarsalimprojects.real_estate_app.repository.PaymentRepository;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes whole tables as newline-delimited JSON. Payments and invoices come straight from a
+ * streamed result set; units are read in id-ordered chunks so their features and images can
+ * be loaded for a chunk at a time, which a live stream on the same connection would not allow.
+ * Either way memory stays flat however large the table is; output is flushed every
+ * FLUSH_EVERY rows.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportService {
+
+    private static final int FLUSH_EVERY = 200;
+    private static final int UNIT_CHUNK_SIZE = 500;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private UnitService unitService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Three statements per chunk: the rows, then their features and images
+    public long exportUnits(OutputStream out) throws IOException {
+        long count = 0;
+        Long afterId = 0L;
+        List<UnitRepository.ListRow> rows;
+        do {
+            rows = unitRepository.findListRowsAfter(afterId, Limit.of(UNIT_CHUNK_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            count += write(unitService.toResponses(rows).stream(), Function.identity(), out);
+            afterId = rows.get(rows.size() - 1).getId();
+        } while (rows.size() == UNIT_CHUNK_SIZE);
+        out.flush();
+        return count;
+    }
+
+    public long exportPayments(OutputStream out) throws IOException {
+        try (Stream<PaymentExportRow> payments = paymentRepository.streamAllForExport()) {
+            return write(payments, Function.identity(), out);
+        }
+    }
+
+    public long exportInvoices(OutputStream out) throws IOException {
+        try (Stream<InvoiceExportRow> invoices = invoiceRepository.streamAllForExport()) {
+            return write(invoices, Function.identity(), out);
+        }
+    }
+
+    private <T> long write(Stream<T> rows, Function<? super T, ?> mapper, OutputStream out) throws IOException {
+        long[] count = {0};
+        try {
+            rows.forEachOrdered(row -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(mapper.apply(row)));
+                    out.write('\n');
+                    if (++count[0] % FLUSH_EVERY == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; surface it so the result set is closed and the request ends
+            throw e.getCause();
+        }
+        out.flush();
+        return count[0];
+    }
+}
@@ -0,0 +1,256 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes image files to the response with ETag/Last-Modified validators and single byte-range
+ * support. Small images that are requested repeatedly are kept in direct (off-heap) buffers
+ * under a byte budget, so hot thumbnails neither touch the disk nor grow the heap. Everything
+ * else, including the first requests for a small image, goes out through Tomcat's sendfile when
+ * the connector offers it, or FileChannel.transferTo otherwise.
+ */
+@Service
+public class ImageDeliveryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDeliveryService.class);
+
+    // Request attributes Tomcat's NIO connector reads after the servlet returns
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL = CacheControl.maxAge(30, TimeUnit.DAYS).getHeaderValue();
+
+    private final long maxCachedFileBytes;
+    private final int admitAfterHits;
+    private final Cache<Path, CachedImage> hotImages;
+    // Recent misses per file. Only a file missed admitAfterHits times within the window is copied
+    // off-heap, so a crawl over cold thumbnails streams from disk instead of churning direct memory.
+    private final Cache<Path, AtomicInteger> recentMisses = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+    private final Cache<String, String> contentTypes = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
+    public ImageDeliveryService(@Value("${app.images.hot-cache-bytes:67108864}") long hotCacheBytes,
+            @Value("${app.images.hot-cache-max-file-bytes:524288}") long maxCachedFileBytes,
+            @Value("${app.images.hot-cache-admit-hits:2}") int admitAfterHits) {
+        this.maxCachedFileBytes = maxCachedFileBytes;
+        this.admitAfterHits = Math.max(1, admitAfterHits);
+        // Evicted buffers are released by their cleaner once unreachable; the weigher keeps the
+        // live total within hotCacheBytes, and Caffeine's frequency sketch decides what stays.
+        this.hotImages = Caffeine.newBuilder()
+                .maximumWeight(hotCacheBytes)
+                .weigher((Path path, CachedImage image) -> (int) Math.min(Integer.MAX_VALUE, image.size()))
+                .build();
+    }
+
+    // Read-only view of the file contents, valid while size and mtime match the file on disk
+    private record CachedImage(ByteBuffer bytes, long size, long lastModified) {
+
+    }
+
+    public void serve(Path file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        if (!attributes.isRegularFile()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Sets ETag and Last-Modified, and answers 304 when If-None-Match/If-Modified-Since match
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+        response.setContentType(contentTypeOf(file));
+
+        long start = 0;
+        long end = size - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && size > 0 && ifRangeMatches(request, etag, lastModified)) {
+            HttpRange range = singleRange(rangeHeader);
+            if (range != null) {
+                start = range.getRangeStart(size);
+                end = Math.min(range.getRangeEnd(size), size - 1);
+                if (start >= size || start > end) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        CachedImage cached = cachedImage(file, size, lastModified);
+        if (cached != null) {
+            ByteBuffer slice = cached.bytes().slice((int) start, (int) length);
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            while (slice.hasRemaining()) {
+                out.write(slice);
+            }
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat copies the region kernel-side once the handler returns
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private CachedImage cachedImage(Path file, long size, long lastModified) {
+        if (size > maxCachedFileBytes) {
+            return null;
+        }
+        CachedImage cached = hotImages.getIfPresent(file);
+        if (cached != null && cached.size() == size && cached.lastModified() == lastModified) {
+            return cached;
+        }
+        AtomicInteger misses = recentMisses.get(file, key -> new AtomicInteger());
+        if (misses.incrementAndGet() < admitAfterHits) {
+            return null;
+        }
+        recentMisses.invalidate(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until full or end of file
+            }
+            if (buffer.hasRemaining()) {
+                // File shrank since the stat; serve it from disk this time
+                return null;
+            }
+            buffer.flip();
+            CachedImage loaded = new CachedImage(buffer.asReadOnlyBuffer(), size, lastModified);
+            hotImages.put(file, loaded);
+            return loaded;
+        } catch (IOException e) {
+            // Unreadable file: fall back to streaming from disk
+            logger.debug("[IMAGE DELIVERY] Not caching {}: {}", file.getFileName(), e.toString());
+            return null;
+        }
+    }
+
+    // For tests
+    boolean isHot(Path file) {
+        return hotImages.getIfPresent(file) != null;
+    }
+
+    // Multi-range requests are answered with the whole file, which RFC 9110 allows
+    private static HttpRange singleRange(String rangeHeader) {
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // If-Range carries either the ETag or the Last-Modified date the client already holds
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private String contentTypeOf(Path file) {
+        return contentTypes.get(file.getFileName().toString(), filename -> {
+            String contentType = null;
+            try {
+                contentType = Files.probeContentType(file);
+            } catch (IOException e) {
+                // fall through to the extension
+            }
+            if (contentType != null && !contentType.equals("text/plain")) {
+                return contentType;
+            }
+            String lowerName = filename.toLowerCase(Locale.ROOT);
+            if (lowerName.endsWith(".jpg") || lowerName.endsWith(".jpeg")) {
+                return MediaType.IMAGE_JPEG_VALUE;
+            } else if (lowerName.endsWith(".png")) {
+                return MediaType.IMAGE_PNG_VALUE;
+            } else if (lowerName.endsWith(".webp")) {
+                return "image/webp";
+            } else if (lowerName.endsWith(".gif")) {
+                return MediaType.IMAGE_GIF_VALUE;
+            }
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        });
+    }
+}
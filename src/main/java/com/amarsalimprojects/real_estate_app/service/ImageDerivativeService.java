@@ -0,0 +1,254 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Downscaled copies of uploaded JPEG/PNG images at fixed widths, stored next to the uploads
+ * under .derivatives/{width}/ at the same relative path as the original. Generation runs on a small bounded pool so a burst of
+ * uploads cannot take over the CPU or heap; a full queue drops the job and the next request
+ * for the image schedules it again.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    public static final String DERIVATIVES_DIR = ".derivatives";
+    // Card thumbnail, list row, detail page, full-screen
+    private static final int[] WIDTHS = {160, 320, 640, 1280};
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final Path uploadDir;
+    private final ImageStore imageStore;
+    private final ThreadPoolExecutor workers;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ImageDerivativeService(ImageStore imageStore,
+            @Value("${app.images.derivative-workers:2}") int workerCount,
+            @Value("${app.images.derivative-queue:500}") int queueCapacity) {
+        this.imageStore = imageStore;
+        this.uploadDir = imageStore.getUploadDir();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+        this.workers.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public boolean supports(String filename) {
+        String format = formatOf(filename);
+        return "jpg".equals(format) || "png".equals(format);
+    }
+
+    /**
+     * Queues derivative generation for an upload; no-op if unsupported or already queued.
+     */
+    public void schedule(String filename) {
+        if (!supports(filename) || !inFlight.add(filename)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    generate(filename);
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("[IMAGE DERIVATIVES] Could not generate derivatives for {}: {}", filename, e.getMessage());
+                } finally {
+                    inFlight.remove(filename);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(filename);
+            logger.debug("[IMAGE DERIVATIVES] Queue full, skipped {}", filename);
+        }
+    }
+
+    /**
+     * The smallest derivative at least the requested width, or null when the original should be
+     * served: the width is above the largest derivative, the format is unsupported, or the
+     * derivative is not generated yet (in which case it is scheduled).
+     */
+    public Path findDerivative(String filename, int requestedWidth) {
+        if (!supports(filename)) {
+            return null;
+        }
+        for (int width : WIDTHS) {
+            if (width >= requestedWidth) {
+                Path derivative = derivativePath(filename, width);
+                if (derivative == null) {
+                    return null;
+                }
+                if (Files.isRegularFile(derivative)) {
+                    return derivative;
+                }
+                schedule(filename);
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes every derivative of an image; they are regenerated on demand if it comes back.
+     */
+    public void deleteDerivatives(String filename) throws IOException {
+        for (int width : WIDTHS) {
+            Path derivative = derivativePath(filename, width);
+            if (derivative != null) {
+                Files.deleteIfExists(derivative);
+            }
+        }
+    }
+
+    private void generate(String filename) throws IOException {
+        Path original = imageStore.resolve(filename);
+        if (original == null || !Files.isRegularFile(original)) {
+            return;
+        }
+
+        BufferedImage source = null;
+        for (int i = WIDTHS.length - 1; i >= 0; i--) {
+            Path target = derivativePath(filename, WIDTHS[i]);
+            if (target == null || Files.isRegularFile(target)) {
+                continue;
+            }
+            if (source == null) {
+                source = read(original, WIDTHS[WIDTHS.length - 1]);
+                if (source == null) {
+                    return;
+                }
+            }
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), ".tmp-", "");
+            try {
+                if (source.getWidth() <= WIDTHS[i] && i == WIDTHS.length - 1) {
+                    // Already small enough; still give every width a file so lookups stay one stat
+                    Files.copy(original, temp, StandardCopyOption.REPLACE_EXISTING);
+                } else {
+                    // Each smaller width scales from the previous one, which is faster and smoother
+                    source = scale(source, Math.min(WIDTHS[i], source.getWidth()), formatOf(filename));
+                    write(source, formatOf(filename), temp);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    // Decodes with source subsampling so a 12 MP photo never becomes a full-size raster
+    private static BufferedImage read(Path file, int maxWidth) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, reader.getWidth(0) / (maxWidth * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, String format) {
+        int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+        // JPEG has no alpha channel
+        int type = "png".equals(format) ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage scaled = new BufferedImage(width, height, type);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static void write(BufferedImage image, String format, Path target) throws IOException {
+        if (!"jpg".equals(format)) {
+            if (!ImageIO.write(image, format, target.toFile())) {
+                throw new IOException("No ImageIO writer for " + format);
+            }
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private Path derivativePath(String filename, int width) {
+        Path root = uploadDir.resolve(DERIVATIVES_DIR).resolve(Integer.toString(width));
+        Path path = root.resolve(ImageStore.relativePath(filename)).normalize();
+        return path.startsWith(root) ? path : null;
+    }
+
+    private static String formatOf(String filename) {
+        String lower = filename.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) {
+            return "jpg";
+        }
+        if (lower.endsWith(".png")) {
+            return "png";
+        }
+        return null;
+    }
+}
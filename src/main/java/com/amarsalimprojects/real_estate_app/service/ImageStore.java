@@ -0,0 +1,193 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Content-addressed upload storage. A file is named after the SHA-256 of its bytes plus its
+ * extension and stored under two levels of hash-prefix directories (ab/cd/abcd...jpg), so a
+ * second upload of the same bytes resolves to the existing file and directories stay small.
+ * Names that are not content addresses are pre-existing UUID uploads in the flat upload dir.
+ */
+@Service
+public class ImageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageStore.class);
+
+    // Uploads are written here first, on the same filesystem so the final move is atomic
+    public static final String INCOMING_DIR = ".incoming";
+
+    private static final Pattern CONTENT_ADDRESS = Pattern.compile("[0-9a-f]{64}\\.[a-z0-9]{1,10}");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+
+    private static final int NAME_LOCK_STRIPES = 64;
+
+    private final Path uploadDir;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ReentrantLock[] nameLocks = new ReentrantLock[NAME_LOCK_STRIPES];
+
+    public ImageStore(@Value("${app.upload.dir}") String uploadDir, NamedParameterJdbcTemplate jdbcTemplate) {
+        this.uploadDir = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.jdbcTemplate = jdbcTemplate;
+        for (int i = 0; i < NAME_LOCK_STRIPES; i++) {
+            nameLocks[i] = new ReentrantLock();
+        }
+    }
+
+    public record StoredFile(String filename, boolean deduplicated) {
+
+    }
+
+    public Path getUploadDir() {
+        return uploadDir;
+    }
+
+    public static boolean isContentAddressed(String filename) {
+        return CONTENT_ADDRESS.matcher(filename).matches();
+    }
+
+    /**
+     * Streams the content to disk while hashing it; if a file with the same hash is already
+     * stored the new copy is discarded.
+     *
+     * @param extension without the dot, e.g. "jpg"
+     */
+    public StoredFile store(InputStream content, String extension) throws IOException {
+        String normalizedExtension = normalizeExtension(extension);
+
+        Path incoming = uploadDir.resolve(INCOMING_DIR);
+        Files.createDirectories(incoming);
+        Path temp = Files.createTempFile(incoming, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (DigestInputStream input = new DigestInputStream(content, digest);
+                    OutputStream output = Files.newOutputStream(temp)) {
+                input.transferTo(output);
+            }
+            return commit(temp, digest, normalizedExtension);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Moves a fully written temp file (inside the upload dir) to its content address. The
+     * digest must have been fed the file's bytes.
+     */
+    public StoredFile commit(Path temp, MessageDigest digest, String extension) throws IOException {
+        String filename = HexFormat.of().formatHex(digest.digest()) + "." + normalizeExtension(extension);
+        Path target = resolve(filename);
+        Lock lock = lockFor(filename);
+        lock.lock();
+        try {
+            if (Files.isRegularFile(target)) {
+                Files.deleteIfExists(temp);
+                // The caller is about to reference it again; a fresh mtime keeps the orphan collector's
+                // grace period from applying to an old file that is being re-attached.
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                logger.debug("[IMAGE STORE] Duplicate upload of {}", filename);
+                return new StoredFile(filename, true);
+            }
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new StoredFile(filename, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Held by commit() while it finds or places a file, and by the orphan collector from its
+     * last mtime check until the file is gone, so a stored file cannot be removed between being
+     * found as a duplicate and having its mtime refreshed.
+     */
+    public Lock lockFor(String filename) {
+        return nameLocks[Math.floorMod(filename.hashCode(), NAME_LOCK_STRIPES)];
+    }
+
+    /**
+     * Where a stored file lives, or null if the name would escape the upload dir.
+     */
+    public Path resolve(String filename) {
+        Path path = uploadDir.resolve(relativePath(filename)).normalize();
+        return path.startsWith(uploadDir) ? path : null;
+    }
+
+    // ab/cd/abcd...ext for content addresses, the name itself for older flat uploads
+    public static String relativePath(String filename) {
+        if (!isContentAddressed(filename)) {
+            return filename;
+        }
+        return filename.substring(0, 2) + "/" + filename.substring(2, 4) + "/" + filename;
+    }
+
+    /**
+     * How many unit and project image lists name this file.
+     */
+    public long referenceCount(String filename) {
+        return referenceCounts(List.of(filename)).getOrDefault(filename, 0L);
+    }
+
+    /**
+     * Reference counts for the given names; names nobody uses are absent. Both image tables are
+     * indexed on the name column, so this is two index range scans.
+     */
+    public Map<String, Long> referenceCounts(Collection<String> filenames) {
+        Map<String, Long> counts = new HashMap<>();
+        if (filenames.isEmpty()) {
+            return counts;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("names", filenames);
+        jdbcTemplate.query("""
+                SELECT images, COUNT(*) FROM unit_images WHERE images IN (:names) GROUP BY images
+                UNION ALL
+                SELECT images, COUNT(*) FROM project_images WHERE images IN (:names) GROUP BY images
+                """, params, row -> {
+            counts.merge(row.getString(1), row.getLong(2), Long::sum);
+        });
+        return counts;
+    }
+
+    // Lower-cased so photo.JPG and photo.jpg share an address
+    public static String normalizeExtension(String extension) {
+        String normalized = extension.toLowerCase(Locale.ROOT);
+        if (!EXTENSION.matcher(normalized).matches()) {
+            throw new IllegalArgumentException("Unsupported file extension: " + extension);
+        }
+        return normalized;
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
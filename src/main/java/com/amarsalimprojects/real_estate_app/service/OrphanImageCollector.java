@@ -0,0 +1,395 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.amarsalimprojects.real_estate_app.dto.responses.ImageGcStatus;
+
+/**
+ * Removes uploads that no unit or project references. A run streams every referenced name out
+ * of unit_images and project_images into a compact set, then walks the upload dir one
+ * directory at a time. Files older than the grace period that are not in the set are checked
+ * against the database again in batches (a reference may have been added since the set was
+ * read) and then quarantined, deleted, or only counted, per app.images.gc-mode. The same walk
+ * drops abandoned upload temp files, derivatives of vanished originals, and quarantined files
+ * past their retention.
+ */
+@Service
+public class OrphanImageCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrphanImageCollector.class);
+
+    public static final String QUARANTINE_DIR = ".quarantine";
+    private static final int VERIFY_BATCH_SIZE = 500;
+
+    public enum Mode {
+        QUARANTINE, DELETE, REPORT
+    }
+
+    private final ImageStore imageStore;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ChunkedUploadService chunkedUploadService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Mode mode;
+    private final Duration gracePeriod;
+    private final Duration quarantineRetention;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Run lastRun;
+
+    public OrphanImageCollector(ImageStore imageStore, ImageDerivativeService imageDerivativeService,
+            ChunkedUploadService chunkedUploadService, JdbcTemplate jdbcTemplate,
+            @Value("${app.images.gc-mode:quarantine}") String mode,
+            @Value("${app.images.gc-grace-hours:24}") long graceHours,
+            @Value("${app.images.gc-quarantine-days:30}") long quarantineDays) {
+        this.imageStore = imageStore;
+        this.imageDerivativeService = imageDerivativeService;
+        this.chunkedUploadService = chunkedUploadService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.mode = Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+        this.gracePeriod = Duration.ofHours(graceHours);
+        this.quarantineRetention = Duration.ofDays(quarantineDays);
+    }
+
+    @Scheduled(fixedDelayString = "${app.images.gc-interval-ms:21600000}",
+            initialDelayString = "${app.images.gc-initial-delay-ms:600000}")
+    public void scheduledRun() {
+        run();
+    }
+
+    /**
+     * Runs one collection on the calling thread.
+     *
+     * @return false if a run is already in progress
+     */
+    public boolean run() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Run run = new Run(mode);
+        lastRun = run;
+        try {
+            Path uploadDir = imageStore.getUploadDir();
+            if (Files.isDirectory(uploadDir)) {
+                ReferencedNames referenced = loadReferencedNames();
+                run.referencedNames = referenced.size();
+                Files.walkFileTree(uploadDir, new Walker(run, referenced, uploadDir));
+                run.flush();
+            }
+            run.state = "finished";
+            logger.info("[IMAGE GC] {} scanned, {} orphans, {} {} ({} bytes), {} temp files, {} derivatives, {} purged from quarantine",
+                    run.filesScanned, run.orphansFound, run.filesCollected,
+                    mode == Mode.DELETE ? "deleted" : mode == Mode.QUARANTINE ? "quarantined" : "reported",
+                    run.bytesReclaimed, run.tempFilesRemoved, run.derivativesRemoved, run.quarantinePurged);
+        } catch (IOException | RuntimeException e) {
+            run.state = "failed";
+            run.error(e);
+            logger.error("[IMAGE GC] Run failed after {} files: {}", run.filesScanned, e.getMessage());
+        } finally {
+            run.finishedAt = Instant.now();
+            running.set(false);
+        }
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public ImageGcStatus status() {
+        Run run = lastRun;
+        if (run == null) {
+            return ImageGcStatus.builder().state("idle").mode(mode.name().toLowerCase(Locale.ROOT)).build();
+        }
+        return ImageGcStatus.builder()
+                .state(run.state)
+                .mode(run.mode.name().toLowerCase(Locale.ROOT))
+                .startedAt(run.startedAt)
+                .finishedAt(run.finishedAt)
+                .referencedNames(run.referencedNames)
+                .filesScanned(run.filesScanned)
+                .bytesScanned(run.bytesScanned)
+                .orphansFound(run.orphansFound)
+                .filesCollected(run.filesCollected)
+                .bytesReclaimed(run.bytesReclaimed)
+                .derivativesRemoved(run.derivativesRemoved)
+                .tempFilesRemoved(run.tempFilesRemoved)
+                .quarantinePurged(run.quarantinePurged)
+                .errors(run.errors)
+                .lastError(run.lastError)
+                .build();
+    }
+
+    // Forward-only with MIN_VALUE fetch size makes Connector/J stream rows instead of buffering
+    // the whole result
+    private ReferencedNames loadReferencedNames() {
+        ReferencedNames names = new ReferencedNames();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT images FROM unit_images UNION ALL SELECT images FROM project_images",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        }, (RowCallbackHandler) row -> names.add(row.getString(1)));
+        names.seal();
+        return names;
+    }
+
+    /**
+     * Referenced names in about 8 bytes each: content addresses are kept as the first 64 bits of
+     * their hash in a sorted array, anything else (older UUID names) as strings. A prefix
+     * collision can only make an orphan look referenced, never the reverse.
+     */
+    static final class ReferencedNames {
+
+        private long[] hashes = new long[1024];
+        private int size;
+        private final Set<String> others = new HashSet<>();
+
+        void add(String name) {
+            if (name == null) {
+                return;
+            }
+            if (!ImageStore.isContentAddressed(name)) {
+                others.add(name);
+                return;
+            }
+            if (size == hashes.length) {
+                hashes = Arrays.copyOf(hashes, size * 2);
+            }
+            hashes[size++] = prefix(name);
+        }
+
+        void seal() {
+            Arrays.sort(hashes, 0, size);
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || hashes[i] != hashes[distinct - 1]) {
+                    hashes[distinct++] = hashes[i];
+                }
+            }
+            size = distinct;
+            hashes = Arrays.copyOf(hashes, size);
+        }
+
+        boolean contains(String name) {
+            if (!ImageStore.isContentAddressed(name)) {
+                return others.contains(name);
+            }
+            return Arrays.binarySearch(hashes, 0, size, prefix(name)) >= 0;
+        }
+
+        long size() {
+            return size + others.size();
+        }
+
+        private static long prefix(String name) {
+            return Long.parseUnsignedLong(name.substring(0, 16), 16);
+        }
+    }
+
+    // Written by the collecting thread only; volatile so status() sees live progress
+    private final class Run {
+
+        final Mode mode;
+        final Instant startedAt = Instant.now();
+        final Instant graceCutoff = startedAt.minus(gracePeriod);
+        volatile Instant finishedAt;
+        volatile String state = "running";
+        volatile long referencedNames;
+        volatile long filesScanned;
+        volatile long bytesScanned;
+        volatile long orphansFound;
+        volatile long filesCollected;
+        volatile long bytesReclaimed;
+        volatile long derivativesRemoved;
+        volatile long tempFilesRemoved;
+        volatile long quarantinePurged;
+        volatile long errors;
+        volatile String lastError;
+
+        private final Map<String, Candidate> pending = new LinkedHashMap<>();
+
+        Run(Mode mode) {
+            this.mode = mode;
+        }
+
+        void error(Exception e) {
+            errors++;
+            lastError = e.getMessage();
+        }
+
+        void candidate(String filename, Path path, long size) {
+            pending.put(filename, new Candidate(path, size));
+            if (pending.size() >= VERIFY_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        // Drops candidates that gained a reference since the name set was read, then collects the rest
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Map<String, Long> counts = imageStore.referenceCounts(new ArrayList<>(pending.keySet()));
+            for (Map.Entry<String, Candidate> entry : pending.entrySet()) {
+                if (counts.containsKey(entry.getKey())) {
+                    continue;
+                }
+                // Uploads refresh the mtime before the reference is saved, so checking the mtime
+                // after the references catches a duplicate upload that raced the walk; the name
+                // lock keeps a new one from slipping in between this check and the removal.
+                Lock lock = imageStore.lockFor(entry.getKey());
+                lock.lock();
+                try {
+                    if (!stillExpired(entry.getValue().path(), graceCutoff)) {
+                        continue;
+                    }
+                    orphansFound++;
+                    if (collect(entry.getKey(), entry.getValue().path())) {
+                        filesCollected++;
+                        bytesReclaimed += entry.getValue().size();
+                    }
+                } catch (IOException e) {
+                    error(e);
+                    logger.warn("[IMAGE GC] Could not collect {}: {}", entry.getKey(), e.getMessage());
+                } finally {
+                    lock.unlock();
+                }
+            }
+            pending.clear();
+        }
+    }
+
+    private record Candidate(Path path, long size) {
+
+    }
+
+    // False if the file is gone or was touched within the grace period since the walk saw it
+    private static boolean stillExpired(Path path, Instant graceCutoff) throws IOException {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(graceCutoff);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private boolean collect(String filename, Path path) throws IOException {
+        if (mode == Mode.REPORT) {
+            return false;
+        }
+        if (mode == Mode.QUARANTINE) {
+            Path target = imageStore.getUploadDir().resolve(QUARANTINE_DIR).resolve(ImageStore.relativePath(filename));
+            Files.createDirectories(target.getParent());
+            Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
+            // Retention counts from when it was quarantined; restoring is moving it back
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+        } else {
+            Files.deleteIfExists(path);
+        }
+        imageDerivativeService.deleteDerivatives(filename);
+        return true;
+    }
+
+    private final class Walker extends SimpleFileVisitor<Path> {
+
+        private final Run run;
+        private final ReferencedNames referenced;
+        private final Path uploadDir;
+        private final Instant graceCutoff;
+        private final Instant quarantineCutoff;
+
+        Walker(Run run, ReferencedNames referenced, Path uploadDir) {
+            this.run = run;
+            this.referenced = referenced;
+            this.uploadDir = uploadDir;
+            this.graceCutoff = run.graceCutoff;
+            this.quarantineCutoff = run.startedAt.minus(quarantineRetention);
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+            if (dir.equals(uploadDir)) {
+                return FileVisitResult.CONTINUE;
+            }
+            String top = uploadDir.relativize(dir).getName(0).toString();
+            boolean known = top.equals(ImageStore.INCOMING_DIR) || top.equals(QUARANTINE_DIR)
+                    || top.equals(ImageDerivativeService.DERIVATIVES_DIR) || !top.startsWith(".");
+            return known ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+            if (!attributes.isRegularFile()) {
+                return FileVisitResult.CONTINUE;
+            }
+            Path relative = uploadDir.relativize(file);
+            String top = relative.getName(0).toString();
+            String filename = file.getFileName().toString();
+            boolean old = attributes.lastModifiedTime().toInstant().isBefore(graceCutoff);
+            run.filesScanned++;
+            run.bytesScanned += attributes.size();
+            try {
+                if (top.equals(ImageStore.INCOMING_DIR)) {
+                    String uploadId = filename.endsWith(".part") ? filename.substring(0, filename.length() - 5) : null;
+                    if (mode != Mode.REPORT && old && (uploadId == null || !chunkedUploadService.isOpen(uploadId))) {
+                        Files.deleteIfExists(file);
+                        run.tempFilesRemoved++;
+                    }
+                } else if (top.equals(QUARANTINE_DIR)) {
+                    if (mode != Mode.REPORT && attributes.lastModifiedTime().toInstant().isBefore(quarantineCutoff)) {
+                        Files.deleteIfExists(file);
+                        run.quarantinePurged++;
+                    }
+                } else if (top.equals(ImageDerivativeService.DERIVATIVES_DIR)) {
+                    Path original = imageStore.resolve(filename);
+                    if (mode != Mode.REPORT && old && (original == null || !Files.exists(original))) {
+                        Files.deleteIfExists(file);
+                        run.derivativesRemoved++;
+                    }
+                } else if (old && !referenced.contains(filename) && file.equals(imageStore.resolve(filename))) {
+                    // Only files at the path their name resolves to; anything else was not put there by us
+                    run.candidate(filename, file, attributes.size());
+                }
+            } catch (IOException e) {
+                run.error(e);
+                logger.warn("[IMAGE GC] Could not process {}: {}", relative, e.getMessage());
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) {
+            run.error(e);
+            return FileVisitResult.CONTINUE;
+        }
+    }
+}
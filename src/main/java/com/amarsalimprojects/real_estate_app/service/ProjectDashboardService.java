@@ -0,0 +1,467 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amarsalimprojects.real_estate_app.dto.responses.ProjectDashboardResponse;
+import com.amarsalimprojects.real_estate_app.dto.responses.ProjectUnitsSummary;
+import com.amarsalimprojects.real_estate_app.enums.InvoiceStatus;
+import com.amarsalimprojects.real_estate_app.enums.PaymentStatus;
+import com.amarsalimprojects.real_estate_app.enums.ProjectStatus;
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+import com.amarsalimprojects.real_estate_app.events.InvoiceChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.PaymentChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.ProjectChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.events.UnitsImportedEvent;
+import com.amarsalimprojects.real_estate_app.model.ProjectStats;
+import com.amarsalimprojects.real_estate_app.repository.ProjectStatsRepository;
+
+/**
+ * Keeps the project_stats table in step with units, invoices and payments. Every committed
+ * change is turned into per-project deltas and applied with one additive upsert, so concurrent
+ * writers never read-modify-write a row; dashboard reads are a primary-key lookup or a scan of
+ * one row per project. A full recompute from the source tables on startup and nightly repairs
+ * anything the events missed (changes made outside JPA, a crash between commit and listener).
+ * While it runs, writes from the listeners are held back and replayed once the recomputed rows
+ * are in, so they are neither wiped by its DELETE nor lost behind its snapshot.
+ */
+@Service
+public class ProjectDashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectDashboardService.class);
+
+    private static final UnitStatus[] STATUSES = UnitStatus.values();
+    private static final String STATUS_COLUMNS = Arrays.stream(STATUSES)
+            .map(ProjectDashboardService::columnOf)
+            .collect(Collectors.joining(", "));
+
+    private static final String INSERT_COLUMNS = "project_id, project_name, project_status, construction_progress, "
+            + "total_units, " + STATUS_COLUMNS + ", sold_value, invoiced_value, revenue_collected, updated_at";
+    private static final String INSERT_VALUES = "?, ".repeat(4 + 1 + STATUSES.length + 3) + "?";
+
+    private static final String INSERT_ROW = "INSERT INTO project_stats (" + INSERT_COLUMNS + ") VALUES (" + INSERT_VALUES + ")";
+
+    // Adds the counters to the row, creating it if this is the project's first change
+    private static final String UPSERT_DELTA = INSERT_ROW + " ON DUPLICATE KEY UPDATE "
+            + "total_units = total_units + VALUES(total_units), "
+            + Arrays.stream(STATUSES)
+                    .map(status -> columnOf(status) + " = " + columnOf(status) + " + VALUES(" + columnOf(status) + ")")
+                    .collect(Collectors.joining(", "))
+            + ", sold_value = COALESCE(sold_value, 0) + VALUES(sold_value)"
+            + ", invoiced_value = COALESCE(invoiced_value, 0) + VALUES(invoiced_value)"
+            + ", revenue_collected = COALESCE(revenue_collected, 0) + VALUES(revenue_collected)"
+            + ", updated_at = VALUES(updated_at)";
+
+    // Overwrites the project columns only
+    private static final String UPSERT_PROJECT = INSERT_ROW + " ON DUPLICATE KEY UPDATE "
+            + "project_name = VALUES(project_name), project_status = VALUES(project_status), "
+            + "construction_progress = VALUES(construction_progress), updated_at = VALUES(updated_at)";
+
+    private static final String SELECT_PROJECTS
+            = "SELECT id, name, status, construction_progress, admin_signed_off FROM project";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProjectStatsRepository projectStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Guarded by pendingLock; non-null while rebuild() runs
+    private final Object pendingLock = new Object();
+    private List<Runnable> pendingDuringRebuild;
+
+    public ProjectDashboardService(JdbcTemplate jdbcTemplate, ProjectStatsRepository projectStatsRepository,
+            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.projectStatsRepository = projectStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Null if the project has no stats row (i.e. does not exist)
+    public ProjectUnitsSummary getUnitsSummary(Long projectId) {
+        return projectStatsRepository.findById(projectId).map(ProjectDashboardService::toSummary).orElse(null);
+    }
+
+    public ProjectDashboardResponse getDashboard() {
+        List<ProjectStats> rows = projectStatsRepository.findAll(Sort.by("projectId"));
+
+        Map<ProjectStatus, Long> projectsByStatus = new EnumMap<>(ProjectStatus.class);
+        Map<UnitStatus, Long> unitsByStatus = new EnumMap<>(UnitStatus.class);
+        Arrays.stream(STATUSES).forEach(status -> unitsByStatus.put(status, 0L));
+        List<ProjectUnitsSummary> projects = new ArrayList<>(rows.size());
+        long totalUnits = 0;
+        double progressSum = 0;
+        BigDecimal soldValue = BigDecimal.ZERO;
+        BigDecimal invoicedValue = BigDecimal.ZERO;
+        BigDecimal revenueCollected = BigDecimal.ZERO;
+        for (ProjectStats row : rows) {
+            if (row.getProjectStatus() != null) {
+                projectsByStatus.merge(row.getProjectStatus(), 1L, Long::sum);
+            }
+            for (UnitStatus status : STATUSES) {
+                unitsByStatus.merge(status, row.getUnitCount(status), Long::sum);
+            }
+            totalUnits += row.getTotalUnits();
+            progressSum += row.getConstructionProgress();
+            soldValue = soldValue.add(orZero(row.getSoldValue()));
+            invoicedValue = invoicedValue.add(orZero(row.getInvoicedValue()));
+            revenueCollected = revenueCollected.add(orZero(row.getRevenueCollected()));
+            projects.add(toSummary(row));
+        }
+
+        return ProjectDashboardResponse.builder()
+                .totalProjects(rows.size())
+                .projectsByStatus(projectsByStatus)
+                .averageProgress(rows.isEmpty() ? 0f : (float) (progressSum / rows.size()))
+                .totalUnits(totalUnits)
+                .unitsByStatus(unitsByStatus)
+                .soldValue(soldValue)
+                .invoicedValue(invoicedValue)
+                .revenueCollected(revenueCollected)
+                .outstanding(invoicedValue.subtract(revenueCollected))
+                .projects(projects)
+                .build();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitChanged(UnitChangedEvent event) {
+        if (!event.changed(UnitSnapshot::getStatus)
+                && !event.changed(UnitSnapshot::getPrice)
+                && !event.changed(UnitSnapshot::getProjectId)) {
+            return;
+        }
+        Map<Long, Delta> deltas = new HashMap<>();
+        addUnit(deltas, event.getBefore(), -1);
+        addUnit(deltas, event.getAfter(), 1);
+        apply(deltas);
+    }
+
+    // One upsert per project for the whole import batch
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitsImported(UnitsImportedEvent event) {
+        Map<Long, Delta> deltas = new HashMap<>();
+        event.getChanges().forEach(change -> addUnit(deltas, change.getAfter(), 1));
+        apply(deltas);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInvoiceChanged(InvoiceChangedEvent event) {
+        InvoiceChangedEvent.State before = counted(event.getBefore()) ? event.getBefore() : null;
+        InvoiceChangedEvent.State after = counted(event.getAfter()) ? event.getAfter() : null;
+        if (before == null && after == null) {
+            return;
+        }
+        if (before != null && after != null && Objects.equals(before.getUnitId(), after.getUnitId())
+                && before.getTotalAmount().compareTo(after.getTotalAmount()) == 0) {
+            return;
+        }
+        Map<Long, Delta> deltas = new HashMap<>();
+        if (before != null) {
+            Long projectId = projectOfUnit(before.getUnitId());
+            if (projectId != null) {
+                Delta delta = deltas.computeIfAbsent(projectId, id -> new Delta());
+                delta.invoicedValue = delta.invoicedValue.subtract(before.getTotalAmount());
+            }
+        }
+        if (after != null) {
+            Long projectId = projectOfUnit(after.getUnitId());
+            if (projectId != null) {
+                Delta delta = deltas.computeIfAbsent(projectId, id -> new Delta());
+                delta.invoicedValue = delta.invoicedValue.add(after.getTotalAmount());
+            }
+        }
+        apply(deltas);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentChanged(PaymentChangedEvent event) {
+        PaymentChangedEvent.State before = counted(event.getBefore()) ? event.getBefore() : null;
+        PaymentChangedEvent.State after = counted(event.getAfter()) ? event.getAfter() : null;
+        if (before == null && after == null) {
+            return;
+        }
+        if (before != null && after != null && Objects.equals(before.getInvoiceId(), after.getInvoiceId())
+                && before.getAmount().compareTo(after.getAmount()) == 0) {
+            return;
+        }
+        Map<Long, Delta> deltas = new HashMap<>();
+        if (before != null) {
+            Long projectId = projectOfInvoice(before.getInvoiceId());
+            if (projectId != null) {
+                Delta delta = deltas.computeIfAbsent(projectId, id -> new Delta());
+                delta.revenueCollected = delta.revenueCollected.subtract(before.getAmount());
+            }
+        }
+        if (after != null) {
+            Long projectId = projectOfInvoice(after.getInvoiceId());
+            if (projectId != null) {
+                Delta delta = deltas.computeIfAbsent(projectId, id -> new Delta());
+                delta.revenueCollected = delta.revenueCollected.add(after.getAmount());
+            }
+        }
+        apply(deltas);
+    }
+
+    // Unit deletes cascaded from the project were published (and applied) before this one
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        write(() -> {
+            if (event.isDeleted()) {
+                jdbcTemplate.update("DELETE FROM project_stats WHERE project_id = ?", event.getProjectId());
+                return;
+            }
+            List<Object[]> rows = jdbcTemplate.query(SELECT_PROJECTS + " WHERE id = ?",
+                    (rs, rowNum) -> projectRow(rs.getLong(1), rs.getString(2), rs.getString(3),
+                            rs.getFloat(4), rs.getBoolean(5), new Delta()),
+                    event.getProjectId());
+            if (!rows.isEmpty()) {
+                jdbcTemplate.update(UPSERT_PROJECT, rows.get(0));
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Recomputes every row from units, invoices and payments in one transaction. Listener
+     * writes that arrive meanwhile are buffered and applied after it, whether it commits or
+     * fails. The one gap left is a change committed just before the snapshot whose listener
+     * has not run yet: it is counted twice until the next rebuild.
+     */
+    @Scheduled(cron = "${app.dashboard.reconcile-cron:0 30 3 * * *}")
+    public synchronized void rebuild() {
+        synchronized (pendingLock) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        try {
+            long started = System.currentTimeMillis();
+            int projects = recompute();
+            logger.info("[PROJECT DASHBOARD] Rebuilt stats for {} projects in {} ms", projects,
+                    System.currentTimeMillis() - started);
+        } finally {
+            List<Runnable> pending;
+            synchronized (pendingLock) {
+                pending = pendingDuringRebuild;
+                pendingDuringRebuild = null;
+            }
+            pending.forEach(Runnable::run);
+            if (!pending.isEmpty()) {
+                logger.info("[PROJECT DASHBOARD] Replayed {} changes made during the rebuild", pending.size());
+            }
+        }
+    }
+
+    private int recompute() {
+        return transactionTemplate.execute(status -> {
+            Map<Long, Delta> deltas = new HashMap<>();
+            jdbcTemplate.query("""
+                    SELECT project_id, status, COUNT(*),
+                           SUM(CASE WHEN status = 'SOLD' THEN price ELSE 0 END)
+                    FROM unit
+                    GROUP BY project_id, status
+                    """, rs -> {
+                Delta delta = deltas.computeIfAbsent(rs.getLong(1), id -> new Delta());
+                long count = rs.getLong(3);
+                delta.total += count;
+                String unitStatus = rs.getString(2);
+                if (unitStatus != null) {
+                    delta.byStatus[UnitStatus.valueOf(unitStatus).ordinal()] += count;
+                }
+                delta.soldValue = delta.soldValue.add(orZero(rs.getBigDecimal(4)));
+            });
+            jdbcTemplate.query("""
+                    SELECT u.project_id, SUM(i.total_amount)
+                    FROM invoice i JOIN unit u ON u.id = i.unit_id
+                    WHERE i.total_amount IS NOT NULL
+                      AND (i.status IS NULL OR i.status NOT IN ('CANCELLED', 'REFUNDED'))
+                    GROUP BY u.project_id
+                    """, rs -> {
+                deltas.computeIfAbsent(rs.getLong(1), id -> new Delta()).invoicedValue = orZero(rs.getBigDecimal(2));
+            });
+            jdbcTemplate.query("""
+                    SELECT u.project_id, SUM(p.amount)
+                    FROM payments p
+                    JOIN invoice i ON i.id = p.invoice_id
+                    JOIN unit u ON u.id = i.unit_id
+                    WHERE p.status = 'COMPLETED'
+                    GROUP BY u.project_id
+                    """, rs -> {
+                deltas.computeIfAbsent(rs.getLong(1), id -> new Delta()).revenueCollected = orZero(rs.getBigDecimal(2));
+            });
+            List<Object[]> rows = jdbcTemplate.query(SELECT_PROJECTS,
+                    (rs, rowNum) -> projectRow(rs.getLong(1), rs.getString(2), rs.getString(3),
+                            rs.getFloat(4), rs.getBoolean(5), deltas.getOrDefault(rs.getLong(1), new Delta())));
+
+            jdbcTemplate.update("DELETE FROM project_stats");
+            jdbcTemplate.batchUpdate(INSERT_ROW, rows);
+            return rows.size();
+        });
+    }
+
+    private void apply(Map<Long, Delta> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((projectId, delta) -> {
+            if (!delta.isEmpty()) {
+                rows.add(deltaRow(projectId, delta));
+            }
+        });
+        if (!rows.isEmpty()) {
+            write(() -> jdbcTemplate.batchUpdate(UPSERT_DELTA, rows));
+        }
+    }
+
+    // Runs the write now, or after the rebuild in progress has replaced the rows
+    private void write(Runnable write) {
+        synchronized (pendingLock) {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(write);
+                return;
+            }
+        }
+        write.run();
+    }
+
+    private static void addUnit(Map<Long, Delta> deltas, UnitSnapshot unit, int sign) {
+        if (unit == null || unit.getProjectId() == null) {
+            return;
+        }
+        Delta delta = deltas.computeIfAbsent(unit.getProjectId(), id -> new Delta());
+        delta.total += sign;
+        if (unit.getStatus() != null) {
+            delta.byStatus[unit.getStatus().ordinal()] += sign;
+        }
+        if (unit.getStatus() == UnitStatus.SOLD && unit.getPrice() != null) {
+            BigDecimal price = unit.getPrice();
+            delta.soldValue = sign > 0 ? delta.soldValue.add(price) : delta.soldValue.subtract(price);
+        }
+    }
+
+    private static boolean counted(InvoiceChangedEvent.State invoice) {
+        return invoice != null && invoice.getUnitId() != null && invoice.getTotalAmount() != null
+                && invoice.getStatus() != InvoiceStatus.CANCELLED && invoice.getStatus() != InvoiceStatus.REFUNDED;
+    }
+
+    private static boolean counted(PaymentChangedEvent.State payment) {
+        return payment != null && payment.getInvoiceId() != null && payment.getAmount() != null
+                && payment.getStatus() == PaymentStatus.COMPLETED;
+    }
+
+    private Long projectOfUnit(Long unitId) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT project_id FROM unit WHERE id = ?", Long.class, unitId);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    private Long projectOfInvoice(Long invoiceId) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT u.project_id FROM invoice i JOIN unit u ON u.id = i.unit_id WHERE i.id = ?", Long.class, invoiceId);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    // Parameters for INSERT_ROW / UPSERT_DELTA with no project columns
+    private static Object[] deltaRow(Long projectId, Delta delta) {
+        return row(projectId, null, null, 0f, delta);
+    }
+
+    private static Object[] projectRow(Long projectId, String name, String status, float progress,
+            boolean adminSignedOff, Delta delta) {
+        return row(projectId, name, status, adminSignedOff ? 100f : progress, delta);
+    }
+
+    private static Object[] row(Long projectId, String name, String status, float progress, Delta delta) {
+        List<Object> values = new ArrayList<>(9 + STATUSES.length);
+        values.add(projectId);
+        values.add(name);
+        values.add(status);
+        values.add(progress);
+        values.add(delta.total);
+        for (long count : delta.byStatus) {
+            values.add(count);
+        }
+        values.add(delta.soldValue);
+        values.add(delta.invoicedValue);
+        values.add(delta.revenueCollected);
+        values.add(Timestamp.valueOf(LocalDateTime.now()));
+        return values.toArray();
+    }
+
+    private static ProjectUnitsSummary toSummary(ProjectStats row) {
+        Map<UnitStatus, Long> unitsByStatus = new LinkedHashMap<>();
+        for (UnitStatus status : STATUSES) {
+            unitsByStatus.put(status, row.getUnitCount(status));
+        }
+        BigDecimal invoiced = orZero(row.getInvoicedValue());
+        BigDecimal collected = orZero(row.getRevenueCollected());
+        return ProjectUnitsSummary.builder()
+                .projectId(row.getProjectId())
+                .projectName(row.getProjectName())
+                .projectStatus(row.getProjectStatus())
+                .constructionProgress(row.getConstructionProgress())
+                .totalUnits(row.getTotalUnits())
+                .unitsByStatus(unitsByStatus)
+                .soldValue(orZero(row.getSoldValue()))
+                .invoicedValue(invoiced)
+                .revenueCollected(collected)
+                .outstanding(invoiced.subtract(collected))
+                .updatedAt(row.getUpdatedAt())
+                .build();
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    // Must name the ProjectStats column for every status; the switch fails to compile otherwise
+    private static String columnOf(UnitStatus status) {
+        return switch (status) {
+            case AVAILABLE -> "available_units";
+            case RESERVED -> "reserved_units";
+            case SOLD -> "sold_units";
+            case UNDER_CONSTRUCTION -> "under_construction_units";
+            case UNDER_REPAIR -> "under_repair_units";
+            case UNDER_RENOVATION -> "under_renovation_units";
+            case UNAVAILABLE -> "unavailable_units";
+            case READY_FOR_HANDOVER -> "ready_for_handover_units";
+            case HANDED_OVER -> "handed_over_units";
+            case ON_HOLD -> "on_hold_units";
+        };
+    }
+
+    private static final class Delta {
+
+        long total;
+        final long[] byStatus = new long[STATUSES.length];
+        BigDecimal soldValue = BigDecimal.ZERO;
+        BigDecimal invoicedValue = BigDecimal.ZERO;
+        BigDecimal revenueCollected = BigDecimal.ZERO;
+
+        boolean isEmpty() {
+            return total == 0 && Arrays.stream(byStatus).allMatch(count -> count == 0)
+                    && soldValue.signum() == 0 && invoicedValue.signum() == 0 && revenueCollected.signum() == 0;
+        }
+    }
+}
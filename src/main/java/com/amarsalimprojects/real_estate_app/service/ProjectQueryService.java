@@ -0,0 +1,140 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.amarsalimprojects.real_estate_app.config.CacheConfig;
+import com.amarsalimprojects.real_estate_app.dto.responses.KeysetPage;
+import com.amarsalimprojects.real_estate_app.dto.responses.ProjectResponse;
+import com.amarsalimprojects.real_estate_app.model.Project;
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+import com.amarsalimprojects.real_estate_app.repository.ProjectSpecifications;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+import com.amarsalimprojects.real_estate_app.util.CursorCodec;
+
+@Service
+public class ProjectQueryService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Sortable columns, each backed by an index on Project. constructionProgress is left out:
+    // it is a FLOAT column, and equality on it is not reliable enough to resume a scan.
+    private enum SortKey {
+        ID("id", Project::getId, Long::valueOf),
+        NAME("name", Project::getName, value -> value),
+        CREATED_AT("createdAt", Project::getCreatedAt, LocalDateTime::parse),
+        UPDATED_AT("updatedAt", Project::getUpdatedAt, LocalDateTime::parse),
+        MIN_PRICE("minPrice", Project::getMinPrice, BigDecimal::new),
+        TARGET_COMPLETION_DATE("targetCompletionDate", Project::getTargetCompletionDate, LocalDateTime::parse);
+
+        private final String attribute;
+        private final Function<Project, Comparable<?>> getter;
+        private final Function<String, Comparable<?>> parser;
+
+        SortKey(String attribute, Function<Project, Comparable<?>> getter, Function<String, Comparable<?>> parser) {
+            this.attribute = attribute;
+            this.getter = getter;
+            this.parser = parser;
+        }
+
+        static SortKey of(String attribute) {
+            return Arrays.stream(values())
+                    .filter(key -> key.attribute.equals(attribute))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Cannot sort projects by " + attribute));
+        }
+    }
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private UnitService unitService;
+
+    /**
+     * Project detail for GET /api/projects/{id}. The response is built inside the transaction
+     * and holds no entities, so the cached instance never touches a closed persistence context
+     * and is safe to hand to concurrent requests. Units are mapped like the unit endpoints,
+     * with their features and images loaded in one statement each.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PROJECTS, unless = "#result == null")
+    public Optional<ProjectResponse> findProject(Long projectId) {
+        return projectRepository.findById(projectId)
+                .map(project -> ProjectResponse.of(project,
+                        unitService.toResponses(unitRepository.findListRowsByProjectId(projectId))));
+    }
+
+    /**
+     * One page of projects in (sortBy, id) order, resuming after the position encoded in the
+     * cursor. The cursor also records the sort, so it cannot be replayed against another one.
+     * The total is only counted when asked for.
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public KeysetPage<Project> findPage(String sortBy, String sortDir, String after, int limit, boolean includeTotal) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        SortKey key = SortKey.of(sortBy);
+        boolean descending = sortDir.equalsIgnoreCase("desc");
+        if (!descending && !sortDir.equalsIgnoreCase("asc")) {
+            throw new IllegalArgumentException("Sort direction must be asc or desc");
+        }
+        String direction = descending ? "desc" : "asc";
+
+        Comparable value = null;
+        Long afterId = null;
+        if (after != null) {
+            String[] parts = CursorCodec.decode(after, 5);
+            if (!parts[0].equals(key.attribute) || !parts[1].equals(direction)) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            try {
+                value = parts[2].equals("1") ? key.parser.apply(parts[3]) : null;
+                afterId = Long.valueOf(parts[4]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Malformed cursor", e);
+            }
+        }
+
+        Sort.Direction order = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = key == SortKey.ID
+                ? Sort.by(order, "id")
+                : Sort.by(order, key.attribute).and(Sort.by(order, "id"));
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<Project> projects = projectRepository.findBy(
+                ProjectSpecifications.after(key.attribute, descending, value, afterId),
+                query -> query.sortBy(sort).limit(limit + 1).all());
+
+        boolean hasMore = projects.size() > limit;
+        List<Project> items = hasMore ? projects.subList(0, limit) : projects;
+        String nextCursor = null;
+        if (hasMore) {
+            Project last = items.get(items.size() - 1);
+            Comparable<?> lastValue = key.getter.apply(last);
+            nextCursor = CursorCodec.encode(key.attribute, direction, lastValue != null ? "1" : "0",
+                    lastValue != null ? lastValue.toString() : "", String.valueOf(last.getId()));
+        }
+
+        return KeysetPage.<Project>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(nextCursor)
+                .total(includeTotal ? projectRepository.count() : null)
+                .build();
+    }
+}
@@ -5,9 +5,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.amarsalimprojects.real_estate_app.dto.requests.PurchaseUnitRequest;
 import com.amarsalimprojects.real_estate_app.dto.responses.PurchaseUnitResponse;
@@ -37,6 +41,8 @@ import lombok.RequiredArgsConstructor;
 @Transactional
 public class PurchaseService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PurchaseService.class);
+
     @Autowired
     private MpesaPaymentRepository mpesaPaymentRepository;
 
@@ -47,20 +53,50 @@ public class PurchaseService {
     private final PaymentRepository paymentRepository;
     private final PaymentDetailRepository paymentDetailRepository;
     private final MpesaStkService mpesaStkService;
+    private final ReservationEngine reservationEngine;
+    private final TransactionTemplate transactionTemplate;
 
+    // Not transactional itself: the unit is claimed first in its own short transaction, so
+    // concurrent buyers are decided by one conditional UPDATE and no row lock is held across
+    // the STK push. Only the winner goes on to create the invoice and payment.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PurchaseUnitResponse handlePurchase(Long unitId, PurchaseUnitRequest dto) {
-        // Validate buyer
+        if (dto.getBuyerId() == null || !buyerProfileRepository.existsById(dto.getBuyerId())) {
+            throw new EntityNotFoundException("Buyer not found");
+        }
+
+        switch (reservationEngine.tryReserve(unitId, dto.getBuyerId())) {
+            case RESERVED -> {
+            }
+            case NOT_FOUND ->
+                throw new EntityNotFoundException("Unit not found");
+            case BUSY ->
+                throw new IllegalStateException("Unit is being purchased by another buyer, please retry");
+            default ->
+                throw new IllegalStateException("Unit is not available for purchase");
+        }
+
+        PurchaseUnitResponse response;
+        try {
+            response = transactionTemplate.execute(status -> createPurchase(unitId, dto));
+        } catch (RuntimeException e) {
+            reservationEngine.release(unitId, dto.getBuyerId());
+            throw e;
+        }
+        if (response != null && PaymentStatus.FAILED.toString().equals(response.getPaymentStatus())) {
+            // The payment prompt never reached the buyer; let the next one have the unit
+            reservationEngine.release(unitId, dto.getBuyerId());
+        }
+        return response;
+    }
+
+    private PurchaseUnitResponse createPurchase(Long unitId, PurchaseUnitRequest dto) {
         BuyerProfile buyer = buyerProfileRepository.findById(dto.getBuyerId())
                 .orElseThrow(() -> new EntityNotFoundException("Buyer not found"));
 
-        // Validate unit
         Unit unit = unitRepository.findById(unitId)
                 .orElseThrow(() -> new EntityNotFoundException("Unit not found"));
 
-        if (unit.getStatus() != UnitStatus.AVAILABLE) {
-            throw new IllegalStateException("Unit is not available for purchase");
-        }
-
         // Validate payment plan if provided
         PaymentPlan plan = null;
         if (dto.getPaymentPlanId() != null) {
@@ -145,10 +181,6 @@ public class PurchaseService {
                 throw new IllegalArgumentException("Unsupported payment method: " + dto.getPaymentMethod());
         }
 
-        // // Mark unit as RESERVED
-        // unit.setStatus(UnitStatus.RESERVED);
-        // unit.setBuyer(buyer); // Associate buyer with unit
-        // unitRepository.save(unit);
         return PurchaseUnitResponse.builder()
                 .invoiceId(invoice.getId())
                 .unitId(unit.getId())
@@ -193,13 +225,6 @@ public class PurchaseService {
                 throw new EntityNotFoundException("Buyer profile not found for invoice");
             }
 
-            // 🔹 Step 1: Always reserve the unit if it's not yet reserved/sold
-            if (unit.getStatus() == UnitStatus.AVAILABLE) {
-                unit.setStatus(UnitStatus.RESERVED);
-                unit.setBuyer(buyerProfile);
-                unitRepository.save(unit);
-            }
-
             // 🔹 Step 2: Check if full payment is now completed
             BigDecimal totalPaid = invoice.getTotalMpesaPayments();
             BigDecimal totalRequired = invoice.getTotalAmount();
@@ -209,22 +234,17 @@ public class PurchaseService {
                 invoice.setStatus(InvoiceStatus.PAID);
                 invoiceRepository.save(invoice);
 
-                // Mark unit as SOLD if not already
+                // Mark unit as SOLD unless it already is, or another buyer holds it
                 if (unit.getStatus() != UnitStatus.SOLD) {
-                    unit.setStatus(UnitStatus.SOLD);
-                    unitRepository.save(unit);
+                    sellOrFlagConflict(unit, buyerProfile);
                 }
             } else {
                 // Handle partial payment - mark invoice as PARTIALLY_PAID
                 invoice.setStatus(InvoiceStatus.PARTIALLY_PAID);
                 invoiceRepository.save(invoice);
 
-                // Keep unit as RESERVED for partial payments
-                if (unit.getStatus() == UnitStatus.AVAILABLE) {
-                    unit.setStatus(UnitStatus.RESERVED);
-                    unit.setBuyer(buyerProfile);
-                    unitRepository.save(unit);
-                }
+                // Keep unit RESERVED for this buyer, without expiry, once money is in
+                holdOrFlagConflict(unit, buyerProfile);
             }
 
             // 7. Create Payment record for tracking
@@ -264,10 +284,8 @@ public class PurchaseService {
             BuyerProfile buyerProfile = invoice.getBuyer();
 
             // Reserve unit for partial payment
-            if (unit != null && unit.getStatus() == UnitStatus.AVAILABLE) {
-                unit.setStatus(UnitStatus.RESERVED);
-                unit.setBuyer(buyerProfile);
-                unitRepository.save(unit);
+            if (unit != null) {
+                holdOrFlagConflict(unit, buyerProfile);
             }
 
             // Mark invoice as partially paid
@@ -306,20 +324,36 @@ public class PurchaseService {
             invoiceRepository.save(invoice);
 
             if (unit != null && unit.getStatus() != UnitStatus.SOLD) {
-                unit.setStatus(UnitStatus.SOLD);
-                unitRepository.save(unit);
+                sellOrFlagConflict(unit, invoice.getBuyer());
             }
         } else if (totalPaid.compareTo(BigDecimal.ZERO) > 0) {
             // Partial payment
             invoice.setStatus(InvoiceStatus.PARTIALLY_PAID);
             invoiceRepository.save(invoice);
 
-            if (unit != null && unit.getStatus() == UnitStatus.AVAILABLE) {
-                unit.setStatus(UnitStatus.RESERVED);
-                unit.setBuyer(invoice.getBuyer());
-                unitRepository.save(unit);
+            if (unit != null) {
+                holdOrFlagConflict(unit, invoice.getBuyer());
             }
         }
     }
 
+    // Payment arrived for a unit another buyer now holds (e.g. after this buyer's hold
+    // expired). The payment is still recorded; the unit is left alone for manual follow-up.
+    private void sellOrFlagConflict(Unit unit, BuyerProfile buyer) {
+        if (!reservationEngine.sellToBuyer(unit.getId(), buyer.getId())) {
+            logger.error("Unit {} could not be sold to buyer {}: held or sold by another buyer",
+                    unit.getId(), buyer.getId());
+        }
+    }
+
+    private void holdOrFlagConflict(Unit unit, BuyerProfile buyer) {
+        if (unit.getStatus() == UnitStatus.SOLD) {
+            return;
+        }
+        if (!reservationEngine.holdForBuyer(unit.getId(), buyer.getId())) {
+            logger.error("Unit {} could not be held for buyer {}: held or sold by another buyer",
+                    unit.getId(), buyer.getId());
+        }
+    }
+
 }
@@ -0,0 +1,172 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amarsalimprojects.real_estate_app.components.UnitInventoryIndex;
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+import com.amarsalimprojects.real_estate_app.events.UnitChangePublisher;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.repository.BuyerProfileRepository;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+/**
+ * Unit status transitions that must not race. Correctness comes from conditional UPDATEs
+ * (the precondition is in the WHERE clause, so exactly one concurrent caller wins); the
+ * per-unit striped locks only keep same-unit contenders queued in memory instead of on the
+ * InnoDB row lock, and the inventory index lets attempts on units already taken fail
+ * without touching the database.
+ */
+@Service
+public class ReservationEngine {
+
+    public enum Outcome {
+        RESERVED, UNAVAILABLE, NOT_FOUND, BUSY
+    }
+
+    private static final int STRIPES = 256;
+
+    private final UnitRepository unitRepository;
+    private final BuyerProfileRepository buyerProfileRepository;
+    private final UnitInventoryIndex inventoryIndex;
+    private final UnitChangePublisher unitChanges;
+    private final TransactionTemplate requiresNew;
+    private final Duration holdDuration;
+    private final long lockWaitMs;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public ReservationEngine(UnitRepository unitRepository,
+            BuyerProfileRepository buyerProfileRepository,
+            UnitInventoryIndex inventoryIndex,
+            UnitChangePublisher unitChanges,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.reservation.hold-minutes:30}") long holdMinutes,
+            @Value("${app.reservation.lock-wait-ms:2000}") long lockWaitMs) {
+        this.unitRepository = unitRepository;
+        this.buyerProfileRepository = buyerProfileRepository;
+        this.inventoryIndex = inventoryIndex;
+        this.unitChanges = unitChanges;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.holdDuration = Duration.ofMinutes(holdMinutes);
+        this.lockWaitMs = lockWaitMs;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Claims an AVAILABLE unit for the buyer for the configured hold period. Commits in its
+     * own short transaction, so call it before any slow work rather than inside it.
+     */
+    public Outcome tryReserve(Long unitId, Long buyerId) {
+        if (isKnownTaken(unitId)) {
+            return Outcome.UNAVAILABLE;
+        }
+
+        ReentrantLock lock = stripeFor(unitId);
+        try {
+            if (!lock.tryLock(lockWaitMs, TimeUnit.MILLISECONDS)) {
+                return Outcome.BUSY;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Outcome.BUSY;
+        }
+        try {
+            // The previous holder's commit (and the index update that follows it) happened
+            // before it released the stripe, so this usually settles queued losers
+            if (isKnownTaken(unitId)) {
+                return Outcome.UNAVAILABLE;
+            }
+            return requiresNew.execute(status -> reserve(unitId, buyerId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a hold taken by tryReserve, e.g. when the payment request never reached the
+     * buyer. No-op if the unit has since moved on.
+     */
+    public boolean release(Long unitId, Long buyerId) {
+        Boolean released = requiresNew.execute(status -> {
+            if (unitRepository.releaseIfReservedBy(unitId, buyerId, LocalDateTime.now()) == 0) {
+                return false;
+            }
+            unitChanges.publishUpdated(List.of(unitId), after -> after.toBuilder().status(UnitStatus.RESERVED).build());
+            return true;
+        });
+        return Boolean.TRUE.equals(released);
+    }
+
+    /**
+     * Deposit received: RESERVED for this buyer with no expiry. Joins the caller's
+     * transaction. False if another buyer holds or bought the unit.
+     */
+    @Transactional
+    public boolean holdForBuyer(Long unitId, Long buyerId) {
+        UnitSnapshot before = snapshot(unitId);
+        if (before == null || unitRepository.holdIfAvailableOrHeldBy(unitId,
+                buyerProfileRepository.getReferenceById(buyerId), buyerId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        unitChanges.publishUpdated(List.of(unitId), after -> before);
+        return true;
+    }
+
+    /**
+     * Full payment received: SOLD to this buyer. Joins the caller's transaction. False if
+     * another buyer holds or bought the unit.
+     */
+    @Transactional
+    public boolean sellToBuyer(Long unitId, Long buyerId) {
+        UnitSnapshot before = snapshot(unitId);
+        if (before == null || unitRepository.sellIfAvailableOrHeldBy(unitId,
+                buyerProfileRepository.getReferenceById(buyerId), buyerId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        unitChanges.publishUpdated(List.of(unitId), after -> before);
+        return true;
+    }
+
+    private Outcome reserve(Long unitId, Long buyerId) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = unitRepository.reserveIfAvailable(unitId, buyerProfileRepository.getReferenceById(buyerId),
+                buyerId, now, now.plus(holdDuration));
+        if (updated == 0) {
+            return unitRepository.existsById(unitId) ? Outcome.UNAVAILABLE : Outcome.NOT_FOUND;
+        }
+        unitChanges.publishUpdated(List.of(unitId), after -> after.toBuilder()
+                .status(UnitStatus.AVAILABLE)
+                .reservedUntil(null)
+                .build());
+        return Outcome.RESERVED;
+    }
+
+    private boolean isKnownTaken(Long unitId) {
+        UnitStatus status = inventoryIndex.statusOf(unitId);
+        return status != null && status != UnitStatus.AVAILABLE;
+    }
+
+    private UnitSnapshot snapshot(Long unitId) {
+        List<UnitSnapshot> snapshots = unitRepository.findSnapshotsByIdIn(List.of(unitId));
+        return snapshots.isEmpty() ? null : snapshots.get(0);
+    }
+
+    private ReentrantLock stripeFor(Long unitId) {
+        int hash = Long.hashCode(unitId);
+        hash ^= (hash >>> 16);
+        return stripes[hash & (STRIPES - 1)];
+    }
+}
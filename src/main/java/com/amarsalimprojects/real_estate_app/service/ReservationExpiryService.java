@@ -1,35 +1,182 @@
 package com.amarsalimprojects.real_estate_app.service;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
-import com.amarsalimprojects.real_estate_app.model.Unit;
+import com.amarsalimprojects.real_estate_app.events.UnitChangePublisher;
+import com.amarsalimprojects.real_estate_app.events.UnitChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
 import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 
+/**
+ * Releases expired reservations at their deadline. Each hold's reservedUntil is queued in a
+ * DelayQueue when the reservation commits; a single worker wakes when the earliest one is
+ * due and releases everything due with one bulk UPDATE. The table is only read at startup
+ * and by a low-frequency reconciliation sweep that catches holds this instance never saw
+ * (written by another node before a failover, or by manual SQL).
+ */
 @Service
-@RequiredArgsConstructor
 public class ReservationExpiryService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ReservationExpiryService.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final long RETRY_DELAY_MS = 5000;
+
     private final UnitRepository unitRepository;
+    private final UnitChangePublisher unitChanges;
+    private final TransactionTemplate transactionTemplate;
+
+    private final DelayQueue<Expiry> queue = new DelayQueue<>();
+    // Latest deadline queued per unit; queue entries that no longer match are stale and skipped
+    private final Map<Long, LocalDateTime> deadlines = new ConcurrentHashMap<>();
+    private volatile Thread worker;
+
+    public ReservationExpiryService(UnitRepository unitRepository,
+            UnitChangePublisher unitChanges,
+            PlatformTransactionManager transactionManager) {
+        this.unitRepository = unitRepository;
+        this.unitChanges = unitChanges;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private record Expiry(Long unitId, LocalDateTime reservedUntil, long dueAtMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMillis, ((Expiry) other).dueAtMillis);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reconcile();
+        worker = Thread.ofVirtual().name("reservation-expiry").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread current = worker;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
 
-    @Scheduled(fixedRate = 60000) // Runs every minute
-    public void releaseExpiredReservations() {
-        LocalDateTime now = LocalDateTime.now();
-        List<Unit> expiredUnits = unitRepository.findByStatusAndReservedUntilBefore(UnitStatus.RESERVED, now);
+    // Safety net after failover: picks up holds written while this instance was not listening
+    @Scheduled(fixedDelayString = "${app.reservation.sweep-interval-ms:900000}",
+            initialDelayString = "${app.reservation.sweep-interval-ms:900000}")
+    public void reconcile() {
+        List<UnitRepository.ReservationDeadline> holds = unitRepository.findReservationDeadlines();
+        int added = 0;
+        for (UnitRepository.ReservationDeadline hold : holds) {
+            if (schedule(hold.getId(), hold.getReservedUntil())) {
+                added++;
+            }
+        }
+        logger.info("[RESERVATION EXPIRY] Reconciled {} active holds, {} newly scheduled", holds.size(), added);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitChanged(UnitChangedEvent event) {
+        UnitSnapshot after = event.getAfter();
+        if (after != null && after.getStatus() == UnitStatus.RESERVED && after.getReservedUntil() != null) {
+            schedule(after.getId(), after.getReservedUntil());
+        } else {
+            deadlines.remove(event.getUnitId());
+        }
+    }
+
+    public int getScheduledCount() {
+        return deadlines.size();
+    }
+
+    private boolean schedule(Long unitId, LocalDateTime reservedUntil) {
+        if (reservedUntil.equals(deadlines.put(unitId, reservedUntil))) {
+            return false;
+        }
+        queue.offer(new Expiry(unitId, reservedUntil, toEpochMillis(reservedUntil)));
+        return true;
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Expiry> due = new ArrayList<>();
+            try {
+                due.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(due, BATCH_SIZE - 1);
+
+            Map<Long, LocalDateTime> batch = new HashMap<>();
+            for (Expiry expiry : due) {
+                if (deadlines.remove(expiry.unitId(), expiry.reservedUntil())) {
+                    batch.put(expiry.unitId(), expiry.reservedUntil());
+                }
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
 
-        for (Unit unit : expiredUnits) {
-            unit.setStatus(UnitStatus.AVAILABLE);
-            unit.setReservedBy(null);
-            unit.setReservedDate(null);
-            unit.setReservedUntil(null);
+            try {
+                int released = release(batch);
+                logger.info("[RESERVATION EXPIRY] Released {} of {} due reservations", released, batch.size());
+            } catch (RuntimeException e) {
+                logger.error("[RESERVATION EXPIRY] Release of {} reservations failed, retrying", batch.size(), e);
+                long retryAt = System.currentTimeMillis() + RETRY_DELAY_MS;
+                batch.forEach((unitId, reservedUntil) -> {
+                    if (deadlines.putIfAbsent(unitId, reservedUntil) == null) {
+                        queue.offer(new Expiry(unitId, reservedUntil, retryAt));
+                    }
+                });
+            }
         }
+    }
+
+    private int release(Map<Long, LocalDateTime> batch) {
+        Integer released = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> expired = unitRepository.findExpiredReservationIdsIn(batch.keySet(), now);
+            if (expired.isEmpty() || unitRepository.releaseExpiredIn(expired, now) == 0) {
+                return 0;
+            }
+
+            return unitChanges.publishUpdated(expired, after -> after.getStatus() != UnitStatus.AVAILABLE ? null
+                    : after.toBuilder()
+                            .status(UnitStatus.RESERVED)
+                            .reservedUntil(batch.get(after.getId()))
+                            .build());
+        });
+        return released != null ? released : 0;
+    }
 
-        unitRepository.saveAll(expiredUnits);
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 }
@@ -0,0 +1,416 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amarsalimprojects.real_estate_app.dto.requests.UnitRequest;
+import com.amarsalimprojects.real_estate_app.dto.responses.UnitImportProgress;
+import com.amarsalimprojects.real_estate_app.events.UnitChangePublisher;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.mapper.UnitMapper;
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+import com.amarsalimprojects.real_estate_app.util.CsvReader;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Bulk unit import for project launches. Rows are parsed from the request body one batch at
+ * a time, validated in memory, checked against the database with one set-based query per
+ * batch (duplicate unit numbers, unknown projects) and written with JDBC batch inserts. Each
+ * batch commits on its own, so a failing batch does not undo the ones before it, and
+ * publishes one UnitsImportedEvent; progress and per-row errors are written as NDJSON.
+ */
+@Service
+public class UnitImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnitImportService.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final String LIST_SEPARATOR = "\\|";
+
+    private static final String INSERT_UNIT = "INSERT INTO unit (project_id, unit_number, floor, bedrooms, bathrooms, "
+            + "sqft, description, status, unit_type, price, current_stage, is_featured, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_FEATURE = "INSERT INTO unit_features (unit_id, features) VALUES (?, ?)";
+    private static final String INSERT_IMAGE = "INSERT INTO unit_images (unit_id, images) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UnitRepository unitRepository;
+    private final ProjectRepository projectRepository;
+    private final UnitMapper unitMapper;
+    private final ObjectMapper objectMapper;
+    private final UnitChangePublisher unitChanges;
+    private final TransactionTemplate transactionTemplate;
+
+    public UnitImportService(JdbcTemplate jdbcTemplate,
+            UnitRepository unitRepository,
+            ProjectRepository projectRepository,
+            UnitMapper unitMapper,
+            ObjectMapper objectMapper,
+            UnitChangePublisher unitChanges,
+            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.unitRepository = unitRepository;
+        this.projectRepository = projectRepository;
+        this.unitMapper = unitMapper;
+        this.objectMapper = objectMapper;
+        this.unitChanges = unitChanges;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * A parsed input row; error is set when the row could not be read into a UnitRequest.
+     */
+    public record ImportRow(int row, UnitRequest request, String error) {
+
+    }
+
+    private record BatchResult(int inserted, List<UnitImportProgress> errors) {
+
+    }
+
+    /**
+     * Rows read lazily from the request body, so an import holds one batch at a time however
+     * large the file is. A body that turns out to be malformed part way through throws
+     * IOException from hasNext.
+     */
+    public abstract static class RowReader {
+
+        private ImportRow next;
+        private boolean exhausted;
+        private int rows;
+
+        // Null at the end of the input
+        protected abstract ImportRow read(int row) throws IOException;
+
+        public boolean hasNext() throws IOException {
+            if (next == null && !exhausted) {
+                next = read(rows + 1);
+                exhausted = next == null;
+            }
+            return next != null;
+        }
+
+        public ImportRow next() throws IOException {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ImportRow row = next;
+            next = null;
+            rows++;
+            return row;
+        }
+    }
+
+    public RowReader openJson(InputStream in) throws IOException {
+        JsonParser parser = objectMapper.createParser(in);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("Expected a JSON array of units");
+        }
+        return new RowReader() {
+            @Override
+            protected ImportRow read(int row) throws IOException {
+                JsonToken token = parser.nextToken();
+                if (token == null || token == JsonToken.END_ARRAY) {
+                    return null;
+                }
+                return convert(row, objectMapper.readTree(parser));
+            }
+        };
+    }
+
+    // The header row names the UnitRequest properties; features and images are '|' separated
+    public RowReader openCsv(InputStream in) throws IOException {
+        CsvReader csv = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> headerRecord = csv.readRecord();
+        if (headerRecord == null) {
+            throw new IllegalArgumentException("CSV has no header row");
+        }
+        List<String> header = headerRecord.stream().map(String::trim).toList();
+
+        return new RowReader() {
+            @Override
+            protected ImportRow read(int row) throws IOException {
+                List<String> record = csv.readRecord();
+                return record != null ? convert(row, toNode(header, record)) : null;
+            }
+        };
+    }
+
+    private ObjectNode toNode(List<String> header, List<String> record) {
+        ObjectNode node = objectMapper.createObjectNode();
+        for (int col = 0; col < Math.min(header.size(), record.size()); col++) {
+            String name = header.get(col);
+            String value = record.get(col).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            if ("features".equals(name) || "images".equals(name)) {
+                ArrayNode items = node.putArray(name);
+                for (String item : value.split(LIST_SEPARATOR)) {
+                    if (!item.isBlank()) {
+                        items.add(item.trim());
+                    }
+                }
+            } else {
+                node.put(name, value);
+            }
+        }
+        return node;
+    }
+
+    public void importUnits(RowReader rows, Long defaultProjectId, OutputStream out) throws IOException {
+        Set<String> seenUnitNumbers = new HashSet<>();
+        int processed = 0;
+        int inserted = 0;
+        int failed = 0;
+
+        boolean more = true;
+        while (more) {
+            List<ImportRow> chunk = new ArrayList<>(BATCH_SIZE);
+            List<UnitImportProgress> errors = new ArrayList<>();
+            try {
+                while (chunk.size() < BATCH_SIZE && rows.hasNext()) {
+                    chunk.add(rows.next());
+                }
+                more = chunk.size() == BATCH_SIZE;
+            } catch (IOException e) {
+                // Rows before the bad input are still imported; nothing after it can be read
+                more = false;
+                errors.add(UnitImportProgress.builder()
+                        .type("error")
+                        .row(processed + chunk.size() + 1)
+                        .message("Unreadable input: " + e.getMessage())
+                        .build());
+            }
+
+            List<ImportRow> valid = new ArrayList<>();
+            for (ImportRow row : chunk) {
+                String error = row.error() != null ? row.error() : validate(row.request(), defaultProjectId, seenUnitNumbers);
+                if (error != null) {
+                    errors.add(error(row, error));
+                } else {
+                    valid.add(row);
+                }
+            }
+
+            if (!valid.isEmpty()) {
+                try {
+                    BatchResult result = transactionTemplate.execute(status -> insertBatch(valid));
+                    inserted += result.inserted();
+                    errors.addAll(result.errors());
+                } catch (RuntimeException e) {
+                    logger.error("[UNIT IMPORT] Batch starting at row {} failed", valid.get(0).row(), e);
+                    String message = "Batch insert failed: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                    valid.forEach(row -> errors.add(error(row, message)));
+                }
+            }
+            if (chunk.isEmpty() && errors.isEmpty()) {
+                continue;
+            }
+
+            processed += chunk.size();
+            failed += errors.size();
+            errors.sort(Comparator.comparing(UnitImportProgress::getRow));
+            for (UnitImportProgress error : errors) {
+                writeLine(out, error);
+            }
+            writeLine(out, UnitImportProgress.builder()
+                    .type("progress")
+                    .processed(processed)
+                    .inserted(inserted)
+                    .failed(failed)
+                    .build());
+            out.flush();
+        }
+
+        writeLine(out, UnitImportProgress.builder()
+                .type("summary")
+                .processed(processed)
+                .total(processed)
+                .inserted(inserted)
+                .failed(failed)
+                .build());
+        out.flush();
+        logger.info("[UNIT IMPORT] Imported {} of {} units, {} rejected", inserted, processed, failed);
+    }
+
+    private ImportRow convert(int row, JsonNode node) {
+        try {
+            return new ImportRow(row, objectMapper.treeToValue(node, UnitRequest.class), null);
+        } catch (JsonProcessingException e) {
+            return new ImportRow(row, null, "Unreadable row: " + e.getOriginalMessage());
+        }
+    }
+
+    private String validate(UnitRequest request, Long defaultProjectId, Set<String> seenUnitNumbers) {
+        if (request == null) {
+            return "Row is empty";
+        }
+        if (request.getProjectId() == null) {
+            request.setProjectId(defaultProjectId);
+        }
+        if (request.getProjectId() == null) {
+            return "Project ID is required";
+        }
+        if (request.getUnitNumber() == null || request.getUnitNumber().isBlank()) {
+            return "Unit number is required";
+        }
+        request.setUnitNumber(request.getUnitNumber().trim());
+        try {
+            unitMapper.validateUnitRequest(request);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        if (!seenUnitNumbers.add(request.getUnitNumber())) {
+            return "Duplicate unit number in import";
+        }
+        unitMapper.applyCreateDefaults(request);
+        return null;
+    }
+
+    private BatchResult insertBatch(List<ImportRow> rows) {
+        Set<String> existingUnitNumbers = new HashSet<>(unitRepository.findExistingUnitNumbers(
+                rows.stream().map(row -> row.request().getUnitNumber()).toList()));
+        Set<Long> existingProjects = new HashSet<>(projectRepository.findExistingIds(
+                rows.stream().map(row -> row.request().getProjectId()).distinct().toList()));
+
+        List<UnitImportProgress> errors = new ArrayList<>();
+        List<UnitRequest> insertable = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            if (existingUnitNumbers.contains(row.request().getUnitNumber())) {
+                errors.add(error(row, "Unit number already exists"));
+            } else if (!existingProjects.contains(row.request().getProjectId())) {
+                errors.add(error(row, "Project not found"));
+            } else {
+                insertable.add(row.request());
+            }
+        }
+        if (insertable.isEmpty()) {
+            return new BatchResult(0, errors);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_UNIT, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                UnitRequest unit = insertable.get(i);
+                ps.setLong(1, unit.getProjectId());
+                ps.setString(2, unit.getUnitNumber());
+                ps.setObject(3, unit.getFloor());
+                ps.setObject(4, unit.getBedrooms());
+                ps.setObject(5, unit.getBathrooms());
+                ps.setObject(6, unit.getSqft());
+                ps.setString(7, unit.getDescription());
+                ps.setString(8, unit.getStatus().name());
+                ps.setString(9, unit.getUnitType().name());
+                ps.setBigDecimal(10, unit.getPrice());
+                ps.setString(11, unit.getConstructionStage().name());
+                ps.setBoolean(12, unit.isFeatured());
+                ps.setTimestamp(13, now);
+                ps.setTimestamp(14, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return insertable.size();
+            }
+        }, keys);
+
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        if (keyList.size() != insertable.size()) {
+            throw new IllegalStateException("Expected " + insertable.size() + " generated ids, got " + keyList.size());
+        }
+
+        List<Object[]> features = new ArrayList<>();
+        List<Object[]> images = new ArrayList<>();
+        List<UnitSnapshot> created = new ArrayList<>(insertable.size());
+        for (int i = 0; i < insertable.size(); i++) {
+            UnitRequest unit = insertable.get(i);
+            Long id = ((Number) keyList.get(i).values().iterator().next()).longValue();
+            if (unit.getFeatures() != null) {
+                // features is a Set on the entity, so its collection table has a (unit_id, features) key
+                new LinkedHashSet<>(unit.getFeatures()).stream()
+                        .filter(Objects::nonNull)
+                        .forEach(feature -> features.add(new Object[]{id, feature}));
+            }
+            if (unit.getImages() != null) {
+                unit.getImages().stream()
+                        .filter(Objects::nonNull)
+                        .forEach(image -> images.add(new Object[]{id, image}));
+            }
+
+            created.add(UnitSnapshot.builder()
+                    .id(id)
+                    .projectId(unit.getProjectId())
+                    .status(unit.getStatus())
+                    .unitType(unit.getUnitType())
+                    .bedrooms(unit.getBedrooms())
+                    .bathrooms(unit.getBathrooms())
+                    .floor(unit.getFloor())
+                    .featured(unit.isFeatured())
+                    .currentStage(unit.getConstructionStage())
+                    .price(unit.getPrice())
+                    .build());
+        }
+        if (!features.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_FEATURE, features);
+        }
+        if (!images.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_IMAGE, images);
+        }
+        unitChanges.publishImported(created);
+        return new BatchResult(insertable.size(), errors);
+    }
+
+    private static UnitImportProgress error(ImportRow row, String message) {
+        return UnitImportProgress.builder()
+                .type("error")
+                .row(row.row())
+                .unitNumber(row.request() != null ? row.request().getUnitNumber() : null)
+                .message(message)
+                .build();
+    }
+
+    private void writeLine(OutputStream out, UnitImportProgress line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write('\n');
+    }
+}
@@ -2,18 +2,41 @@ package com.amarsalimprojects.real_estate_app.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.amarsalimprojects.real_estate_app.components.PriceDistributionIndex;
+import com.amarsalimprojects.real_estate_app.components.UnitInventoryIndex;
+import com.amarsalimprojects.real_estate_app.config.CacheConfig;
 import com.amarsalimprojects.real_estate_app.dto.requests.UnitRequest;
+import com.amarsalimprojects.real_estate_app.dto.requests.UnitSearchCriteria;
+import com.amarsalimprojects.real_estate_app.dto.responses.KeysetPage;
+import com.amarsalimprojects.real_estate_app.dto.responses.PriceDistributionResponse;
+import com.amarsalimprojects.real_estate_app.dto.responses.UnitFacetsResponse;
+import com.amarsalimprojects.real_estate_app.dto.responses.UnitResponse;
 import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
 import com.amarsalimprojects.real_estate_app.enums.UnitType;
+import com.amarsalimprojects.real_estate_app.events.BuyerContactChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitChangePublisher;
 import com.amarsalimprojects.real_estate_app.mapper.UnitMapper;
 import com.amarsalimprojects.real_estate_app.model.BuyerProfile;
 import com.amarsalimprojects.real_estate_app.model.Project;
@@ -21,11 +44,24 @@ import com.amarsalimprojects.real_estate_app.model.Unit;
 import com.amarsalimprojects.real_estate_app.repository.BuyerProfileRepository;
 import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
 import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+import com.amarsalimprojects.real_estate_app.repository.UnitSpecifications;
+import com.amarsalimprojects.real_estate_app.util.CursorCodec;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 
 @Service
 @Transactional
 public class UnitService {
 
+    public static final int MAX_SEARCH_LIMIT = 200;
+
     @Autowired
     private UnitRepository unitRepository;
 
@@ -38,6 +74,18 @@ public class UnitService {
     @Autowired
     private BuyerProfileRepository buyerProfileRepository;
 
+    @Autowired
+    private UnitInventoryIndex inventoryIndex;
+
+    @Autowired
+    private PriceDistributionIndex priceDistributionIndex;
+
+    @Autowired
+    private UnitChangePublisher unitChanges;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Transactional
     public Unit addUnitToProject(Long projectId, UnitRequest unitRequest) {
         if (projectId == null) {
@@ -138,19 +186,143 @@ public class UnitService {
     }
 
     @Transactional(readOnly = true)
-    public List<Unit> searchUnits(UnitType type, Integer minBedrooms, Integer maxBedrooms,
-            BigDecimal minPrice, BigDecimal maxPrice, UnitStatus status, Long projectId) {
-
-        List<Unit> units = unitRepository.findAll();
-
-        return units.stream()
-                .filter(unit -> type == null || unit.getUnitType() == type)
-                .filter(unit -> minBedrooms == null || (unit.getBedrooms() != null && unit.getBedrooms() >= minBedrooms))
-                .filter(unit -> maxBedrooms == null || (unit.getBedrooms() != null && unit.getBedrooms() <= maxBedrooms))
-                .filter(unit -> minPrice == null || (unit.getPrice() != null && unit.getPrice().compareTo(minPrice) >= 0))
-                .filter(unit -> maxPrice == null || (unit.getPrice() != null && unit.getPrice().compareTo(maxPrice) <= 0))
-                .filter(unit -> status == null || unit.getStatus() == status)
-                .filter(unit -> projectId == null || (unit.getProject() != null && unit.getProject().getId().equals(projectId)))
+    public KeysetPage<Unit> searchUnits(UnitSearchCriteria criteria, String after, int limit) {
+        if (criteria == null) {
+            throw new IllegalArgumentException("Search criteria cannot be null");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+
+        Long afterId = after != null ? CursorCodec.decodeId(after) : null;
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<Unit> units;
+        if (inventoryIndex.isReady()) {
+            units = findAllByIdInOrder(inventoryIndex.search(criteria, afterId, limit + 1));
+        } else {
+            Specification<Unit> spec = UnitSpecifications.matching(criteria)
+                    .and(UnitSpecifications.idGreaterThan(afterId));
+            units = unitRepository.findBy(spec, query -> query
+                    .sortBy(Sort.by(Sort.Direction.ASC, "id"))
+                    .limit(limit + 1)
+                    .all());
+        }
+
+        boolean hasMore = units.size() > limit;
+        List<Unit> items = hasMore ? units.subList(0, limit) : units;
+
+        return KeysetPage.<Unit>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? CursorCodec.encode(String.valueOf(items.get(items.size() - 1).getId())) : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public UnitFacetsResponse getSearchFacets(UnitSearchCriteria criteria, BigDecimal priceBucketSize) {
+        if (criteria == null) {
+            throw new IllegalArgumentException("Search criteria cannot be null");
+        }
+        if (priceBucketSize == null || priceBucketSize.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Price bucket size must be positive");
+        }
+
+        if (inventoryIndex.isReady()) {
+            return inventoryIndex.facets(criteria, priceBucketSize);
+        }
+
+        // Fallback: every histogram from one GROUP BY instead of a query per facet
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Unit> root = query.from(Unit.class);
+        Expression<BigDecimal> priceBucket = cb.function("floor", BigDecimal.class,
+                cb.quot(root.<BigDecimal>get("price"), priceBucketSize));
+
+        query.multiselect(root.get("unitType"), root.get("status"), root.get("bedrooms"), priceBucket, cb.count(root))
+                .groupBy(root.get("unitType"), root.get("status"), root.get("bedrooms"), priceBucket);
+        Predicate filter = UnitSpecifications.matching(criteria).toPredicate(root, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+
+        UnitFacetsResponse response = new UnitFacetsResponse(priceBucketSize);
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            long count = row.get(4, Long.class);
+            response.add(row.get(0, UnitType.class), row.get(1, UnitStatus.class), row.get(2, Integer.class), null, count);
+            if (row.get(3) != null) {
+                response.addToPriceBucket(((Number) row.get(3)).longValue(), count);
+            }
+        }
+        return response;
+    }
+
+    private List<Unit> findAllByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Unit> byId = unitRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Unit::getId, Function.identity()));
+        // A row deleted since the index was updated is simply skipped
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // List views below run three statements whatever the row count: the joined rows,
+    // then features and images for all of those ids
+    // Cached responses are shared between requests; callers must not modify them.
+    // CacheInvalidator derives these keys from unit change events, keep the two in step.
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.UNIT_LISTINGS, key = "'all'")
+    public List<UnitResponse> getAllUnitResponses() {
+        return toResponses(unitRepository.findAllListRows());
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.UNIT_LISTINGS, key = "'status:' + #status")
+    public List<UnitResponse> getUnitResponsesByStatus(UnitStatus status) {
+        return toResponses(unitRepository.findListRowsByStatus(status));
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.UNIT_LISTINGS, key = "'featured'")
+    public List<UnitResponse> getFeaturedUnitResponses() {
+        return toResponses(unitRepository.findFeaturedListRows());
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.UNIT_LISTINGS, key = "'project:' + #projectId")
+    public List<UnitResponse> getUnitResponsesByProject(Long projectId) {
+        return toResponses(unitRepository.findListRowsByProjectId(projectId));
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.UNITS, unless = "#result == null")
+    public UnitResponse getUnitResponse(Long unitId) {
+        List<UnitResponse> responses = toResponses(unitRepository.findListRowById(unitId));
+        return responses.isEmpty() ? null : responses.get(0);
+    }
+
+    // Also used by the unit export, one chunk of rows at a time
+    public List<UnitResponse> toResponses(List<UnitRepository.ListRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = rows.stream().map(UnitRepository.ListRow::getId).toList();
+        Map<Long, Set<String>> features = new HashMap<>();
+        for (Object[] pair : unitRepository.findFeaturesByUnitIdIn(ids)) {
+            features.computeIfAbsent((Long) pair[0], id -> new HashSet<>()).add((String) pair[1]);
+        }
+        Map<Long, List<String>> images = new HashMap<>();
+        for (Object[] pair : unitRepository.findImagesByUnitIdIn(ids)) {
+            images.computeIfAbsent((Long) pair[0], id -> new ArrayList<>()).add((String) pair[1]);
+        }
+        return rows.stream()
+                .map(row -> unitMapper.toResponse(row,
+                        features.getOrDefault(row.getId(), new HashSet<>()),
+                        images.getOrDefault(row.getId(), new ArrayList<>())))
                 .collect(Collectors.toList());
     }
 
@@ -186,31 +358,14 @@ public class UnitService {
         return unitRepository.countByProjectIdAndStatus(projectId, UnitStatus.RESERVED);
     }
 
-    @Transactional(readOnly = true)
+    // Served from the in-memory price index; units without a price are not counted
     public BigDecimal getAveragePriceByProject(Long projectId) {
         if (projectId == null) {
             throw new IllegalArgumentException("Project ID cannot be null");
         }
 
-        List<Unit> units = unitRepository.findByProjectId(projectId);
-        if (units.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
-
-        BigDecimal totalPrice = units.stream()
-                .filter(unit -> unit.getPrice() != null)
-                .map(Unit::getPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        long validPriceCount = units.stream()
-                .filter(unit -> unit.getPrice() != null)
-                .count();
-
-        if (validPriceCount == 0) {
-            return BigDecimal.ZERO;
-        }
-
-        return totalPrice.divide(BigDecimal.valueOf(validPriceCount), 2, BigDecimal.ROUND_HALF_UP);
+        PriceDistributionResponse distribution = priceDistributionIndex.forProject(projectId, null);
+        return distribution != null ? distribution.getAverage() : BigDecimal.ZERO;
     }
 
     @Transactional(readOnly = true)
@@ -224,6 +379,17 @@ public class UnitService {
         return unitRepository.findByPriceBetween(minPrice, maxPrice);
     }
 
+    // The buyer's email is embedded in UnitResponse. A new updatedAt moves the units' ETag, and the
+    // published changes (no snapshot field differs) evict their cached responses and listings.
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBuyerContactChanged(BuyerContactChangedEvent event) {
+        List<Long> unitIds = unitRepository.findIdsByBuyerId(event.getBuyerId());
+        if (!unitIds.isEmpty() && unitRepository.touchByIdIn(unitIds, LocalDateTime.now()) > 0) {
+            unitChanges.publishUpdated(unitIds, UnaryOperator.identity());
+        }
+    }
+
     public void validateUnitForSale(Unit unit) {
         if (unit == null) {
             throw new IllegalArgumentException("Unit cannot be null");
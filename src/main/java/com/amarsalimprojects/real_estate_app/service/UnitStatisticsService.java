@@ -0,0 +1,172 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.amarsalimprojects.real_estate_app.dto.requests.UnitStatistics;
+import com.amarsalimprojects.real_estate_app.events.ProjectChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.events.UnitsImportedEvent;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+/**
+ * UnitStatistics for the whole inventory and per project, built from one GROUP BY query.
+ * The result is kept as an immutable snapshot until a unit change that can move a figure
+ * (status, type, bedrooms, price, project, create/delete) commits; the next read rebuilds it.
+ */
+@Service
+public class UnitStatisticsService {
+
+    private final UnitRepository unitRepository;
+
+    // Bumped on every invalidation; a snapshot is only served while its generation is current,
+    // so a rebuild that raced a change is never reused however its publish interleaves
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    public UnitStatisticsService(UnitRepository unitRepository) {
+        this.unitRepository = unitRepository;
+    }
+
+    private record Snapshot(long generation, UnitStatistics overall, Map<Long, UnitStatistics> byProject) {
+
+    }
+
+    public UnitStatistics getStatistics() {
+        return current().overall();
+    }
+
+    // Zero counts for a project without units
+    public UnitStatistics getStatistics(Long projectId) {
+        UnitStatistics statistics = current().byProject().get(projectId);
+        return statistics != null ? statistics : new Totals().toStatistics();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitChanged(UnitChangedEvent event) {
+        if (event.changed(UnitSnapshot::getStatus)
+                || event.changed(UnitSnapshot::getUnitType)
+                || event.changed(UnitSnapshot::getBedrooms)
+                || event.changed(UnitSnapshot::getPrice)
+                || event.changed(UnitSnapshot::getProjectId)) {
+            invalidate();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnitsImported(UnitsImportedEvent event) {
+        if (!event.getChanges().isEmpty()) {
+            invalidate();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        if (event.isDeleted()) {
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    private Snapshot current() {
+        long startedAt = generation.get();
+        Snapshot cached = snapshot.get();
+        if (cached != null && cached.generation() == startedAt) {
+            return cached;
+        }
+
+        List<UnitRepository.StatisticsRow> rows = unitRepository.findStatisticsByProject();
+        Totals overall = new Totals();
+        Map<Long, UnitStatistics> byProject = new HashMap<>();
+        for (UnitRepository.StatisticsRow row : rows) {
+            Totals project = new Totals();
+            project.add(row);
+            overall.add(row);
+            byProject.put(row.getProjectId(), project.toStatistics());
+        }
+        Snapshot fresh = new Snapshot(startedAt, overall.toStatistics(), Map.copyOf(byProject));
+        // Loses to a concurrent rebuild that published first; either is valid for this generation
+        snapshot.compareAndSet(cached, fresh);
+        return fresh;
+    }
+
+    private static final class Totals {
+
+        private long total;
+        private long available;
+        private long reserved;
+        private long sold;
+        private long studio;
+        private long oneBedroom;
+        private long twoBedroom;
+        private long threeBedroom;
+        private long fourPlusBedroom;
+        private long penthouse;
+        private BigDecimal availablePriceSum = BigDecimal.ZERO;
+        private long availablePriced;
+        private BigDecimal minAvailablePrice;
+        private BigDecimal maxAvailablePrice;
+
+        void add(UnitRepository.StatisticsRow row) {
+            total += value(row.getTotal());
+            available += value(row.getAvailable());
+            reserved += value(row.getReserved());
+            sold += value(row.getSold());
+            studio += value(row.getStudio());
+            oneBedroom += value(row.getOneBedroom());
+            twoBedroom += value(row.getTwoBedroom());
+            threeBedroom += value(row.getThreeBedroom());
+            fourPlusBedroom += value(row.getFourPlusBedroom());
+            penthouse += value(row.getPenthouse());
+            if (row.getAvailablePriceSum() != null) {
+                availablePriceSum = availablePriceSum.add(row.getAvailablePriceSum());
+            }
+            availablePriced += value(row.getAvailablePriced());
+            if (row.getMinAvailablePrice() != null
+                    && (minAvailablePrice == null || row.getMinAvailablePrice().compareTo(minAvailablePrice) < 0)) {
+                minAvailablePrice = row.getMinAvailablePrice();
+            }
+            if (row.getMaxAvailablePrice() != null
+                    && (maxAvailablePrice == null || row.getMaxAvailablePrice().compareTo(maxAvailablePrice) > 0)) {
+                maxAvailablePrice = row.getMaxAvailablePrice();
+            }
+        }
+
+        UnitStatistics toStatistics() {
+            return UnitStatistics.builder()
+                    .totalUnits(total)
+                    .availableUnits(available)
+                    .reservedUnits(reserved)
+                    .soldUnits(sold)
+                    .studioUnits(studio)
+                    .oneBrUnits(oneBedroom)
+                    .twoBrUnits(twoBedroom)
+                    .threeBrUnits(threeBedroom)
+                    // There is no four-bedroom UnitType; counted by bedrooms instead
+                    .fourBrUnits(fourPlusBedroom)
+                    .penthouseUnits(penthouse)
+                    .averageAvailablePrice(availablePriced > 0
+                            ? availablePriceSum.divide(BigDecimal.valueOf(availablePriced), 2, RoundingMode.HALF_UP)
+                            : null)
+                    .minAvailablePrice(minAvailablePrice)
+                    .maxAvailablePrice(maxAvailablePrice)
+                    .build();
+        }
+
+        private static long value(Long value) {
+            return value != null ? value : 0;
+        }
+    }
+}
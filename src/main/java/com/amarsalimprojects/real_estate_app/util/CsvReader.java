@@ -0,0 +1,79 @@
+package com.amarsalimprojects.real_estate_app.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Minimal RFC 4180 reader: comma separated, double-quoted fields may contain commas,
+// line breaks and "" escapes. Blank lines are skipped. Records are read one at a time,
+// so a large file is never held in memory.
+public final class CsvReader {
+
+    private final Reader reader;
+
+    public CsvReader(Reader source) {
+        this.reader = source.markSupported() ? source : new BufferedReader(source);
+    }
+
+    public static List<List<String>> read(Reader source) throws IOException {
+        CsvReader reader = new CsvReader(source);
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.readRecord()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+
+    // Null at the end of the input
+    public List<String> readRecord() throws IOException {
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (c == '\n' || c == '\r') {
+                if (fieldStarted || !field.isEmpty()) {
+                    record.add(field.toString());
+                    return record;
+                }
+            } else {
+                field.append((char) c);
+            }
+        }
+        if (quoted) {
+            throw new IOException("Unterminated quoted field");
+        }
+        if (fieldStarted || !field.isEmpty()) {
+            record.add(field.toString());
+            return record;
+        }
+        return null;
+    }
+}
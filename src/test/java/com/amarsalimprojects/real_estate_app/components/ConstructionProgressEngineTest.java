@@ -0,0 +1,149 @@
+package com.amarsalimprojects.real_estate_app.components;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+import com.amarsalimprojects.real_estate_app.events.ProjectChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.events.UnitsImportedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitsStageChangedEvent;
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+class ConstructionProgressEngineTest {
+
+	private static final Long PROJECT_ID = 7L;
+
+	private UnitRepository unitRepository;
+	private ProjectRepository projectRepository;
+	private ApplicationEventPublisher eventPublisher;
+	private final List<TransactionDefinition> transactions = new ArrayList<>();
+	private ConstructionProgressEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		unitRepository = mock(UnitRepository.class);
+		projectRepository = mock(ProjectRepository.class);
+		eventPublisher = mock(ApplicationEventPublisher.class);
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenAnswer(call -> {
+			transactions.add(call.getArgument(0));
+			return new SimpleTransactionStatus();
+		});
+		when(projectRepository.updateConstructionProgress(anyLong(), anyFloat(), any())).thenReturn(1);
+		when(unitRepository.findAllSnapshots()).thenReturn(List.of(
+				unit(1L, ConstructionStage.FOUNDATION),
+				unit(2L, ConstructionStage.STRUCTURE)));
+
+		engine = new ConstructionProgressEngine(unitRepository, projectRepository, eventPublisher, transactionManager);
+		engine.rebuild();
+		clearInvocations(projectRepository, eventPublisher);
+		transactions.clear();
+	}
+
+	@Test
+	void rebuildAveragesUnitMilestones() {
+		assertEquals(15f, engine.progressOf(PROJECT_ID));
+	}
+
+	@Test
+	void stageChangeWritesProgressInItsOwnTransaction() {
+		engine.onUnitChanged(new UnitChangedEvent(
+				unit(1L, ConstructionStage.FOUNDATION), unit(1L, ConstructionStage.ROOFING)));
+
+		verify(projectRepository).updateConstructionProgress(eq(PROJECT_ID), eq(25f), any());
+		verify(eventPublisher).publishEvent(new ProjectChangedEvent(PROJECT_ID, false));
+		// Called after the unit's transaction committed, so joining it would never write
+		assertEquals(1, transactions.size());
+		assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, transactions.get(0).getPropagationBehavior());
+	}
+
+	@Test
+	void bulkTransitionIsOneProjectWrite() {
+		engine.onUnitsStageChanged(new UnitsStageChangedEvent("batch", ConstructionStage.PLASTERING, List.of(
+				new UnitChangedEvent(unit(1L, ConstructionStage.FOUNDATION), unit(1L, ConstructionStage.PLASTERING)),
+				new UnitChangedEvent(unit(2L, ConstructionStage.STRUCTURE), unit(2L, ConstructionStage.PLASTERING)))));
+
+		verify(projectRepository).updateConstructionProgress(eq(PROJECT_ID), eq(65f), any());
+		assertEquals(1, transactions.size());
+		assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, transactions.get(0).getPropagationBehavior());
+	}
+
+	@Test
+	void importBatchIsOneProjectWrite() {
+		engine.onUnitsImported(new UnitsImportedEvent(List.of(
+				new UnitChangedEvent(null, unit(3L, ConstructionStage.PLASTERING)),
+				new UnitChangedEvent(null, unit(4L, ConstructionStage.PLASTERING)))));
+
+		verify(projectRepository).updateConstructionProgress(eq(PROJECT_ID), eq(40f), any());
+		assertEquals(1, transactions.size());
+	}
+
+	@Test
+	void progressIsCappedUntilSignOff() {
+		engine.onUnitsStageChanged(new UnitsStageChangedEvent("batch", ConstructionStage.COMPLETED, List.of(
+				new UnitChangedEvent(unit(1L, ConstructionStage.FOUNDATION), unit(1L, ConstructionStage.COMPLETED)),
+				new UnitChangedEvent(unit(2L, ConstructionStage.STRUCTURE), unit(2L, ConstructionStage.COMPLETED)))));
+
+		verify(projectRepository).updateConstructionProgress(eq(PROJECT_ID), eq(90f), any());
+		assertTrue(engine.progressOf(PROJECT_ID) <= 90f);
+	}
+
+	@Test
+	void racingChangesPersistTheLatestProgressLast() throws Exception {
+		List<Float> committed = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch firstWriting = new CountDownLatch(1);
+		CountDownLatch releaseFirst = new CountDownLatch(1);
+		when(projectRepository.updateConstructionProgress(anyLong(), anyFloat(), any())).thenAnswer(call -> {
+			if (firstWriting.getCount() > 0) {
+				firstWriting.countDown();
+				assertTrue(releaseFirst.await(5, TimeUnit.SECONDS));
+			}
+			committed.add(call.getArgument(1));
+			return 1;
+		});
+
+		Thread first = new Thread(() -> engine.onUnitChanged(new UnitChangedEvent(
+				unit(1L, ConstructionStage.FOUNDATION), unit(1L, ConstructionStage.ROOFING))));
+		first.start();
+		assertTrue(firstWriting.await(5, TimeUnit.SECONDS));
+		Thread second = new Thread(() -> engine.onUnitChanged(new UnitChangedEvent(
+				unit(2L, ConstructionStage.STRUCTURE), unit(2L, ConstructionStage.ROOFING))));
+		second.start();
+		// Without the per-project write lock the second write would commit while the first is stalled
+		second.join(200);
+		releaseFirst.countDown();
+		first.join(5000);
+		second.join(5000);
+
+		assertEquals(List.of(25f, 30f), committed);
+		assertEquals(30f, engine.progressOf(PROJECT_ID));
+	}
+
+	private static UnitSnapshot unit(Long id, ConstructionStage stage) {
+		return UnitSnapshot.builder().id(id).projectId(PROJECT_ID).currentStage(stage).build();
+	}
+}
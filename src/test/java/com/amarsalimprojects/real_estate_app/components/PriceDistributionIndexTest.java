@@ -0,0 +1,124 @@
+package com.amarsalimprojects.real_estate_app.components;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amarsalimprojects.real_estate_app.dto.responses.PriceDistributionResponse;
+import com.amarsalimprojects.real_estate_app.enums.UnitType;
+import com.amarsalimprojects.real_estate_app.events.UnitChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+class PriceDistributionIndexTest {
+
+	private static final Long PROJECT_ID = 4L;
+
+	private UnitRepository unitRepository;
+	private PriceDistributionIndex index;
+
+	@BeforeEach
+	void setUp() {
+		unitRepository = mock(UnitRepository.class);
+		index = new PriceDistributionIndex(unitRepository);
+	}
+
+	@Test
+	void quantilesInterpolateOverDuplicatePrices() {
+		load(unit(1L, "100"), unit(2L, "100.00"), unit(3L, "100"), unit(4L, "200"));
+
+		PriceDistributionResponse all = index.forProject(PROJECT_ID, null);
+		assertEquals(4, all.getCount());
+		assertEquals(new BigDecimal("125.00"), all.getAverage());
+		// Ranks 1 and 2 are both 100
+		assertEquals(new BigDecimal("100.00"), all.getMedian());
+		// Rank 2.7: 70% of the way from 100 to 200
+		assertEquals(new BigDecimal("170.00"), all.getP90());
+		assertEquals(new BigDecimal("100.00"), all.getMin());
+		assertEquals(new BigDecimal("200.00"), all.getMax());
+	}
+
+	@Test
+	void singlePriceIsEveryQuantile() {
+		load(unit(1L, "250000"));
+
+		PriceDistributionResponse all = index.forProject(PROJECT_ID, null);
+		assertEquals(1, all.getCount());
+		assertEquals(new BigDecimal("250000.00"), all.getMedian());
+		assertEquals(new BigDecimal("250000.00"), all.getP90());
+		assertEquals(new BigDecimal("250000.00"), all.getMin());
+		assertEquals(new BigDecimal("250000.00"), all.getMax());
+	}
+
+	@Test
+	void removingOneOfDuplicatePricesKeepsTheOthers() {
+		load(unit(1L, "100"), unit(2L, "100"), unit(3L, "300"));
+
+		index.onUnitChanged(new UnitChangedEvent(unit(2L, "100"), null));
+
+		PriceDistributionResponse all = index.forProject(PROJECT_ID, null);
+		assertEquals(2, all.getCount());
+		assertEquals(new BigDecimal("100.00"), all.getMin());
+		assertEquals(new BigDecimal("200.00"), all.getMedian());
+	}
+
+	@Test
+	void lastUnitLeavingEmptiesTheProject() {
+		load(unit(1L, "100"));
+
+		index.onUnitChanged(new UnitChangedEvent(unit(1L, "100"), null));
+
+		assertTrue(index.forProject(PROJECT_ID).isEmpty());
+		assertNull(index.forProject(PROJECT_ID, null));
+		assertNull(index.forProject(PROJECT_ID, UnitType.APARTMENT));
+	}
+
+	@Test
+	void priceChangeMovesTheUnit() {
+		load(unit(1L, "100"), unit(2L, "300"));
+
+		index.onUnitChanged(new UnitChangedEvent(unit(1L, "100"), unit(1L, "500")));
+
+		PriceDistributionResponse all = index.forProject(PROJECT_ID, null);
+		assertEquals(new BigDecimal("300.00"), all.getMin());
+		assertEquals(new BigDecimal("500.00"), all.getMax());
+		assertEquals(2, index.forProject(PROJECT_ID).size());
+	}
+
+	@Test
+	void changesDuringRebuildAreReplayed() {
+		when(unitRepository.findAllSnapshots()).thenAnswer(call -> {
+			// Commits after the rebuild query read its rows
+			index.onUnitChanged(new UnitChangedEvent(unit(1L, "100"), unit(1L, "700")));
+			return List.of(unit(1L, "100"), unit(2L, "300"));
+		});
+
+		index.rebuild();
+
+		PriceDistributionResponse all = index.forProject(PROJECT_ID, null);
+		assertEquals(2, all.getCount());
+		assertEquals(new BigDecimal("700.00"), all.getMax());
+	}
+
+	private void load(UnitSnapshot... units) {
+		when(unitRepository.findAllSnapshots()).thenReturn(List.of(units));
+		index.rebuild();
+	}
+
+	private static UnitSnapshot unit(Long id, String price) {
+		return UnitSnapshot.builder()
+				.id(id)
+				.projectId(PROJECT_ID)
+				.unitType(UnitType.APARTMENT)
+				.price(new BigDecimal(price))
+				.build();
+	}
+}
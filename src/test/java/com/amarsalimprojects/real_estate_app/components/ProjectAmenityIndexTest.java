@@ -0,0 +1,62 @@
+package com.amarsalimprojects.real_estate_app.components;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amarsalimprojects.real_estate_app.events.ProjectChangedEvent;
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+
+class ProjectAmenityIndexTest {
+
+	private ProjectRepository projectRepository;
+	private ProjectAmenityIndex index;
+
+	@BeforeEach
+	void setUp() {
+		projectRepository = mock(ProjectRepository.class);
+		when(projectRepository.findAllAmenities()).thenReturn(List.of(
+				new Object[]{1L, "Swimming Pool"},
+				new Object[]{1L, "Gym"},
+				new Object[]{2L, " swimming  POOL "},
+				new Object[]{3L, "gym"},
+				new Object[]{3L, "  "}));
+		index = new ProjectAmenityIndex(projectRepository);
+		index.rebuild();
+	}
+
+	@Test
+	void spellingsOfOneAmenityShareAnId() {
+		assertEquals(List.of(1L, 2L), index.search(List.of("swimming pool"), true));
+		assertEquals(Map.of("Swimming Pool", 2, "Gym", 2), index.counts());
+	}
+
+	@Test
+	void matchAllIntersects() {
+		assertEquals(List.of(1L), index.search(List.of("Gym", "SWIMMING POOL"), true));
+		assertEquals(List.of(), index.search(List.of("gym", "sauna"), true));
+	}
+
+	@Test
+	void matchAnyUnitesAndIgnoresUnknownAmenities() {
+		assertEquals(List.of(1L, 2L, 3L), index.search(List.of("gym", "sauna", "swimming pool"), false));
+		assertEquals(List.of(), index.search(List.of("sauna", " "), false));
+	}
+
+	@Test
+	void projectChangeReplacesItsAmenities() {
+		when(projectRepository.findAmenitiesById(1L)).thenReturn(List.of("Parking"));
+		index.onProjectChanged(new ProjectChangedEvent(1L, false));
+		index.onProjectChanged(new ProjectChangedEvent(3L, true));
+
+		assertEquals(List.of(), index.search(List.of("gym"), false));
+		assertEquals(List.of(1L), index.search(List.of("parking"), true));
+		assertEquals(Map.of("Swimming Pool", 1, "Parking", 1), index.counts());
+	}
+}
@@ -0,0 +1,62 @@
+package com.amarsalimprojects.real_estate_app.components;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+
+// Coarse cells keep the queries on the grid path; fine ones make them fall back to a scan
+class ProjectGeoIndexTest {
+
+	private ProjectGeoIndex index(double cellSizeDegrees) {
+		ProjectRepository projectRepository = mock(ProjectRepository.class);
+		List<ProjectRepository.Location> locations = List.of(
+				location(1L, -17.5, 178.9),
+				location(2L, -17.5, -179.5),
+				location(3L, -17.5, 0.0),
+				location(4L, -1.29, 36.82));
+		when(projectRepository.findAllLocations()).thenReturn(locations);
+		ProjectGeoIndex index = new ProjectGeoIndex(projectRepository, cellSizeDegrees);
+		index.rebuild();
+		return index;
+	}
+
+	@ParameterizedTest
+	@ValueSource(doubles = {10, 0.05})
+	void boxAcrossTheAntimeridianCoversBothSides(double cellSizeDegrees) {
+		ProjectGeoIndex index = index(cellSizeDegrees);
+
+		// Centre is at 179.5: project 1 is 0.6 degrees west of it, project 2 is 1 degree east
+		assertEquals(List.of(1L, 2L), ids(index.findWithin(-20, -15, 178, -179, 10)));
+		assertEquals(List.of(1L), ids(index.findWithin(-20, -15, 178, 180, 10)));
+		assertEquals(List.of(3L), ids(index.findWithin(-20, -15, -1, 1, 10)));
+	}
+
+	@ParameterizedTest
+	@ValueSource(doubles = {10, 0.05})
+	void radiusAcrossTheAntimeridianCoversBothSides(double cellSizeDegrees) {
+		ProjectGeoIndex index = index(cellSizeDegrees);
+
+		assertEquals(List.of(2L), ids(index.findNear(-17.5, 179.95, 100, 10)));
+		assertEquals(List.of(2L, 1L), ids(index.findNear(-17.5, -179.95, 150, 10)));
+		assertEquals(List.of(1L), ids(index.findNear(-17.5, 178.9, 10, 10)));
+	}
+
+	private static List<Long> ids(List<ProjectGeoIndex.Match> matches) {
+		return matches.stream().map(ProjectGeoIndex.Match::projectId).toList();
+	}
+
+	private static ProjectRepository.Location location(Long id, double lat, double lng) {
+		ProjectRepository.Location location = mock(ProjectRepository.Location.class);
+		when(location.getId()).thenReturn(id);
+		when(location.getLatitude()).thenReturn(lat);
+		when(location.getLongitude()).thenReturn(lng);
+		return location;
+	}
+}
@@ -0,0 +1,94 @@
+package com.amarsalimprojects.real_estate_app.components;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amarsalimprojects.real_estate_app.dto.responses.SearchHitResponse;
+import com.amarsalimprojects.real_estate_app.events.ProjectChangedEvent;
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+class TextSearchIndexTest {
+
+	private ProjectRepository projectRepository;
+	private UnitRepository unitRepository;
+	private TextSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		projectRepository = mock(ProjectRepository.class);
+		unitRepository = mock(UnitRepository.class);
+		// [id, name, description, address, county] and [id, unitNumber, description]
+		when(projectRepository.findAllSearchText()).thenReturn(List.of(
+				new Object[]{1L, "Ocean Heights", "Apartments by the beach", "Beach Road", "Mombasa"},
+				new Object[]{2L, "Garden Villas", "Quiet villas near the ocean", "Karen", "Nairobi"}));
+		when(projectRepository.findAllAmenities()).thenReturn(List.<Object[]>of(new Object[]{2L, "Swimming Pool"}));
+		when(unitRepository.findAllSearchText()).thenReturn(List.<Object[]>of(new Object[]{10L, "OH-101", "Pool view"}));
+		when(unitRepository.findAllFeatures()).thenReturn(List.<Object[]>of(new Object[]{10L, "Balcony"}));
+		index = new TextSearchIndex(projectRepository, unitRepository);
+		index.rebuild();
+	}
+
+	@Test
+	void tokenizerLowercasesSplitsAndDropsStopWords() {
+		assertEquals(List.of("3", "bedroom", "villa", "nyali"), TextSearchIndex.tokenize("3-Bedroom villa IN the Nyali!"));
+		assertEquals(List.of(), TextSearchIndex.tokenize(null));
+	}
+
+	@Test
+	void nameMatchOutranksADescriptionMention() {
+		List<SearchHitResponse> hits = index.search("ocean", null, 10);
+
+		assertEquals(List.of(1L, 2L), hits.stream().map(SearchHitResponse::getId).toList());
+		assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+	}
+
+	@Test
+	void prefixesExpandToLongerTerms() {
+		when(projectRepository.findSearchTextById(3L)).thenReturn(List.<Object[]>of(
+				new Object[]{3L, "Poolside Court", null, null, null}));
+		index.onProjectChanged(new ProjectChangedEvent(3L, false));
+
+		assertEquals(List.of("PROJECT:3"), keys(index.search("poolsi", null, 10)));
+		assertEquals(List.of(2L, 3L), index.search("pool", TextSearchIndex.PROJECT, 10).stream()
+				.map(SearchHitResponse::getId).sorted().toList());
+	}
+
+	@Test
+	void exactTokenOutranksAPrefixExpansionOfTheSameRarity() {
+		when(projectRepository.findAllSearchText()).thenReturn(List.of(
+				new Object[]{1L, "Pools Court", null, null, null},
+				new Object[]{2L, "Pool Court", null, null, null}));
+		when(projectRepository.findAllAmenities()).thenReturn(List.of());
+		when(unitRepository.findAllSearchText()).thenReturn(List.of());
+		when(unitRepository.findAllFeatures()).thenReturn(List.of());
+		index.rebuild();
+
+		assertEquals(List.of(2L, 1L), index.search("pool", null, 10).stream().map(SearchHitResponse::getId).toList());
+	}
+
+	@Test
+	void typeFilterAndFeaturesAreApplied() {
+		assertEquals(List.of("UNIT:10"), keys(index.search("balcony", null, 10)));
+		assertEquals(List.of("UNIT:10"), keys(index.search("pool", TextSearchIndex.UNIT, 10)));
+		assertEquals(List.of(), index.search("the of", null, 10));
+	}
+
+	@Test
+	void deletedProjectsDropOutOfResults() {
+		index.onProjectChanged(new ProjectChangedEvent(1L, true));
+
+		assertEquals(List.of("PROJECT:2"), keys(index.search("ocean", null, 10)));
+	}
+
+	private static List<String> keys(List<SearchHitResponse> hits) {
+		return hits.stream().map(hit -> hit.getType() + ":" + hit.getId()).toList();
+	}
+}
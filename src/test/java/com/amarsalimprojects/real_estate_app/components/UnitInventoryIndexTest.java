@@ -0,0 +1,125 @@
+package com.amarsalimprojects.real_estate_app.components;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amarsalimprojects.real_estate_app.dto.requests.UnitSearchCriteria;
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+import com.amarsalimprojects.real_estate_app.enums.UnitType;
+import com.amarsalimprojects.real_estate_app.events.UnitChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.events.UnitsImportedEvent;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+class UnitInventoryIndexTest {
+
+	private UnitRepository unitRepository;
+	private UnitInventoryIndex index;
+
+	@BeforeEach
+	void setUp() {
+		unitRepository = mock(UnitRepository.class);
+		when(unitRepository.findAllSnapshots()).thenReturn(List.of(
+				unit(1L, 10L, UnitType.STUDIO, 0, "90000", UnitStatus.AVAILABLE, false),
+				unit(2L, 10L, UnitType.TWO_BEDROOM, 2, "150000", UnitStatus.AVAILABLE, true),
+				unit(3L, 10L, UnitType.TWO_BEDROOM, 2, "180000", UnitStatus.SOLD, false),
+				unit(4L, 20L, UnitType.VILLA, 4, "400000", UnitStatus.AVAILABLE, true),
+				unit(5L, 20L, UnitType.VILLA, 5, null, UnitStatus.AVAILABLE, false)));
+		index = new UnitInventoryIndex(unitRepository);
+		index.rebuild();
+	}
+
+	@Test
+	void facetsIntersect() {
+		assertTrue(index.isReady());
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L), index.search(new UnitSearchCriteria(), null, 10));
+		assertEquals(List.of(2L), index.search(UnitSearchCriteria.builder()
+				.projectId(10L).status(UnitStatus.AVAILABLE).type(UnitType.TWO_BEDROOM).build(), null, 10));
+		assertEquals(List.of(1L, 3L, 5L), index.search(UnitSearchCriteria.builder().featured(false).build(), null, 10));
+		assertEquals(List.of(), index.search(UnitSearchCriteria.builder().type(UnitType.PENTHOUSE).build(), null, 10));
+	}
+
+	@Test
+	void rangesCoverBedroomsAndPrice() {
+		assertEquals(List.of(2L, 3L, 4L), index.search(UnitSearchCriteria.builder()
+				.minBedrooms(1).maxBedrooms(4).build(), null, 10));
+		// A unit without a price never matches a price filter
+		assertEquals(List.of(2L, 3L, 4L), index.search(UnitSearchCriteria.builder()
+				.minPrice(new BigDecimal("150000")).build(), null, 10));
+		assertEquals(List.of(1L, 2L), index.search(UnitSearchCriteria.builder()
+				.maxPrice(new BigDecimal("150000.00")).build(), null, 10));
+	}
+
+	@Test
+	void searchResumesAfterAnIdAndStopsAtTheLimit() {
+		assertEquals(List.of(1L, 2L), index.search(new UnitSearchCriteria(), null, 2));
+		assertEquals(List.of(3L, 4L), index.search(new UnitSearchCriteria(), 2L, 2));
+		assertEquals(List.of(), index.search(new UnitSearchCriteria(), 5L, 2));
+	}
+
+	@Test
+	void changesMoveUnitsBetweenFacets() {
+		UnitSnapshot before = unit(2L, 10L, UnitType.TWO_BEDROOM, 2, "150000", UnitStatus.AVAILABLE, true);
+		index.onUnitChanged(new UnitChangedEvent(before, before.toBuilder().status(UnitStatus.RESERVED).build()));
+		index.onUnitChanged(new UnitChangedEvent(unit(1L, 10L, UnitType.STUDIO, 0, "90000", UnitStatus.AVAILABLE, false), null));
+		index.onUnitsImported(new UnitsImportedEvent(List.of(
+				new UnitChangedEvent(null, unit(6L, 10L, UnitType.STUDIO, 0, "95000", UnitStatus.AVAILABLE, false)))));
+
+		UnitSearchCriteria available = UnitSearchCriteria.builder().projectId(10L).status(UnitStatus.AVAILABLE).build();
+		assertEquals(List.of(6L), index.search(available, null, 10));
+		assertEquals(UnitStatus.RESERVED, index.statusOf(2L));
+		assertNull(index.statusOf(1L));
+	}
+
+	@Test
+	void changesDuringARebuildAreReplayedOntoTheFreshIndex() {
+		UnitSnapshot loaded = unit(1L, 10L, UnitType.STUDIO, 0, "90000", UnitStatus.AVAILABLE, false);
+		when(unitRepository.findAllSnapshots()).thenAnswer(call -> {
+			// Committed after the snapshot query read the row
+			index.onUnitChanged(new UnitChangedEvent(loaded, loaded.toBuilder().status(UnitStatus.SOLD).build()));
+			return List.of(loaded);
+		});
+
+		index.rebuild();
+
+		assertEquals(UnitStatus.SOLD, index.statusOf(1L));
+		assertEquals(List.of(), index.search(UnitSearchCriteria.builder().status(UnitStatus.AVAILABLE).build(), null, 10));
+	}
+
+	@Test
+	void failedRebuildTakesTheIndexOutOfService() {
+		when(unitRepository.findAllSnapshots()).thenThrow(new IllegalStateException("connection lost"));
+
+		index.rebuild();
+
+		assertFalse(index.isReady());
+		assertNull(index.statusOf(1L));
+	}
+
+	private static UnitSnapshot unit(Long id, Long projectId, UnitType type, int bedrooms, String price,
+			UnitStatus status, boolean featured) {
+		return UnitSnapshot.builder()
+				.id(id)
+				.projectId(projectId)
+				.unitType(type)
+				.bedrooms(bedrooms)
+				.bathrooms(1)
+				.floor(1)
+				.featured(featured)
+				.currentStage(ConstructionStage.values()[0])
+				.price(price != null ? new BigDecimal(price) : null)
+				.status(status)
+				.build();
+	}
+}
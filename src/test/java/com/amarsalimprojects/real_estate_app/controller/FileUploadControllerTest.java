@@ -0,0 +1,79 @@
+package com.amarsalimprojects.real_estate_app.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.amarsalimprojects.real_estate_app.service.ChunkedUploadService;
+import com.amarsalimprojects.real_estate_app.service.ImageDerivativeService;
+import com.amarsalimprojects.real_estate_app.service.ImageStore;
+import com.amarsalimprojects.real_estate_app.service.OrphanImageCollector;
+
+class FileUploadControllerTest {
+
+	@TempDir
+	Path dir;
+
+	private ImageStore imageStore;
+	private FileUploadController controller;
+
+	@BeforeEach
+	void setUp() {
+		imageStore = spy(new ImageStore(dir.toString(), mock(NamedParameterJdbcTemplate.class)));
+		controller = new FileUploadController(imageStore, mock(ImageDerivativeService.class),
+				mock(ChunkedUploadService.class), mock(OrphanImageCollector.class), 16);
+	}
+
+	@Test
+	void rejectedFilesAreABadRequest() {
+		ResponseEntity<Map<String, Object>> response = controller.uploadFiles(List.of(
+				file("plan.not-an-extension", 4),
+				file("large.jpg", 17)));
+
+		assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+		assertEquals(2, ((List<?>) response.getBody().get("errors")).size());
+	}
+
+	@Test
+	void storageFailureIsAServerError() throws IOException {
+		doThrow(new IOException("disk full")).when(imageStore).store(any(InputStream.class), anyString());
+
+		ResponseEntity<Map<String, Object>> response = controller.uploadFiles(List.of(
+				file("plan.not-an-extension", 4),
+				file("plan.jpg", 4)));
+
+		assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+	}
+
+	@Test
+	void partialSuccessIsOkWithErrors() {
+		ResponseEntity<Map<String, Object>> response = controller.uploadFiles(List.of(
+				file("plan.jpg", 4),
+				file("large.jpg", 17)));
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(1, ((List<?>) response.getBody().get("filenames")).size());
+		assertEquals(1, ((List<?>) response.getBody().get("errors")).size());
+	}
+
+	private static MockMultipartFile file(String name, int size) {
+		return new MockMultipartFile("files", name, "image/jpeg", new byte[size]);
+	}
+}
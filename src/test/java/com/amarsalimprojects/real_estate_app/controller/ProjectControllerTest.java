@@ -0,0 +1,86 @@
+package com.amarsalimprojects.real_estate_app.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.amarsalimprojects.real_estate_app.model.Project;
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectControllerTest {
+
+	private static final LocalDateTime LAST_UPDATE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+	@Mock
+	private ProjectRepository projectRepository;
+
+	@InjectMocks
+	private ProjectController projectController;
+
+	private Project stored;
+
+	@BeforeEach
+	void setUp() {
+		stored = Project.builder()
+				.id(1L)
+				.name("Riverside")
+				.images(List.of("a.jpg"))
+				.amenities(new HashSet<>(Set.of("Pool")))
+				.updatedAt(LAST_UPDATE)
+				.build();
+		when(projectRepository.findById(1L)).thenReturn(Optional.of(stored));
+		when(projectRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+	}
+
+	// Only updatedAt is a column; without touching it Hibernate would see no change to the owner
+	@Test
+	void amenityOnlyPatchMakesTheProjectDirty() {
+		Project patch = new Project();
+		patch.setAmenities(Set.of("Pool", "Gym"));
+
+		Project updated = projectController.partialUpdateProject(1L, patch).getBody();
+
+		assertEquals(Set.of("Pool", "Gym"), updated.getAmenities());
+		assertTrue(updated.getUpdatedAt().isAfter(LAST_UPDATE));
+	}
+
+	@Test
+	void amenityOnlyPutMakesTheProjectDirty() {
+		Project replacement = Project.builder()
+				.name("Riverside")
+				.images(List.of("a.jpg"))
+				.amenities(Set.of("Gym"))
+				.build();
+
+		Project updated = projectController.updateProject(1L, replacement).getBody();
+
+		assertEquals(Set.of("Gym"), updated.getAmenities());
+		assertTrue(updated.getUpdatedAt().isAfter(LAST_UPDATE));
+	}
+
+	@Test
+	void unchangedCollectionsLeaveUpdatedAtAlone() {
+		Project patch = new Project();
+		patch.setAmenities(Set.of("Pool"));
+		patch.setImages(List.of("a.jpg"));
+
+		Project updated = projectController.partialUpdateProject(1L, patch).getBody();
+
+		assertEquals(LAST_UPDATE, updated.getUpdatedAt());
+	}
+}
@@ -0,0 +1,52 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.amarsalimprojects.real_estate_app.model.BuyerProfile;
+
+class BuyerEntityListenerTest {
+
+	private ApplicationEventPublisher eventPublisher;
+	private BuyerEntityListener listener;
+	private BuyerProfile buyer;
+
+	@BeforeEach
+	void setUp() {
+		eventPublisher = mock(ApplicationEventPublisher.class);
+		listener = new BuyerEntityListener(eventPublisher);
+		buyer = BuyerProfile.builder().id(3L).email("old@example.com").phoneNumber("0700000000").build();
+		listener.onLoad(buyer);
+	}
+
+	@Test
+	void emailChangeIsPublished() {
+		buyer.setEmail("new@example.com");
+		listener.onUpdate(buyer);
+
+		verify(eventPublisher).publishEvent(new BuyerContactChangedEvent(3L));
+	}
+
+	@Test
+	void otherFieldsAreNotPublished() {
+		buyer.setPhoneNumber("0711111111");
+		listener.onUpdate(buyer);
+
+		verify(eventPublisher, never()).publishEvent(any(Object.class));
+	}
+
+	@Test
+	void changeIsPublishedOnce() {
+		buyer.setEmail("new@example.com");
+		listener.onUpdate(buyer);
+		listener.onUpdate(buyer);
+
+		verify(eventPublisher).publishEvent(new BuyerContactChangedEvent(3L));
+	}
+}
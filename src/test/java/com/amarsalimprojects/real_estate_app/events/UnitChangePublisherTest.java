@@ -0,0 +1,84 @@
+package com.amarsalimprojects.real_estate_app.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+class UnitChangePublisherTest {
+
+	private UnitRepository unitRepository;
+	private ApplicationEventPublisher eventPublisher;
+	private UnitChangePublisher publisher;
+
+	@BeforeEach
+	void setUp() {
+		unitRepository = mock(UnitRepository.class);
+		eventPublisher = mock(ApplicationEventPublisher.class);
+		publisher = new UnitChangePublisher(unitRepository, eventPublisher);
+	}
+
+	@Test
+	void updatedUnitsArePublishedWithTheDerivedBeforeImage() {
+		UnitSnapshot released = unit(1L, UnitStatus.AVAILABLE);
+		UnitSnapshot stillHeld = unit(2L, UnitStatus.RESERVED);
+		when(unitRepository.findSnapshotsByIdIn(List.of(1L, 2L))).thenReturn(List.of(released, stillHeld));
+
+		int published = publisher.publishUpdated(List.of(1L, 2L), after -> after.getStatus() != UnitStatus.AVAILABLE
+				? null
+				: after.toBuilder().status(UnitStatus.RESERVED).build());
+
+		assertEquals(1, published);
+		verify(eventPublisher).publishEvent(new UnitChangedEvent(unit(1L, UnitStatus.RESERVED), released));
+	}
+
+	@Test
+	void nothingToPublishSkipsTheQuery() {
+		assertEquals(0, publisher.publishUpdated(List.of(), after -> after));
+
+		verify(unitRepository, never()).findSnapshotsByIdIn(any());
+		verify(eventPublisher, never()).publishEvent(any(Object.class));
+	}
+
+	@Test
+	void stageTransitionIsOneEvent() {
+		UnitSnapshot first = unit(1L, UnitStatus.AVAILABLE).toBuilder().currentStage(ConstructionStage.ROOFING).build();
+		UnitSnapshot second = unit(2L, UnitStatus.SOLD).toBuilder().currentStage(ConstructionStage.ROOFING).build();
+		when(unitRepository.findSnapshotsByIdIn(List.of(1L, 2L))).thenReturn(List.of(first, second));
+		Map<Long, ConstructionStage> previous = Map.of(1L, ConstructionStage.FOUNDATION, 2L, ConstructionStage.STRUCTURE);
+
+		publisher.publishStageChanged("batch", ConstructionStage.ROOFING, List.of(1L, 2L),
+				after -> after.toBuilder().currentStage(previous.get(after.getId())).build());
+
+		verify(eventPublisher).publishEvent(new UnitsStageChangedEvent("batch", ConstructionStage.ROOFING, List.of(
+				new UnitChangedEvent(first.toBuilder().currentStage(ConstructionStage.FOUNDATION).build(), first),
+				new UnitChangedEvent(second.toBuilder().currentStage(ConstructionStage.STRUCTURE).build(), second))));
+	}
+
+	@Test
+	void importedUnitsAreCreations() {
+		UnitSnapshot created = unit(5L, UnitStatus.AVAILABLE);
+
+		publisher.publishImported(List.of(created));
+
+		verify(eventPublisher).publishEvent(new UnitsImportedEvent(List.of(new UnitChangedEvent(null, created))));
+		verify(unitRepository, never()).findSnapshotsByIdIn(any());
+	}
+
+	private static UnitSnapshot unit(Long id, UnitStatus status) {
+		return UnitSnapshot.builder().id(id).projectId(9L).status(status).build();
+	}
+}
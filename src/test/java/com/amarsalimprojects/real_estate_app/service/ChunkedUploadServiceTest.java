@@ -0,0 +1,164 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.amarsalimprojects.real_estate_app.dto.requests.UploadSessionRequest;
+import com.amarsalimprojects.real_estate_app.dto.responses.UploadSessionResponse;
+
+class ChunkedUploadServiceTest {
+
+	private static final int CHUNK = 256 * 1024;
+
+	@TempDir
+	Path dir;
+
+	private ImageStore imageStore;
+	private ChunkedUploadService service;
+	private byte[] content;
+
+	@BeforeEach
+	void setUp() {
+		imageStore = spy(new ImageStore(dir.toString(), mock(NamedParameterJdbcTemplate.class)));
+		service = new ChunkedUploadService(imageStore, mock(ImageDerivativeService.class), 10 * CHUNK, 60);
+		// Three chunks, the last one short
+		content = new byte[2 * CHUNK + 100];
+		new Random(42).nextBytes(content);
+	}
+
+	@Test
+	void outOfOrderChunksAssembleTheOriginalFile() throws IOException {
+		String id = start();
+
+		send(id, 2);
+		send(id, 0);
+		UploadSessionResponse status = send(id, 1);
+		assertEquals(List.of(0, 1, 2), status.getReceivedChunks());
+
+		ImageStore.StoredFile stored = service.complete(id);
+		assertNotNull(stored);
+		assertArrayEquals(content, Files.readAllBytes(imageStore.resolve(stored.filename())));
+		assertFalse(service.isOpen(id));
+	}
+
+	@Test
+	void statusReportsOnlyReceivedChunks() throws IOException {
+		String id = start();
+		assertEquals(List.of(), service.status(id).getReceivedChunks());
+		assertEquals(3, service.status(id).getChunkCount());
+
+		send(id, 1);
+		assertEquals(List.of(1), service.status(id).getReceivedChunks());
+	}
+
+	@Test
+	void resentChunkOverwritesInPlace() throws IOException {
+		String id = start();
+		send(id, 0);
+		send(id, 1);
+		send(id, 1);
+		send(id, 2);
+		assertEquals(List.of(0, 1, 2), service.status(id).getReceivedChunks());
+
+		ImageStore.StoredFile stored = service.complete(id);
+		assertArrayEquals(content, Files.readAllBytes(imageStore.resolve(stored.filename())));
+	}
+
+	@Test
+	void chunkOfTheWrongLengthIsRejectedAndStaysMissing() throws IOException {
+		String id = start();
+		send(id, 0);
+
+		byte[] shortChunk = Arrays.copyOfRange(content, CHUNK, CHUNK + 10);
+		assertThrows(IllegalArgumentException.class,
+				() -> service.writeChunk(id, 1, new ByteArrayInputStream(shortChunk)));
+		byte[] longChunk = Arrays.copyOfRange(content, 2 * CHUNK - 1, content.length);
+		assertThrows(IllegalArgumentException.class,
+				() -> service.writeChunk(id, 2, new ByteArrayInputStream(longChunk)));
+		assertThrows(IllegalArgumentException.class,
+				() -> service.writeChunk(id, 3, new ByteArrayInputStream(new byte[0])));
+
+		assertEquals(List.of(0), service.status(id).getReceivedChunks());
+	}
+
+	@Test
+	void completeWithMissingChunksKeepsTheSession() throws IOException {
+		String id = start();
+		send(id, 0);
+		send(id, 2);
+
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> service.complete(id));
+		assertTrue(e.getMessage().contains("Missing 1 of 3"));
+		assertTrue(service.isOpen(id));
+
+		send(id, 1);
+		assertNotNull(service.complete(id));
+	}
+
+	@Test
+	void sweeperSkipsASessionThatIsBeingCompleted() throws Exception {
+		// Idle timeout of zero: every session is expired by the time the sweeper looks at it
+		service = new ChunkedUploadService(imageStore, mock(ImageDerivativeService.class), 10 * CHUNK, 0);
+		String id = start();
+		for (int i = 0; i < 3; i++) {
+			send(id, i);
+		}
+		doAnswer(invocation -> {
+			service.expireIdleSessions();
+			assertThrows(IllegalStateException.class, () -> service.abort(id));
+			return invocation.callRealMethod();
+		}).when(imageStore).commit(any(Path.class), any(MessageDigest.class), anyString());
+
+		ImageStore.StoredFile stored = service.complete(id);
+		assertArrayEquals(content, Files.readAllBytes(imageStore.resolve(stored.filename())));
+	}
+
+	@Test
+	void sweeperExpiresIdleSessions() throws Exception {
+		service = new ChunkedUploadService(imageStore, mock(ImageDerivativeService.class), 10 * CHUNK, 0);
+		String id = start();
+		send(id, 0);
+		Thread.sleep(5);
+
+		service.expireIdleSessions();
+		assertFalse(service.isOpen(id));
+		assertEquals(null, service.complete(id));
+	}
+
+	private String start() throws IOException {
+		return service.start(UploadSessionRequest.builder()
+				.filename("plan.jpg")
+				.size((long) content.length)
+				.chunkSize(CHUNK)
+				.build()).getUploadId();
+	}
+
+	private UploadSessionResponse send(String id, int index) throws IOException {
+		int from = index * CHUNK;
+		int to = Math.min(content.length, from + CHUNK);
+		return service.writeChunk(id, index, new ByteArrayInputStream(Arrays.copyOfRange(content, from, to)));
+	}
+}
@@ -0,0 +1,182 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import com.amarsalimprojects.real_estate_app.dto.requests.BulkStageUpdateRequest;
+import com.amarsalimprojects.real_estate_app.dto.responses.BulkStageUpdateResponse;
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+import com.amarsalimprojects.real_estate_app.enums.UnitType;
+import com.amarsalimprojects.real_estate_app.events.UnitChangePublisher;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+class ConstructionStageServiceTest {
+
+	private static final Long PROJECT_ID = 7L;
+
+	private NamedParameterJdbcTemplate jdbcTemplate;
+	private JdbcOperations jdbcOperations;
+	private UnitRepository unitRepository;
+	private UnitChangePublisher unitChanges;
+	private ConstructionStageService service;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+		jdbcOperations = mock(JdbcOperations.class);
+		when(jdbcTemplate.getJdbcOperations()).thenReturn(jdbcOperations);
+		unitRepository = mock(UnitRepository.class);
+		when(unitRepository.updateStageIn(anyCollection(), any(), any()))
+				.thenAnswer(call -> call.<Collection<Long>>getArgument(0).size());
+		ProjectRepository projectRepository = mock(ProjectRepository.class);
+		when(projectRepository.existsById(PROJECT_ID)).thenReturn(true);
+		unitChanges = mock(UnitChangePublisher.class);
+		service = new ConstructionStageService(jdbcTemplate, unitRepository, projectRepository, unitChanges);
+	}
+
+	@Test
+	void eligibleUnitsMoveWithOneUpdateOneHistoryBatchAndOneEvent() throws Exception {
+		lockedRows(new Object[][]{{1L, "FOUNDATION"}, {2L, null}, {3L, "ROOFING"}, {4L, "FITTINGS"}});
+
+		BulkStageUpdateResponse response = service.bulkUpdate(request(ConstructionStage.ROOFING, false));
+
+		assertEquals(4, response.getMatched());
+		assertEquals(2, response.getUpdated());
+		assertEquals(1, response.getAlreadyAtStage());
+		// Ahead of the target: moving it back needs allowRegression
+		assertEquals(List.of(4L), response.getSkippedUnitIds());
+		verify(unitRepository).updateStageIn(eq(Set.of(1L, 2L)), eq(ConstructionStage.ROOFING), any());
+
+		List<Object[]> history = history();
+		history.sort(Comparator.comparing(row -> (Long) row[0]));
+		assertEquals(2, history.size());
+		Timestamp changedAt = (Timestamp) history.get(0)[3];
+		assertArrayEquals(new Object[]{1L, "FOUNDATION", "ROOFING", changedAt, response.getBatchId()}, history.get(0));
+		assertArrayEquals(new Object[]{2L, null, "ROOFING", changedAt, response.getBatchId()}, history.get(1));
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<UnaryOperator<UnitSnapshot>> before = ArgumentCaptor.forClass(UnaryOperator.class);
+		verify(unitChanges).publishStageChanged(eq(response.getBatchId()), eq(ConstructionStage.ROOFING),
+				eq(Set.of(1L, 2L)), before.capture());
+		UnitSnapshot after = UnitSnapshot.builder().id(1L).currentStage(ConstructionStage.ROOFING).build();
+		assertEquals(ConstructionStage.FOUNDATION, before.getValue().apply(after).getCurrentStage());
+	}
+
+	@Test
+	void allowRegressionMovesUnitsBack() throws Exception {
+		lockedRows(new Object[][]{{1L, "FOUNDATION"}, {4L, "FITTINGS"}});
+
+		BulkStageUpdateResponse response = service.bulkUpdate(request(ConstructionStage.ROOFING, true));
+
+		assertTrue(response.getSkippedUnitIds().isEmpty());
+		assertEquals(2, response.getUpdated());
+		verify(unitRepository).updateStageIn(eq(Set.of(1L, 4L)), eq(ConstructionStage.ROOFING), any());
+	}
+
+	@Test
+	void unitsAlreadyAtTheStageWriteNothing() throws Exception {
+		lockedRows(new Object[][]{{1L, "ROOFING"}, {2L, "ROOFING"}});
+
+		BulkStageUpdateResponse response = service.bulkUpdate(request(ConstructionStage.ROOFING, false));
+
+		assertEquals(2, response.getMatched());
+		assertEquals(2, response.getAlreadyAtStage());
+		assertEquals(0, response.getUpdated());
+		verify(unitRepository, never()).updateStageIn(anyCollection(), any(), any());
+		verify(jdbcOperations, never()).batchUpdate(anyString(), anyList());
+		verify(unitChanges, never()).publishStageChanged(any(), any(), any(), any());
+	}
+
+	@Test
+	void selectionLocksOnlyTheRequestedFloorsAndTypes() throws Exception {
+		lockedRows(new Object[][]{});
+		BulkStageUpdateRequest request = request(ConstructionStage.ROOFING, false);
+		request.setFloorFrom(2);
+		request.setFloorTo(5);
+		request.setUnitTypes(List.of(UnitType.STUDIO, UnitType.PENTHOUSE, UnitType.STUDIO));
+
+		service.bulkUpdate(request);
+
+		ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+		verify(jdbcTemplate).query(sql.capture(), params.capture(), any(RowCallbackHandler.class));
+		assertEquals("SELECT id, current_stage FROM unit WHERE project_id = :projectId AND floor >= :floorFrom"
+				+ " AND floor <= :floorTo AND unit_type IN (:unitTypes) FOR UPDATE", sql.getValue());
+		MapSqlParameterSource values = (MapSqlParameterSource) params.getValue();
+		assertEquals(PROJECT_ID, values.getValue("projectId"));
+		assertEquals(2, values.getValue("floorFrom"));
+		assertEquals(5, values.getValue("floorTo"));
+		assertEquals(List.of("STUDIO", "PENTHOUSE"), values.getValue("unitTypes"));
+	}
+
+	@Test
+	void invertedFloorRangeIsRejected() {
+		BulkStageUpdateRequest request = request(ConstructionStage.ROOFING, false);
+		request.setFloorFrom(5);
+		request.setFloorTo(2);
+
+		assertThrows(IllegalArgumentException.class, () -> service.bulkUpdate(request));
+	}
+
+	private static BulkStageUpdateRequest request(ConstructionStage stage, boolean allowRegression) {
+		return BulkStageUpdateRequest.builder()
+				.projectId(PROJECT_ID)
+				.stage(stage)
+				.allowRegression(allowRegression)
+				.build();
+	}
+
+	// Feeds {id, current_stage} rows to the FOR UPDATE query's row handler
+	private void lockedRows(Object[][] rows) throws Exception {
+		doAnswer(call -> {
+			RowCallbackHandler handler = call.getArgument(2);
+			for (Object[] row : rows) {
+				ResultSet rs = mock(ResultSet.class);
+				when(rs.getLong("id")).thenReturn((Long) row[0]);
+				when(rs.getString("current_stage")).thenReturn((String) row[1]);
+				handler.processRow(rs);
+			}
+			return null;
+		}).when(jdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+	}
+
+	private List<Object[]> history() {
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+		verify(jdbcOperations).batchUpdate(eq("INSERT INTO unit_stage_history "
+				+ "(unit_id, from_stage, to_stage, changed_at, batch_id) VALUES (?, ?, ?, ?, ?)"), batch.capture());
+		return new ArrayList<>(batch.getValue());
+	}
+}
@@ -0,0 +1,87 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import com.amarsalimprojects.real_estate_app.dto.responses.UnitResponse;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+	@Mock
+	private UnitRepository unitRepository;
+
+	@Mock
+	private UnitService unitService;
+
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	@InjectMocks
+	private ExportService exportService;
+
+	@Test
+	void unitsAreReadInChunksAfterTheLastWrittenId() throws Exception {
+		List<UnitRepository.ListRow> first = rows(1, 500);
+		List<UnitRepository.ListRow> second = rows(501, 503);
+		when(unitRepository.findListRowsAfter(eq(0L), any(Limit.class))).thenReturn(first);
+		when(unitRepository.findListRowsAfter(eq(500L), any(Limit.class))).thenReturn(second);
+		when(unitService.toResponses(anyList())).thenAnswer(call -> call.<List<UnitRepository.ListRow>>getArgument(0)
+				.stream()
+				.map(row -> UnitResponse.builder().id(row.getId()).build())
+				.toList());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long count = exportService.exportUnits(out);
+
+		assertEquals(503, count);
+		assertEquals(503, out.toString().lines().count());
+		// Features and images are loaded once per chunk, and a short chunk ends the export
+		verify(unitService).toResponses(first);
+		verify(unitService).toResponses(second);
+		verify(unitRepository).findListRowsAfter(0L, Limit.of(500));
+		verify(unitRepository).findListRowsAfter(500L, Limit.of(500));
+		verifyNoMoreInteractions(unitRepository);
+	}
+
+	@Test
+	void emptyTableWritesNothing() throws Exception {
+		when(unitRepository.findListRowsAfter(eq(0L), any(Limit.class))).thenReturn(List.of());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		assertEquals(0, exportService.exportUnits(out));
+		assertEquals(0, out.size());
+		verifyNoMoreInteractions(unitService);
+	}
+
+	private static List<UnitRepository.ListRow> rows(long fromId, long toId) {
+		return LongStream.rangeClosed(fromId, toId)
+				.mapToObj(id -> {
+					UnitRepository.ListRow row = mock(UnitRepository.ListRow.class);
+					when(row.getId()).thenReturn(id);
+					return row;
+				})
+				.toList();
+	}
+}
@@ -0,0 +1,144 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ImageDeliveryServiceTest {
+
+	private static final byte[] CONTENT = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+	@TempDir
+	Path dir;
+
+	private Path image;
+	private ImageDeliveryService service;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		image = Files.write(dir.resolve("photo.jpg"), CONTENT);
+		service = new ImageDeliveryService(1024 * 1024, 1024, 2);
+	}
+
+	@Test
+	void servesWholeFileWithValidators() throws IOException {
+		MockHttpServletResponse response = get(null);
+
+		assertEquals(200, response.getStatus());
+		assertArrayEquals(CONTENT, response.getContentAsByteArray());
+		assertEquals("image/jpeg", response.getContentType());
+		assertTrue(response.getHeader(HttpHeaders.ETAG).startsWith("\""));
+	}
+
+	@Test
+	void matchingEtagIsNotModified() throws IOException {
+		String etag = get(null).getHeader(HttpHeaders.ETAG);
+		MockHttpServletRequest request = request(null);
+		request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.serve(image, request, response);
+
+		assertEquals(304, response.getStatus());
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	void servesSingleRanges() throws IOException {
+		MockHttpServletResponse middle = get("bytes=2-5");
+		assertEquals(206, middle.getStatus());
+		assertEquals("bytes 2-5/16", middle.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertArrayEquals(Arrays.copyOfRange(CONTENT, 2, 6), middle.getContentAsByteArray());
+
+		MockHttpServletResponse suffix = get("bytes=-3");
+		assertEquals("bytes 13-15/16", suffix.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertArrayEquals(Arrays.copyOfRange(CONTENT, 13, 16), suffix.getContentAsByteArray());
+
+		MockHttpServletResponse openEnded = get("bytes=10-999");
+		assertEquals("bytes 10-15/16", openEnded.getHeader(HttpHeaders.CONTENT_RANGE));
+	}
+
+	@Test
+	void unsatisfiableRangeIs416() throws IOException {
+		MockHttpServletResponse response = get("bytes=16-20");
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */16", response.getHeader(HttpHeaders.CONTENT_RANGE));
+	}
+
+	@Test
+	void multipleOrMalformedRangesGetTheWholeFile() throws IOException {
+		assertArrayEquals(CONTENT, get("bytes=0-1,4-5").getContentAsByteArray());
+		assertArrayEquals(CONTENT, get("lines=1-2").getContentAsByteArray());
+	}
+
+	@Test
+	void staleIfRangeGetsTheWholeFile() throws IOException {
+		MockHttpServletRequest request = request("bytes=0-3");
+		request.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.serve(image, request, response);
+
+		assertEquals(200, response.getStatus());
+		assertArrayEquals(CONTENT, response.getContentAsByteArray());
+	}
+
+	@Test
+	void smallFileIsCachedOnlyAfterRepeatRequests() throws IOException {
+		get(null);
+		assertFalse(service.isHot(image));
+
+		get(null);
+		assertTrue(service.isHot(image));
+		assertArrayEquals(Arrays.copyOfRange(CONTENT, 4, 8), get("bytes=4-7").getContentAsByteArray());
+	}
+
+	@Test
+	void largeFileIsNeverCached() throws IOException {
+		Path large = Files.write(dir.resolve("large.jpg"), new byte[2048]);
+		for (int i = 0; i < 3; i++) {
+			service.serve(large, request(null), new MockHttpServletResponse());
+		}
+		assertFalse(service.isHot(large));
+	}
+
+	@Test
+	void coldFileIsHandedToSendfile() throws IOException {
+		MockHttpServletRequest request = request("bytes=2-5");
+		request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.serve(image, request, response);
+
+		assertEquals(image.toAbsolutePath().toString(), request.getAttribute("org.apache.tomcat.sendfile.filename"));
+		assertEquals(2L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+		assertEquals(6L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	private MockHttpServletResponse get(String range) throws IOException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		service.serve(image, request(range), response);
+		return response;
+	}
+
+	private static MockHttpServletRequest request(String range) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/images/photo.jpg");
+		if (range != null) {
+			request.addHeader(HttpHeaders.RANGE, range);
+		}
+		return request;
+	}
+}
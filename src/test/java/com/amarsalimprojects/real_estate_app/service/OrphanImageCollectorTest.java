@@ -0,0 +1,110 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.amarsalimprojects.real_estate_app.dto.responses.ImageGcStatus;
+
+class OrphanImageCollectorTest {
+
+	private static final FileTime TWO_DAYS_AGO = FileTime.from(Instant.now().minus(Duration.ofDays(2)));
+
+	@TempDir
+	Path dir;
+
+	private ImageStore imageStore;
+	private OrphanImageCollector collector;
+
+	@BeforeEach
+	void setUp() {
+		// No references in the database: the name set is empty and every recheck comes back empty
+		imageStore = spy(new ImageStore(dir.toString(), mock(NamedParameterJdbcTemplate.class)));
+		doAnswer(call -> Map.of()).when(imageStore).referenceCounts(anyCollection());
+		collector = new OrphanImageCollector(imageStore, mock(ImageDerivativeService.class),
+				mock(ChunkedUploadService.class), mock(JdbcTemplate.class), "quarantine", 24, 30);
+	}
+
+	@Test
+	void quarantinesOldUnreferencedFiles() throws IOException {
+		Path file = storeOld("orphan");
+
+		collector.run();
+
+		assertFalse(Files.exists(file));
+		assertTrue(Files.exists(dir.resolve(OrphanImageCollector.QUARANTINE_DIR)
+				.resolve(dir.relativize(file))));
+		assertEquals(1, collector.status().getFilesCollected());
+	}
+
+	@Test
+	void keepsRecentFiles() throws IOException {
+		Path file = imageStore.resolve(imageStore.store(new ByteArrayInputStream("new".getBytes()), "jpg").filename());
+
+		collector.run();
+
+		assertTrue(Files.exists(file));
+	}
+
+	// A duplicate upload refreshes the mtime after the walk saw the file as old
+	@Test
+	void keepsFileReattachedDuringTheRun() throws IOException {
+		Path file = storeOld("reattached");
+		doAnswer(call -> {
+			imageStore.store(new ByteArrayInputStream("reattached".getBytes()), "jpg");
+			return Map.of();
+		}).when(imageStore).referenceCounts(anyCollection());
+
+		collector.run();
+
+		assertTrue(Files.exists(file));
+		ImageGcStatus status = collector.status();
+		assertEquals(0, status.getOrphansFound());
+		assertEquals(0, status.getFilesCollected());
+	}
+
+	@Test
+	void reportModeLeavesEveryFileInPlace() throws IOException {
+		collector = new OrphanImageCollector(imageStore, mock(ImageDerivativeService.class),
+				mock(ChunkedUploadService.class), mock(JdbcTemplate.class), "report", 24, 30);
+		Path file = storeOld("orphan");
+		Path abandoned = Files.createDirectories(dir.resolve(ImageStore.INCOMING_DIR)).resolve("abandoned.part");
+		Files.write(abandoned, "partial".getBytes());
+		Files.setLastModifiedTime(abandoned, TWO_DAYS_AGO);
+
+		collector.run();
+
+		assertTrue(Files.exists(file));
+		assertTrue(Files.exists(abandoned));
+		ImageGcStatus status = collector.status();
+		assertEquals(1, status.getOrphansFound());
+		assertEquals(0, status.getFilesCollected());
+		assertEquals(0, status.getTempFilesRemoved());
+	}
+
+	private Path storeOld(String content) throws IOException {
+		String filename = imageStore.store(new ByteArrayInputStream(content.getBytes()), "jpg").filename();
+		Path file = imageStore.resolve(filename);
+		Files.setLastModifiedTime(file, TWO_DAYS_AGO);
+		return file;
+	}
+}
@@ -0,0 +1,180 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.AdditionalMatchers.and;
+import static org.mockito.AdditionalMatchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.amarsalimprojects.real_estate_app.enums.InvoiceStatus;
+import com.amarsalimprojects.real_estate_app.enums.PaymentStatus;
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+import com.amarsalimprojects.real_estate_app.events.InvoiceChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.PaymentChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.ProjectChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.repository.ProjectStatsRepository;
+
+class ProjectDashboardServiceTest {
+
+	private static final Long PROJECT_ID = 7L;
+
+	// Column positions in INSERT_ROW / UPSERT_DELTA parameters
+	private static final int TOTAL = 4;
+	private static final int FIRST_STATUS = 5;
+	private static final int SOLD_VALUE = FIRST_STATUS + UnitStatus.values().length;
+	private static final int INVOICED_VALUE = SOLD_VALUE + 1;
+	private static final int REVENUE_COLLECTED = SOLD_VALUE + 2;
+
+	private JdbcTemplate jdbcTemplate;
+	private ProjectDashboardService service;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		when(jdbcTemplate.queryForList(startsWith("SELECT project_id FROM unit"), eq(Long.class), any()))
+				.thenReturn(List.of(PROJECT_ID));
+		when(jdbcTemplate.queryForList(startsWith("SELECT u.project_id FROM invoice"), eq(Long.class), any()))
+				.thenReturn(List.of(PROJECT_ID));
+		service = new ProjectDashboardService(jdbcTemplate, mock(ProjectStatsRepository.class), transactionManager);
+	}
+
+	@Test
+	void saleMovesAUnitBetweenStatusesAndAddsItsPrice() {
+		UnitSnapshot before = unit(UnitStatus.RESERVED, "250000");
+
+		service.onUnitChanged(new UnitChangedEvent(before, before.toBuilder().status(UnitStatus.SOLD).build()));
+
+		Object[] row = upsertedDelta();
+		assertEquals(PROJECT_ID, row[0]);
+		assertEquals(0L, row[TOTAL]);
+		assertEquals(-1L, row[FIRST_STATUS + UnitStatus.RESERVED.ordinal()]);
+		assertEquals(1L, row[FIRST_STATUS + UnitStatus.SOLD.ordinal()]);
+		assertEquals(0, new BigDecimal("250000").compareTo((BigDecimal) row[SOLD_VALUE]));
+	}
+
+	@Test
+	void changesToColumnsTheStatsIgnoreWriteNothing() {
+		UnitSnapshot before = unit(UnitStatus.AVAILABLE, "100");
+
+		service.onUnitChanged(new UnitChangedEvent(before, before.toBuilder().floor(9).featured(true).build()));
+
+		verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+	}
+
+	@Test
+	void cancelledAndRefundedInvoicesLeaveTheInvoicedValue() {
+		service.onInvoiceChanged(new InvoiceChangedEvent(
+				invoice(InvoiceStatus.PENDING, "1200"), invoice(InvoiceStatus.CANCELLED, "1200")));
+
+		assertEquals(0, new BigDecimal("-1200").compareTo((BigDecimal) upsertedDelta()[INVOICED_VALUE]));
+	}
+
+	@Test
+	void invoiceChangesThatKeepItCountedAtTheSameAmountWriteNothing() {
+		service.onInvoiceChanged(new InvoiceChangedEvent(
+				invoice(InvoiceStatus.PENDING, "1200"), invoice(InvoiceStatus.PENDING, "1200.00")));
+		service.onInvoiceChanged(new InvoiceChangedEvent(null, invoice(InvoiceStatus.REFUNDED, "50")));
+		service.onInvoiceChanged(new InvoiceChangedEvent(null, invoice(InvoiceStatus.PENDING, null)));
+
+		verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+	}
+
+	@Test
+	void onlyCompletedPaymentsCountAsRevenue() {
+		service.onPaymentChanged(new PaymentChangedEvent(null, payment(PaymentStatus.COMPLETED, "300")));
+		assertEquals(0, new BigDecimal("300").compareTo((BigDecimal) upsertedDelta()[REVENUE_COLLECTED]));
+
+		clearInvocations(jdbcTemplate);
+		service.onPaymentChanged(new PaymentChangedEvent(
+				payment(PaymentStatus.COMPLETED, "300"), payment(PaymentStatus.FAILED, "300")));
+		assertEquals(0, new BigDecimal("-300").compareTo((BigDecimal) upsertedDelta()[REVENUE_COLLECTED]));
+	}
+
+	@Test
+	void writesDuringARebuildAreReplayedAfterTheRecomputedRows() {
+		doAnswer(call -> {
+			// A sale and a project delete commit while the unit totals are being read
+			UnitSnapshot before = unit(UnitStatus.AVAILABLE, "100");
+			service.onUnitChanged(new UnitChangedEvent(before, before.toBuilder().status(UnitStatus.SOLD).build()));
+			service.onProjectChanged(new ProjectChangedEvent(8L, true));
+			return null;
+		}).doNothing().when(jdbcTemplate).query(startsWith("SELECT project_id, status"), any(RowCallbackHandler.class));
+
+		service.rebuild();
+
+		InOrder order = inOrder(jdbcTemplate);
+		order.verify(jdbcTemplate).update("DELETE FROM project_stats");
+		order.verify(jdbcTemplate).batchUpdate(
+				and(startsWith("INSERT INTO project_stats"), not(contains("ON DUPLICATE"))), anyList());
+		order.verify(jdbcTemplate).batchUpdate(contains("ON DUPLICATE KEY UPDATE total_units"), anyList());
+		order.verify(jdbcTemplate).update("DELETE FROM project_stats WHERE project_id = ?", 8L);
+	}
+
+	@Test
+	void writesDuringAFailedRebuildAreStillApplied() {
+		doAnswer(call -> {
+			service.onPaymentChanged(new PaymentChangedEvent(null, payment(PaymentStatus.COMPLETED, "10")));
+			return null;
+		}).when(jdbcTemplate).query(startsWith("SELECT project_id, status"), any(RowCallbackHandler.class));
+		doThrow(new IllegalStateException("lock wait timeout")).when(jdbcTemplate).update("DELETE FROM project_stats");
+
+		assertThrows(IllegalStateException.class, service::rebuild);
+
+		assertEquals(0, BigDecimal.TEN.compareTo((BigDecimal) upsertedDelta()[REVENUE_COLLECTED]));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object[] upsertedDelta() {
+		ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate).batchUpdate(contains("ON DUPLICATE KEY UPDATE total_units"), rows.capture());
+		assertEquals(1, rows.getValue().size());
+		return rows.getValue().get(0);
+	}
+
+	private static UnitSnapshot unit(UnitStatus status, String price) {
+		return UnitSnapshot.builder()
+				.id(5L)
+				.projectId(PROJECT_ID)
+				.status(status)
+				.floor(1)
+				.price(new BigDecimal(price))
+				.build();
+	}
+
+	private static InvoiceChangedEvent.State invoice(InvoiceStatus status, String amount) {
+		return new InvoiceChangedEvent.State(3L, 5L, amount != null ? new BigDecimal(amount) : null, status);
+	}
+
+	private static PaymentChangedEvent.State payment(PaymentStatus status, String amount) {
+		return new PaymentChangedEvent.State(4L, 3L, new BigDecimal(amount), status);
+	}
+}
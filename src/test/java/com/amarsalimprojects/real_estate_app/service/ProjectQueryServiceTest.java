@@ -0,0 +1,304 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import com.amarsalimprojects.real_estate_app.dto.responses.KeysetPage;
+import com.amarsalimprojects.real_estate_app.dto.responses.ProjectResponse;
+import com.amarsalimprojects.real_estate_app.dto.responses.UnitResponse;
+import com.amarsalimprojects.real_estate_app.model.Project;
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+import com.amarsalimprojects.real_estate_app.util.CursorCodec;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Runs findPage against an in-memory table. ProjectRepository.findBy evaluates the keyset
+ * Specification with a small criteria interpreter and orders rows the way MySQL does (nulls
+ * first ascending, last descending), so paging through a sort must visit every row once.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProjectQueryServiceTest {
+
+	private static final Map<String, Function<Project, Object>> COLUMNS = Map.of(
+			"id", Project::getId,
+			"name", Project::getName,
+			"minPrice", Project::getMinPrice,
+			"targetCompletionDate", Project::getTargetCompletionDate,
+			"createdAt", Project::getCreatedAt,
+			"updatedAt", Project::getUpdatedAt);
+
+	@Mock
+	private ProjectRepository projectRepository;
+
+	@Mock
+	private UnitRepository unitRepository;
+
+	@Mock
+	private UnitService unitService;
+
+	@InjectMocks
+	private ProjectQueryService projectQueryService;
+
+	private final List<Project> table = new ArrayList<>();
+	private final List<Integer> fetchedLimits = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		LocalDateTime base = LocalDateTime.of(2027, 1, 1, 0, 0);
+		for (long id = 1; id <= 23; id++) {
+			table.add(Project.builder()
+					.id(id)
+					.name("Project " + (char) ('A' + (id * 7) % 23))
+					// Every fourth price is missing and the rest repeat, so ties and nulls both span pages
+					.minPrice(id % 4 == 0 ? null : BigDecimal.valueOf(1_000_000L * (id % 3)))
+					.targetCompletionDate(id % 5 == 0 ? null : base.plusMonths(id % 6))
+					.createdAt(base.minusDays(id))
+					.updatedAt(base.minusDays(id % 4))
+					.build());
+		}
+		lenient().when(projectRepository.findBy(any(Specification.class), any())).thenAnswer(call -> {
+			Specification<Project> spec = call.getArgument(0);
+			Function<JpaSpecificationExecutor.SpecificationFluentQuery<Project>, Object> query = call.getArgument(1);
+			return query.apply(fluentQuery(spec));
+		});
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+		"id, asc", "id, desc",
+		"name, asc", "name, desc",
+		"minPrice, asc", "minPrice, desc",
+		"targetCompletionDate, asc", "targetCompletionDate, desc",
+		"updatedAt, asc", "updatedAt, desc"
+	})
+	void pagingVisitsEveryRowOnceInSortOrder(String sortBy, String sortDir) {
+		List<Long> expected = sorted(table.stream(), sortBy, sortDir.equals("desc")).map(Project::getId).toList();
+
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			KeysetPage<Project> page = projectQueryService.findPage(sortBy, sortDir, cursor, 4, false);
+			page.getItems().forEach(project -> seen.add(project.getId()));
+			assertEquals(page.isHasMore(), page.getNextCursor() != null);
+			cursor = page.getNextCursor();
+			assertTrue(++pages <= table.size(), "paging does not terminate");
+		} while (cursor != null);
+
+		assertEquals(expected, seen);
+		assertEquals(seen.size(), new HashSet<>(seen).size());
+	}
+
+	@Test
+	void fetchesOneExtraRowToDetectTheNextPage() {
+		KeysetPage<Project> page = projectQueryService.findPage("id", "asc", null, 23, false);
+
+		assertEquals(List.of(24), fetchedLimits);
+		assertEquals(23, page.getItems().size());
+		assertFalse(page.isHasMore());
+		assertNull(page.getNextCursor());
+
+		page = projectQueryService.findPage("id", "asc", null, 22, false);
+		assertTrue(page.isHasMore());
+		assertEquals(22, page.getItems().size());
+	}
+
+	@Test
+	void cursorOnANullValueResumesInsideTheNullGroup() {
+		// Ascending, nulls come first: ids 4, 8, 12, 16, 20
+		KeysetPage<Project> first = projectQueryService.findPage("minPrice", "asc", null, 2, false);
+		assertEquals(List.of(4L, 8L), first.getItems().stream().map(Project::getId).toList());
+
+		String[] parts = CursorCodec.decode(first.getNextCursor(), 5);
+		assertEquals(List.of("minPrice", "asc", "0", "", "8"), Arrays.asList(parts));
+
+		KeysetPage<Project> second = projectQueryService.findPage("minPrice", "asc", first.getNextCursor(), 4, false);
+		assertEquals(List.of(12L, 16L, 20L), second.getItems().stream().limit(3).map(Project::getId).toList());
+		assertEquals(BigDecimal.ZERO, second.getItems().get(3).getMinPrice());
+	}
+
+	@Test
+	void cursorIsBoundToItsSort() {
+		String byName = projectQueryService.findPage("name", "asc", null, 2, false).getNextCursor();
+
+		assertThrows(IllegalArgumentException.class, () -> projectQueryService.findPage("minPrice", "asc", byName, 2, false));
+		assertThrows(IllegalArgumentException.class, () -> projectQueryService.findPage("name", "desc", byName, 2, false));
+		assertEquals(2, projectQueryService.findPage("name", "asc", byName, 2, false).getItems().size());
+	}
+
+	@Test
+	void malformedRequestsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> projectQueryService.findPage("id", "asc", "not a cursor!", 2, false));
+		String badValue = CursorCodec.encode("minPrice", "asc", "1", "cheap", "3");
+		assertThrows(IllegalArgumentException.class, () -> projectQueryService.findPage("minPrice", "asc", badValue, 2, false));
+		assertThrows(IllegalArgumentException.class, () -> projectQueryService.findPage("constructionProgress", "asc", null, 2, false));
+		assertThrows(IllegalArgumentException.class, () -> projectQueryService.findPage("id", "up", null, 2, false));
+		assertThrows(IllegalArgumentException.class, () -> projectQueryService.findPage("id", "asc", null, 0, false));
+		assertThrows(IllegalArgumentException.class,
+				() -> projectQueryService.findPage("id", "asc", null, ProjectQueryService.MAX_PAGE_SIZE + 1, false));
+	}
+
+	@Test
+	void totalIsOnlyCountedWhenAskedFor() {
+		when(projectRepository.count()).thenReturn(23L);
+
+		assertNull(projectQueryService.findPage("id", "asc", null, 5, false).getTotal());
+		assertEquals(23L, projectQueryService.findPage("id", "asc", null, 5, true).getTotal());
+	}
+
+	@Test
+	void projectDetailIsACopyThatOutlivesTheEntity() {
+		Project project = table.get(0);
+		project.setImages(new ArrayList<>(List.of("a.jpg")));
+		List<UnitRepository.ListRow> rows = List.of();
+		when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+		when(unitRepository.findListRowsByProjectId(1L)).thenReturn(rows);
+		when(unitService.toResponses(rows)).thenReturn(List.of(UnitResponse.builder().id(5L).projectId(1L).build()));
+
+		String name = project.getName();
+
+		ProjectResponse response = projectQueryService.findProject(1L).orElseThrow();
+		project.getImages().add("b.jpg");
+		project.setName("Renamed");
+
+		assertEquals(name, response.getName());
+		assertEquals(List.of("a.jpg"), response.getImages());
+		assertEquals(5L, response.getUnits().get(0).getId());
+		assertThrows(UnsupportedOperationException.class, () -> response.getUnits().add(null));
+		assertTrue(response.getAmenities().isEmpty());
+	}
+
+	// MySQL order: nulls first ascending, last descending; id breaks ties in the same direction
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Stream<Project> sorted(Stream<Project> rows, String attribute, boolean descending) {
+		Comparator<Comparable> natural = Comparator.naturalOrder();
+		Comparator<Project> byValue = Comparator.comparing(project -> (Comparable) COLUMNS.get(attribute).apply(project),
+				descending ? Comparator.nullsLast(natural.reversed()) : Comparator.nullsFirst(natural));
+		Comparator<Project> byId = Comparator.comparing(Project::getId);
+		return rows.sorted(byValue.thenComparing(descending ? byId.reversed() : byId));
+	}
+
+	@SuppressWarnings("unchecked")
+	private JpaSpecificationExecutor.SpecificationFluentQuery<Project> fluentQuery(Specification<Project> spec) {
+		Sort[] sort = {Sort.unsorted()};
+		int[] limit = {Integer.MAX_VALUE};
+		return (JpaSpecificationExecutor.SpecificationFluentQuery<Project>) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[]{JpaSpecificationExecutor.SpecificationFluentQuery.class}, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "sortBy" -> sort[0] = (Sort) args[0];
+				case "limit" -> {
+					limit[0] = (int) args[0];
+					fetchedLimits.add(limit[0]);
+				}
+				case "all" -> {
+					Predicate predicate = spec.toPredicate(proxy(Root.class, name -> COLUMNS.get((String) name)), null,
+							proxy(CriteriaBuilder.class, null));
+					Stream<Project> rows = table.stream().filter(row -> predicate == null || (Boolean) eval(predicate, row));
+					Sort.Order order = sort[0].iterator().next();
+					return sorted(rows, order.getProperty(), order.isDescending()).limit(limit[0]).toList();
+				}
+				default -> throw new UnsupportedOperationException(method.getName());
+			}
+			return proxy;
+		});
+	}
+
+	// Root.get(name) yields a column; CriteriaBuilder methods yield expressions over a row
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, Function<Object, Function<Project, Object>> columns) {
+		return (T) Proxy.newProxyInstance(ProjectQueryServiceTest.class.getClassLoader(), new Class<?>[]{type},
+				(proxy, method, args) -> columns != null
+						? expression(columns.apply(args[0]))
+						: expression(criteria(method, args)));
+	}
+
+	private static Function<Project, Object> criteria(Method method, Object[] args) {
+		return switch (method.getName()) {
+			case "isNull" -> row -> eval(args[0], row) == null;
+			case "isNotNull" -> row -> eval(args[0], row) != null;
+			case "equal" -> row -> compare(args, row, sign -> sign == 0);
+			case "lessThan" -> row -> compare(args, row, sign -> sign < 0);
+			case "greaterThan" -> row -> compare(args, row, sign -> sign > 0);
+			case "and" -> row -> operands(args).allMatch(operand -> Boolean.TRUE.equals(eval(operand, row)));
+			case "or" -> row -> operands(args).anyMatch(operand -> Boolean.TRUE.equals(eval(operand, row)));
+			default -> throw new UnsupportedOperationException(method.getName());
+		};
+	}
+
+	// SQL semantics: any comparison with NULL is not true
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static boolean compare(Object[] args, Project row, IntPredicate test) {
+		Object left = eval(args[0], row);
+		Object right = eval(args[1], row);
+		return left != null && right != null && test.test(((Comparable) left).compareTo(right));
+	}
+
+	private static Stream<Object> operands(Object[] args) {
+		return Arrays.stream(args).flatMap(arg -> arg instanceof Object[] array ? Arrays.stream(array) : Stream.of(arg));
+	}
+
+	private static Object expression(Function<Project, Object> evaluator) {
+		InvocationHandler handler = new Evaluator(evaluator);
+		return Proxy.newProxyInstance(ProjectQueryServiceTest.class.getClassLoader(),
+				new Class<?>[]{Predicate.class, jakarta.persistence.criteria.Path.class}, handler);
+	}
+
+	private static Object eval(Object value, Project row) {
+		if (value != null && Proxy.isProxyClass(value.getClass())
+				&& Proxy.getInvocationHandler(value) instanceof Evaluator evaluator) {
+			return evaluator.function.apply(row);
+		}
+		return value;
+	}
+
+	private record Evaluator(Function<Project, Object> function) implements InvocationHandler {
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			return switch (method.getName()) {
+				case "hashCode" -> System.identityHashCode(proxy);
+				case "equals" -> proxy == args[0];
+				case "toString" -> "expression";
+				default -> throw new UnsupportedOperationException(method.getName());
+			};
+		}
+	}
+}
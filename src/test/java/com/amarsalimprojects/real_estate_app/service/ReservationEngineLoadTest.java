@@ -0,0 +1,153 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.amarsalimprojects.real_estate_app.components.UnitInventoryIndex;
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+import com.amarsalimprojects.real_estate_app.events.UnitChangePublisher;
+import com.amarsalimprojects.real_estate_app.events.UnitChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.repository.BuyerProfileRepository;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+/**
+ * Many buyers racing for the same few units. The database is simulated: the conditional
+ * UPDATE is a compare-and-set on a map with a small artificial latency, which is the
+ * property the engine relies on from MySQL.
+ */
+class ReservationEngineLoadTest {
+
+	private static final int UNITS = 20;
+	private static final int BUYERS_PER_UNIT = 400;
+	private static final long DB_LATENCY_MS = 1;
+
+	private final Map<Long, UnitStatus> table = new ConcurrentHashMap<>();
+	private final Map<Long, Long> holders = new ConcurrentHashMap<>();
+	private final Map<Long, UnitStatus> committedIndex = new ConcurrentHashMap<>();
+	private final AtomicInteger updates = new AtomicInteger();
+
+	private UnitRepository unitRepository;
+	private UnitInventoryIndex inventoryIndex;
+	private ReservationEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		// Stub-only mocks skip invocation recording, which would otherwise serialize the racers
+		unitRepository = mock(UnitRepository.class, withSettings().stubOnly());
+		inventoryIndex = mock(UnitInventoryIndex.class, withSettings().stubOnly());
+		ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class, withSettings().stubOnly());
+
+		for (long id = 1; id <= UNITS; id++) {
+			table.put(id, UnitStatus.AVAILABLE);
+		}
+
+		when(unitRepository.reserveIfAvailable(anyLong(), any(), anyLong(), any(), any())).thenAnswer(call -> {
+			updates.incrementAndGet();
+			Thread.sleep(DB_LATENCY_MS);
+			Long id = call.getArgument(0);
+			if (table.replace(id, UnitStatus.AVAILABLE, UnitStatus.RESERVED)) {
+				holders.put(id, call.getArgument(2));
+				return 1;
+			}
+			return 0;
+		});
+		when(unitRepository.existsById(anyLong())).thenAnswer(call -> table.containsKey(call.<Long>getArgument(0)));
+		when(unitRepository.findSnapshotsByIdIn(anyCollection())).thenAnswer(call -> {
+			Long id = call.<List<Long>>getArgument(0).get(0);
+			return List.of(UnitSnapshot.builder().id(id).status(table.get(id)).build());
+		});
+		// Stands in for the index applying the committed change
+		doAnswer(call -> {
+			UnitSnapshot after = call.<UnitChangedEvent>getArgument(0).getAfter();
+			committedIndex.put(after.getId(), after.getStatus());
+			return null;
+		}).when(eventPublisher).publishEvent(any(Object.class));
+
+		engine = new ReservationEngine(unitRepository, mock(BuyerProfileRepository.class), inventoryIndex,
+				new UnitChangePublisher(unitRepository, eventPublisher), mock(PlatformTransactionManager.class, withSettings().stubOnly()), 30, 60_000);
+	}
+
+	@Test
+	void oneWinnerPerUnitWithIndexFastPath() throws Exception {
+		when(inventoryIndex.statusOf(anyLong())).thenAnswer(call -> committedIndex.getOrDefault(call.<Long>getArgument(0), UnitStatus.AVAILABLE));
+
+		Map<ReservationEngine.Outcome, Integer> outcomes = race(5_000);
+
+		assertOneWinnerPerUnit(outcomes);
+		// Losers queued behind the winner are settled by the index, not by another UPDATE
+		assertEquals(UNITS, updates.get());
+	}
+
+	@Test
+	void oneWinnerPerUnitWhenIndexNotReady() throws Exception {
+		when(inventoryIndex.statusOf(anyLong())).thenReturn(null);
+
+		// Every loser now pays for its own UPDATE, one after another per unit
+		Map<ReservationEngine.Outcome, Integer> outcomes = race(30_000);
+
+		assertOneWinnerPerUnit(outcomes);
+	}
+
+	private Map<ReservationEngine.Outcome, Integer> race(long maxMillis) throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger buyerIds = new AtomicInteger();
+		List<Future<ReservationEngine.Outcome>> attempts = new ArrayList<>();
+
+		long began;
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (long unitId = 1; unitId <= UNITS; unitId++) {
+				for (int i = 0; i < BUYERS_PER_UNIT; i++) {
+					long id = unitId;
+					long buyerId = buyerIds.incrementAndGet();
+					attempts.add(executor.submit(() -> {
+						start.await();
+						return engine.tryReserve(id, buyerId);
+					}));
+				}
+			}
+			began = System.nanoTime();
+			start.countDown();
+
+			Map<ReservationEngine.Outcome, Integer> outcomes = new EnumMap<>(ReservationEngine.Outcome.class);
+			for (Future<ReservationEngine.Outcome> attempt : attempts) {
+				outcomes.merge(attempt.get(maxMillis, TimeUnit.MILLISECONDS), 1, Integer::sum);
+			}
+			long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - began);
+			assertTrue(elapsedMs < maxMillis, "race took " + elapsedMs + " ms");
+			return outcomes;
+		}
+	}
+
+	private void assertOneWinnerPerUnit(Map<ReservationEngine.Outcome, Integer> outcomes) {
+		assertEquals(UNITS, outcomes.getOrDefault(ReservationEngine.Outcome.RESERVED, 0));
+		assertEquals(UNITS * (BUYERS_PER_UNIT - 1), outcomes.getOrDefault(ReservationEngine.Outcome.UNAVAILABLE, 0));
+		assertEquals(0, outcomes.getOrDefault(ReservationEngine.Outcome.BUSY, 0));
+		assertEquals(UNITS, holders.size());
+		table.values().forEach(status -> assertEquals(UnitStatus.RESERVED, status));
+	}
+}
@@ -0,0 +1,100 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.amarsalimprojects.real_estate_app.events.UnitChangePublisher;
+import com.amarsalimprojects.real_estate_app.mapper.UnitMapper;
+import com.amarsalimprojects.real_estate_app.repository.ProjectRepository;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class UnitImportServiceTest {
+
+	private UnitImportService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new UnitImportService(mock(JdbcTemplate.class), mock(UnitRepository.class),
+				mock(ProjectRepository.class), mock(UnitMapper.class), new ObjectMapper(),
+				mock(UnitChangePublisher.class), mock(PlatformTransactionManager.class));
+	}
+
+	@Test
+	void jsonRowsAreReadOneAtATime() throws IOException {
+		// The array is cut off after the second element; the first two are still readable
+		UnitImportService.RowReader rows = service.openJson(body(
+				"[{\"unitNumber\":\"A-1\",\"floor\":1},{\"unitNumber\":\"A-2\"},{\"unitNumber\":"));
+
+		UnitImportService.ImportRow first = rows.next();
+		assertEquals(1, first.row());
+		assertEquals("A-1", first.request().getUnitNumber());
+		assertEquals(1, first.request().getFloor());
+		assertEquals("A-2", rows.next().request().getUnitNumber());
+		assertThrows(IOException.class, rows::hasNext);
+	}
+
+	@Test
+	void jsonBodyMustBeAnArray() {
+		assertThrows(IllegalArgumentException.class, () -> service.openJson(body("{\"unitNumber\":\"A-1\"}")));
+	}
+
+	@Test
+	void unreadableJsonRowIsARowError() throws IOException {
+		UnitImportService.RowReader rows = service.openJson(body("[{\"floor\":\"ground\"},{\"unitNumber\":\"A-2\"}]"));
+
+		UnitImportService.ImportRow bad = rows.next();
+		assertNull(bad.request());
+		assertNotNull(bad.error());
+		assertEquals("A-2", rows.next().request().getUnitNumber());
+		assertFalse(rows.hasNext());
+	}
+
+	@Test
+	void csvRowsFollowTheHeader() throws IOException {
+		UnitImportService.RowReader rows = service.openCsv(body("""
+				unitNumber,description,features
+				B-1,"Corner, sea view",Balcony|Parking
+
+				B-2,,
+				"""));
+
+		UnitImportService.ImportRow first = rows.next();
+		assertEquals(1, first.row());
+		assertEquals("Corner, sea view", first.request().getDescription());
+		assertEquals(List.of("Balcony", "Parking"), first.request().getFeatures());
+		UnitImportService.ImportRow second = rows.next();
+		assertEquals(2, second.row());
+		assertNull(second.request().getDescription());
+		assertFalse(rows.hasNext());
+	}
+
+	@Test
+	void csvWithoutHeaderIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> service.openCsv(body("")));
+	}
+
+	@Test
+	void emptyArrayHasNoRows() throws IOException {
+		assertFalse(service.openJson(body("[]")).hasNext());
+	}
+
+	private static InputStream body(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,63 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+import com.amarsalimprojects.real_estate_app.events.BuyerContactChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitChangePublisher;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+@ExtendWith(MockitoExtension.class)
+class UnitServiceTest {
+
+	@Mock
+	private UnitRepository unitRepository;
+
+	@Mock
+	private UnitChangePublisher unitChanges;
+
+	@InjectMocks
+	private UnitService unitService;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void buyerEmailChangeTouchesAndPublishesTheBuyersUnits() {
+		when(unitRepository.findIdsByBuyerId(3L)).thenReturn(List.of(11L, 12L));
+		when(unitRepository.touchByIdIn(eq(List.of(11L, 12L)), any())).thenReturn(2);
+
+		unitService.onBuyerContactChanged(new BuyerContactChangedEvent(3L));
+
+		ArgumentCaptor<UnaryOperator<UnitSnapshot>> before = ArgumentCaptor.forClass(UnaryOperator.class);
+		verify(unitChanges).publishUpdated(eq(List.of(11L, 12L)), before.capture());
+		// Nothing a snapshot holds changed; the event is there for the caches
+		UnitSnapshot unit = UnitSnapshot.builder().id(11L).status(UnitStatus.SOLD).build();
+		assertEquals(unit, before.getValue().apply(unit));
+	}
+
+	@Test
+	void buyerWithoutUnitsPublishesNothing() {
+		when(unitRepository.findIdsByBuyerId(3L)).thenReturn(List.of());
+
+		unitService.onBuyerContactChanged(new BuyerContactChangedEvent(3L));
+
+		verify(unitRepository, never()).touchByIdIn(any(), any());
+		verifyNoInteractions(unitChanges);
+	}
+}
@@ -0,0 +1,124 @@
+package com.amarsalimprojects.real_estate_app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.amarsalimprojects.real_estate_app.dto.requests.UnitStatistics;
+import com.amarsalimprojects.real_estate_app.enums.ConstructionStage;
+import com.amarsalimprojects.real_estate_app.enums.UnitStatus;
+import com.amarsalimprojects.real_estate_app.events.ProjectChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitChangedEvent;
+import com.amarsalimprojects.real_estate_app.events.UnitSnapshot;
+import com.amarsalimprojects.real_estate_app.repository.UnitRepository;
+
+class UnitStatisticsServiceTest {
+
+	private UnitRepository unitRepository;
+	private UnitStatisticsService service;
+
+	@BeforeEach
+	void setUp() {
+		unitRepository = mock(UnitRepository.class);
+		UnitRepository.StatisticsRow first = row(1L, 3L, 2L, "300", 2L, "100", "200");
+		UnitRepository.StatisticsRow second = row(2L, 2L, 1L, "400", 1L, "400", "400");
+		// Everything sold: no priced available units
+		UnitRepository.StatisticsRow soldOut = row(3L, 4L, 0L, null, 0L, null, null);
+		when(unitRepository.findStatisticsByProject()).thenReturn(List.of(first, second, soldOut));
+		service = new UnitStatisticsService(unitRepository);
+	}
+
+	@Test
+	void overallFiguresCombineTheProjectRows() {
+		UnitStatistics overall = service.getStatistics();
+
+		assertEquals(9L, overall.getTotalUnits());
+		assertEquals(3L, overall.getAvailableUnits());
+		// Sum over count across projects, not the average of the project averages (150 and 400)
+		assertEquals(new BigDecimal("233.33"), overall.getAverageAvailablePrice());
+		assertEquals(new BigDecimal("100"), overall.getMinAvailablePrice());
+		assertEquals(new BigDecimal("400"), overall.getMaxAvailablePrice());
+	}
+
+	@Test
+	void projectFiguresComeFromTheirOwnRow() {
+		UnitStatistics first = service.getStatistics(1L);
+		assertEquals(3L, first.getTotalUnits());
+		assertEquals(new BigDecimal("150.00"), first.getAverageAvailablePrice());
+		assertEquals(new BigDecimal("100"), first.getMinAvailablePrice());
+		assertEquals(new BigDecimal("200"), first.getMaxAvailablePrice());
+
+		UnitStatistics soldOut = service.getStatistics(3L);
+		assertEquals(4L, soldOut.getTotalUnits());
+		assertNull(soldOut.getAverageAvailablePrice());
+		assertNull(soldOut.getMinAvailablePrice());
+
+		assertEquals(0L, service.getStatistics(99L).getTotalUnits());
+	}
+
+	@Test
+	void snapshotIsReusedUntilAFigureCanMove() {
+		service.getStatistics();
+		service.onUnitChanged(change(unit(UnitStatus.AVAILABLE, ConstructionStage.FOUNDATION),
+				unit(UnitStatus.AVAILABLE, ConstructionStage.STRUCTURE)));
+		service.getStatistics(1L);
+		verify(unitRepository, times(1)).findStatisticsByProject();
+
+		service.onUnitChanged(change(unit(UnitStatus.AVAILABLE, ConstructionStage.STRUCTURE),
+				unit(UnitStatus.SOLD, ConstructionStage.STRUCTURE)));
+		service.getStatistics();
+		verify(unitRepository, times(2)).findStatisticsByProject();
+
+		service.onProjectChanged(new ProjectChangedEvent(2L, true));
+		service.getStatistics();
+		verify(unitRepository, times(3)).findStatisticsByProject();
+	}
+
+	@Test
+	void rebuildThatRacedAChangeIsNotReused() {
+		UnitRepository.StatisticsRow row = row(1L, 1L, 1L, "100", 1L, "100", "100");
+		when(unitRepository.findStatisticsByProject()).thenAnswer(call -> {
+			service.onUnitChanged(change(unit(UnitStatus.AVAILABLE, ConstructionStage.FOUNDATION),
+					unit(UnitStatus.RESERVED, ConstructionStage.FOUNDATION)));
+			return List.of(row);
+		}).thenReturn(List.of(row));
+
+		service.getStatistics();
+		service.getStatistics();
+		service.getStatistics();
+
+		// The first result may predate the reservation; the second is kept
+		verify(unitRepository, times(2)).findStatisticsByProject();
+	}
+
+	private static UnitRepository.StatisticsRow row(Long projectId, Long total, Long available,
+			String priceSum, Long priced, String min, String max) {
+		UnitRepository.StatisticsRow row = mock(UnitRepository.StatisticsRow.class);
+		when(row.getProjectId()).thenReturn(projectId);
+		when(row.getTotal()).thenReturn(total);
+		when(row.getAvailable()).thenReturn(available);
+		when(row.getAvailablePriceSum()).thenReturn(priceSum != null ? new BigDecimal(priceSum) : null);
+		when(row.getAvailablePriced()).thenReturn(priced);
+		when(row.getMinAvailablePrice()).thenReturn(min != null ? new BigDecimal(min) : null);
+		when(row.getMaxAvailablePrice()).thenReturn(max != null ? new BigDecimal(max) : null);
+		return row;
+	}
+
+	private static UnitSnapshot unit(UnitStatus status, ConstructionStage stage) {
+		return UnitSnapshot.builder().id(10L).projectId(1L).status(status).currentStage(stage)
+				.price(new BigDecimal("100")).build();
+	}
+
+	private static UnitChangedEvent change(UnitSnapshot before, UnitSnapshot after) {
+		return new UnitChangedEvent(before, after);
+	}
+}
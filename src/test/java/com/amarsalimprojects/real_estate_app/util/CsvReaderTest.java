@@ -0,0 +1,47 @@
+package com.amarsalimprojects.real_estate_app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+
+	@Test
+	void quotedFieldsKeepSeparatorsLineBreaksAndEscapedQuotes() throws IOException {
+		String csv = "unitNumber,description,price\r\n"
+				+ "A-101,\"Corner unit, sea view\",100\r\n"
+				+ "A-102,\"Says \"\"new\"\"\nand more\",\r\n";
+
+		assertEquals(List.of(
+				List.of("unitNumber", "description", "price"),
+				List.of("A-101", "Corner unit, sea view", "100"),
+				List.of("A-102", "Says \"new\"\nand more", "")), CsvReader.read(new StringReader(csv)));
+	}
+
+	@Test
+	void blankLinesAreSkippedAndEmptyFieldsKept() throws IOException {
+		assertEquals(List.of(List.of("a", "", "c"), List.of("", ""), List.of("\"\"")),
+				CsvReader.read(new StringReader("\n\na,,c\n\n,\n\"\"\"\"\"\"")));
+	}
+
+	@Test
+	void recordsAreReadOneAtATime() throws IOException {
+		CsvReader reader = new CsvReader(new StringReader("a,b\nc,d"));
+
+		assertEquals(List.of("a", "b"), reader.readRecord());
+		assertEquals(List.of("c", "d"), reader.readRecord());
+		assertNull(reader.readRecord());
+		assertNull(reader.readRecord());
+	}
+
+	@Test
+	void unterminatedQuoteIsAnError() {
+		assertThrows(IOException.class, () -> CsvReader.read(new StringReader("a,\"open\nb,c")));
+	}
+}
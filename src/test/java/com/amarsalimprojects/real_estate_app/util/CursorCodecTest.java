@@ -0,0 +1,39 @@
+package com.amarsalimprojects.real_estate_app.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class CursorCodecTest {
+
+	@Test
+	void roundTripsPartsIncludingEmptyAndNonAscii() {
+		String[] parts = {"name", "asc", "0", "", "Résidence Al Amal / 2", "42"};
+
+		String cursor = CursorCodec.encode(parts);
+
+		assertTrue(cursor.matches("[A-Za-z0-9_-]+"), "cursor must be URL-safe without padding");
+		assertArrayEquals(parts, CursorCodec.decode(cursor, parts.length));
+	}
+
+	@Test
+	void decodesASingleId() {
+		assertEquals(1234L, CursorCodec.decodeId(CursorCodec.encode("1234")));
+	}
+
+	@Test
+	void rejectsBlankGarbledAndWrongShapedCursors() {
+		assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(null, 1));
+		assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(" ", 1));
+		assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode("not*base64", 1));
+		assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode(CursorCodec.encode("a", "b"), 3));
+		assertThrows(IllegalArgumentException.class, () -> CursorCodec.decodeId(CursorCodec.encode("a", "b")));
+		assertThrows(IllegalArgumentException.class,
+				() -> CursorCodec.decodeId(Base64.getUrlEncoder().encodeToString("twelve".getBytes())));
+	}
+}